@@ -1,6 +1,19 @@
 package edu.ntnu.stud.app;
 
+import edu.ntnu.stud.io.TimetableImporter;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import edu.ntnu.stud.server.DepartureServer;
+import edu.ntnu.stud.userinterface.BatchCommandRunner;
 import edu.ntnu.stud.userinterface.UserInterface;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Wrapper-class for the static main-method to run the application.
@@ -8,16 +21,114 @@ import edu.ntnu.stud.userinterface.UserInterface;
  * <p><Strong>Goal: </Strong> Launch the user interface via the the main method.
  *
  * @author 10083
- * @version 1.2
+ * @version 1.3
  * @since 0.3
  */
 public class TrainDispatchApp {
+  private static final String BATCH_OPTION = "--batch";
+  private static final String SERVE_OPTION = "--serve";
 
   /**
    * The main method for the train dispatch application. It creates a new user interface object and
    * uses it to first initialise the application and then start it.
+   *
+   * <p>If the path of a CSV timetable file is given as the first argument, the departures are
+   * imported from the file instead of the built-in departures.
+   *
+   * <p>If the first argument is {@code --batch}, the commands of the script given as the second
+   * argument, or of the standard input if there is none, are run without the menu. See {@link
+   * BatchCommandRunner} for the commands.
+   *
+   * <p>If the first argument is {@code --serve}, the departures are answered as JSON over HTTP on
+   * the port given as the second argument, from the timetable file given as the third argument if
+   * there is one. See {@link DepartureServer} for the requests.
+   *
+   * @param args optionally the path of a timetable file, {@code --batch} and optionally the path of
+   *     a command script, or {@code --serve}, a port and optionally the path of a timetable file
    */
   public static void main(String[] args) {
-    UserInterface.launch();
+    if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+      runBatch(args.length > 1 ? Path.of(args[1]) : null);
+    } else if (args.length > 0 && args[0].equals(SERVE_OPTION)) {
+      int port = args.length > 1 ? parsePort(args[1]) : -1;
+      if (port == -1) {
+        System.err.println(
+            "Usage: " + SERVE_OPTION + " PORT [timetable], where the port is from 0 to 65535.");
+      } else {
+        serve(port, args.length > 2 ? Path.of(args[2]) : null);
+      }
+    } else if (args.length > 0) {
+      UserInterface.launch(Path.of(args[0]));
+    } else {
+      UserInterface.launch();
+    }
+  }
+
+  /**
+   * Runs a command script against an empty register. The output is buffered and flushed once at
+   * the end, and the number of commands and the time they took are written to the standard error.
+   *
+   * @param script the command script, or null to read the commands from the standard input
+   */
+  private static void runBatch(Path script) {
+    Writer out =
+        new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16);
+    BatchCommandRunner runner = new BatchCommandRunner(new TrainDepartureRegister(), out);
+    long started = System.nanoTime();
+    try (InputStream commands = script == null ? System.in : Files.newInputStream(script)) {
+      int numberOfCommands = runner.run(commands);
+      out.flush();
+      long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+      System.err.println(
+          "Ran "
+              + numberOfCommands
+              + " commands in "
+              + elapsedMillis
+              + " ms, of which "
+              + runner.getNumberOfErrors()
+              + " failed.");
+    } catch (IOException e) {
+      System.err.println("The commands could not be run: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Reads the port to serve on.
+   *
+   * @param port the port as given on the command line
+   * @return the port, or -1 if it is not a whole number from 0 to 65535
+   */
+  private static int parsePort(String port) {
+    try {
+      int number = Integer.parseInt(port);
+      return number >= 0 && number <= 65535 ? number : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Answers queries on a register over HTTP until the application is stopped.
+   *
+   * @param port the port to listen on
+   * @param timetable the timetable file to fill the register from, or null for an empty register
+   */
+  private static void serve(int port, Path timetable) {
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    try {
+      if (timetable != null) {
+        System.err.println(new TimetableImporter(register).importTimetable(timetable));
+      }
+      DepartureServer server = new DepartureServer(register, new InetSocketAddress(port));
+      server.start();
+      System.err.println(
+          "Answering "
+              + register.getNumberOfTrainDepartures()
+              + " departures on http://localhost:"
+              + server.getPort()
+              + "/departures");
+    } catch (IOException e) {
+      System.err.println("The server could not be started: " + e.getMessage());
+    }
   }
 }
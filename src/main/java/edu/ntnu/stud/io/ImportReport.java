@@ -0,0 +1,107 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Represents the outcome of importing a timetable file into a register: how many rows were read
+ * and added, which rows were rejected and why, and how fast the file was imported.
+ *
+ * <p>The row of a rejected departure is its position among the rows of the file, starting at 0 and
+ * not counting the header or blank lines.
+ *
+ * <p><Strong>Goal: </Strong>Tell the user what happened to every row of an imported timetable.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class ImportReport {
+  private final int rowsRead;
+  private final int rowsImported;
+  private final List<RejectedDeparture> rejectedRows;
+  private final Duration duration;
+
+  /**
+   * Constructs a new import report.
+   *
+   * @param rowsRead the number of rows read from the file
+   * @param rowsImported the number of rows added to the register
+   * @param rejectedRows the rows that were not added, ordered by row
+   * @param duration the time the import took
+   */
+  ImportReport(
+      int rowsRead, int rowsImported, List<RejectedDeparture> rejectedRows, Duration duration) {
+    this.rowsRead = rowsRead;
+    this.rowsImported = rowsImported;
+    this.rejectedRows = List.copyOf(rejectedRows);
+    this.duration = duration;
+  }
+
+  /**
+   * Retrieves the number of rows read from the file.
+   *
+   * @return the number of rows read
+   */
+  public int getRowsRead() {
+    return rowsRead;
+  }
+
+  /**
+   * Retrieves the number of rows added to the register.
+   *
+   * @return the number of rows imported
+   */
+  public int getRowsImported() {
+    return rowsImported;
+  }
+
+  /**
+   * Retrieves the rows that were not added to the register.
+   *
+   * @return the rejected rows ordered by row
+   */
+  public List<RejectedDeparture> getRejectedRows() {
+    return rejectedRows;
+  }
+
+  /**
+   * Retrieves the time the import took.
+   *
+   * @return the duration of the import
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Finds the number of rows read per second.
+   *
+   * @return the rows per second, or 0 if no time was measured
+   */
+  public double getRowsPerSecond() {
+    long nanos = duration.toNanos();
+    return nanos == 0 ? 0 : rowsRead * 1e9 / nanos;
+  }
+
+  /**
+   * Retrieves a summary of the import.
+   *
+   * @return the number of rows imported and rejected, and the speed of the import
+   */
+  @Override
+  public String toString() {
+    return "Imported "
+        + rowsImported
+        + " of "
+        + rowsRead
+        + " rows in "
+        + duration.toMillis()
+        + " ms ("
+        + Math.round(getRowsPerSecond())
+        + " rows per second). "
+        + rejectedRows.size()
+        + " rows were rejected.";
+  }
+}
@@ -0,0 +1,315 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A train departure register that is kept on disk, so its departures survive a restart.
+ *
+ * <p>The register is stored in a directory as a binary snapshot ({@link RegisterSnapshot}) and a
+ * log of the changes made since the snapshot ({@link WriteAheadLog}). Every change is made to the
+ * register and added to the log, and the method returns once the change is on disk. Changes made
+ * by several threads at the same time share one write to disk. {@link #checkpoint()} writes a new
+ * snapshot and empties the log, so the log does not grow without limit.
+ *
+ * <p>When the register is opened, the snapshot is read and the changes in the log are replayed.
+ *
+ * <p>A failure to write the log is fatal. The change whose method threw the {@link IOException}
+ * may already have been made in memory without being on disk, so the log is closed and every later
+ * change throws an {@link IOException} without touching the register. The register must then be
+ * opened again, which gives the changes that reached the disk.
+ *
+ * <p>The departures are read through {@link #getRegister()}. Changes must be made through this
+ * class, since changes made straight to the register are not logged.
+ *
+ * <p><Strong>Goal: </Strong>Keep the departures of a register when the application is restarted.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class PersistentTrainDepartureRegister implements Closeable {
+  private static final String SNAPSHOT_FILE = "register.snapshot";
+  private static final String LOG_FILE = "register.log";
+
+  private final TrainDepartureRegister register;
+  private final WriteAheadLog log;
+  private final Path snapshotFile;
+  private final ReentrantLock changeLock = new ReentrantLock();
+
+  /**
+   * Constructs a persistent register from a restored register and its log.
+   *
+   * @param register the restored register
+   * @param log the log, ready for new changes
+   * @param snapshotFile the file the snapshots are written to
+   */
+  PersistentTrainDepartureRegister(
+      TrainDepartureRegister register, WriteAheadLog log, Path snapshotFile) {
+    this.register = register;
+    this.log = log;
+    this.snapshotFile = snapshotFile;
+  }
+
+  /**
+   * Opens the register stored in the directory, or an empty register if the directory holds none.
+   * The directory is created if it does not exist.
+   *
+   * @param directory the directory holding the snapshot and the log
+   * @return the register with every change made before it was last closed
+   * @throws IOException if the snapshot or the log cannot be read
+   * @throws NullPointerException if the directory is null
+   */
+  public static PersistentTrainDepartureRegister open(Path directory)
+      throws IOException, NullPointerException {
+    Objects.requireNonNull(directory, "The directory cannot be null.");
+    Files.createDirectories(directory);
+    Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+    RegisterSnapshot snapshot = RegisterSnapshot.read(snapshotFile);
+    WriteAheadLog log =
+        WriteAheadLog.open(
+            directory.resolve(LOG_FILE), snapshot.getRegister(), snapshot.getLastSequenceNumber());
+    return new PersistentTrainDepartureRegister(snapshot.getRegister(), log, snapshotFile);
+  }
+
+  /**
+   * Retrieves the register, for reading its departures.
+   *
+   * @return the register
+   */
+  public TrainDepartureRegister getRegister() {
+    return register;
+  }
+
+  /**
+   * Adds a train departure to the register, and waits until the change is on disk.
+   *
+   * @param departureTimeInHours int representing the departure time in hours
+   * @param departureTimeInMinutes int representing the departure time in minutes
+   * @param trainLine string representing the train line
+   * @param departureId int representing the unique identifier for the train
+   * @param destination string representing the destination for the train
+   * @param delay int representing the delay in minutes
+   * @param track int representing the track number
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   * @throws NullPointerException if the train line or destination is null
+   * @throws IllegalArgumentException if the register does not accept the departure
+   * @see TrainDepartureRegister#addTrainDeparture(int, int, String, int, String, int, int)
+   */
+  public void addTrainDeparture(
+      int departureTimeInHours,
+      int departureTimeInMinutes,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track)
+      throws IOException, NullPointerException, IllegalArgumentException {
+    long sequenceNumber;
+    changeLock.lock();
+    try {
+      log.checkNotFailed();
+      register.addTrainDeparture(
+          departureTimeInHours,
+          departureTimeInMinutes,
+          trainLine,
+          departureId,
+          destination,
+          delay,
+          track);
+      sequenceNumber =
+          log.logAdd(
+              departureTimeInHours,
+              departureTimeInMinutes,
+              trainLine,
+              departureId,
+              destination,
+              delay,
+              track);
+    } catch (IOException e) {
+      throw failed(e);
+    } finally {
+      changeLock.unlock();
+    }
+    awaitDurable(sequenceNumber);
+  }
+
+  /**
+   * Assigns a delay to the departure with the ID, and waits until the change is on disk. Nothing
+   * happens if there is no departure with the ID.
+   *
+   * @param departureId the ID of the departure
+   * @param delay the delay in minutes
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   * @throws IllegalArgumentException if the register does not accept the delay
+   * @see TrainDepartureRegister#assignDelay(int, int)
+   */
+  public void assignDelay(int departureId, int delay)
+      throws IOException, IllegalArgumentException {
+    long sequenceNumber;
+    changeLock.lock();
+    try {
+      log.checkNotFailed();
+      register.assignDelay(departureId, delay);
+      if (!register.doesDepartureIdExist(departureId)) {
+        return;
+      }
+      sequenceNumber = log.logDelay(departureId, delay);
+    } catch (IOException e) {
+      throw failed(e);
+    } finally {
+      changeLock.unlock();
+    }
+    awaitDurable(sequenceNumber);
+  }
+
+  /**
+   * Assigns a track to the departure with the ID, and waits until the change is on disk. Nothing
+   * happens if there is no departure with the ID.
+   *
+   * @param departureId the ID of the departure
+   * @param trackNum the track number
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   * @throws IllegalArgumentException if the register does not accept the track
+   * @see TrainDepartureRegister#assignTrack(int, int)
+   */
+  public void assignTrack(int departureId, int trackNum)
+      throws IOException, IllegalArgumentException {
+    long sequenceNumber;
+    changeLock.lock();
+    try {
+      log.checkNotFailed();
+      register.assignTrack(departureId, trackNum);
+      if (!register.doesDepartureIdExist(departureId)) {
+        return;
+      }
+      sequenceNumber = log.logTrack(departureId, trackNum);
+    } catch (IOException e) {
+      throw failed(e);
+    } finally {
+      changeLock.unlock();
+    }
+    awaitDurable(sequenceNumber);
+  }
+
+  /**
+   * Removes the departure with the ID, and waits until the change is on disk. Nothing happens if
+   * there is no departure with the ID.
+   *
+   * @param departureId the ID of the departure
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   * @throws IllegalArgumentException if the ID is not valid
+   */
+  public void removeTrainDepartureBasedOnId(int departureId)
+      throws IOException, IllegalArgumentException {
+    long sequenceNumber;
+    changeLock.lock();
+    try {
+      log.checkNotFailed();
+      if (!register.doesDepartureIdExist(departureId)) {
+        return;
+      }
+      register.removeTrainDepartureBasedOnId(departureId);
+      sequenceNumber = log.logRemove(departureId);
+    } catch (IOException e) {
+      throw failed(e);
+    } finally {
+      changeLock.unlock();
+    }
+    awaitDurable(sequenceNumber);
+  }
+
+  /**
+   * Removes the departures that left before the time, and waits until the change is on disk.
+   *
+   * @param theTime the time
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   * @throws NullPointerException if the time is null
+   */
+  public void removeTrainDepartureBeforeTime(LocalTime theTime)
+      throws IOException, NullPointerException {
+    long sequenceNumber;
+    changeLock.lock();
+    try {
+      log.checkNotFailed();
+      register.removeTrainDepartureBeforeTime(theTime);
+      sequenceNumber = log.logRemoveBefore(theTime);
+    } catch (IOException e) {
+      throw failed(e);
+    } finally {
+      changeLock.unlock();
+    }
+    awaitDurable(sequenceNumber);
+  }
+
+  /**
+   * Waits until the change is on disk, closing the log if it cannot be written.
+   *
+   * @param sequenceNumber the sequence number of the change
+   * @throws IOException if the change cannot be written to the log, or an earlier write failed
+   */
+  private void awaitDurable(long sequenceNumber) throws IOException {
+    try {
+      log.awaitDurable(sequenceNumber);
+    } catch (IOException e) {
+      throw failed(e);
+    }
+  }
+
+  /**
+   * Closes the log after it failed, so no later change is made to the register.
+   *
+   * @param failure the failure of the log
+   * @return the failure, to be thrown
+   */
+  private IOException failed(IOException failure) {
+    try {
+      log.close();
+    } catch (IOException e) {
+      // The log has failed already, and its file is closed even so.
+    }
+    return failure;
+  }
+
+  /**
+   * Writes a snapshot of the register and empties the log. Changes wait while the snapshot is
+   * written.
+   *
+   * @throws IOException if the snapshot cannot be written
+   */
+  public void checkpoint() throws IOException {
+    changeLock.lock();
+    try {
+      long sequenceNumber = log.getLastSequenceNumber();
+      RegisterSnapshot.write(register, sequenceNumber, snapshotFile);
+      log.truncate(sequenceNumber);
+    } finally {
+      changeLock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the number of times the log has been forced to disk.
+   *
+   * @return the number of times
+   */
+  long getNumberOfSyncs() {
+    return log.getNumberOfSyncs();
+  }
+
+  /**
+   * Writes every change to disk and closes the log.
+   *
+   * @throws IOException if the log cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    log.close();
+  }
+}
@@ -0,0 +1,202 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TimetableEntry;
+import edu.ntnu.stud.models.TrainDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes every departure in a register to a compact binary file, and reads it back.
+ *
+ * <p>The train lines and destinations are written once in a dictionary at the start of the file,
+ * and each departure is then written as fixed-size numbers: train ID, departure minute, delay,
+ * track and the positions of its train line and destination in the dictionary. The file ends with
+ * a CRC-32C checksum of its content, so a damaged snapshot is detected when it is read.
+ *
+ * <p>The snapshot also holds the sequence number of the last change in the write-ahead log that it
+ * includes, so the changes in the log that are already part of the snapshot are not replayed.
+ *
+ * <p><Strong>Goal: </Strong>Store the state of a register so it can be restored after a restart.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class RegisterSnapshot {
+  private static final int MAGIC = 0x54445253;
+  private static final int VERSION = 1;
+
+  private final TrainDepartureRegister register;
+  private final long lastSequenceNumber;
+
+  /**
+   * Constructs a snapshot read from a file.
+   *
+   * @param register the register holding the departures of the snapshot
+   * @param lastSequenceNumber the sequence number of the last logged change in the snapshot
+   */
+  private RegisterSnapshot(TrainDepartureRegister register, long lastSequenceNumber) {
+    this.register = register;
+    this.lastSequenceNumber = lastSequenceNumber;
+  }
+
+  /**
+   * Retrieves the register restored from the snapshot.
+   *
+   * @return the register
+   */
+  TrainDepartureRegister getRegister() {
+    return register;
+  }
+
+  /**
+   * Retrieves the sequence number of the last logged change included in the snapshot.
+   *
+   * @return the sequence number, or 0 if no logged change is included
+   */
+  long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  /**
+   * Writes the departures of the register to the file. The snapshot is first written to a
+   * temporary file and forced to disk, and then moved in place of the file, so the file always
+   * holds either the old or the new snapshot.
+   *
+   * @param register the register to write
+   * @param lastSequenceNumber the sequence number of the last logged change in the register
+   * @param file the file to write to
+   * @throws IOException if the file cannot be written
+   */
+  static void write(TrainDepartureRegister register, long lastSequenceNumber, Path file)
+      throws IOException {
+    Collection<TrainDeparture> departures = new ArrayList<>(register.getTrainDepartures());
+    Map<String, Integer> codes = new HashMap<>();
+    List<String> dictionary = new ArrayList<>();
+    for (TrainDeparture td : departures) {
+      codes.computeIfAbsent(td.getTrainLine(), s -> addTo(dictionary, s));
+      codes.computeIfAbsent(td.getDestination(), s -> addTo(dictionary, s));
+    }
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    CRC32C checksum = new CRC32C();
+    try (OutputStream fileOut = Files.newOutputStream(temporary)) {
+      DataOutputStream out =
+          new DataOutputStream(
+              new BufferedOutputStream(new CheckedOutputStream(fileOut, checksum), 1 << 16));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(lastSequenceNumber);
+      out.writeInt(dictionary.size());
+      for (String s : dictionary) {
+        out.writeUTF(s);
+      }
+      out.writeInt(departures.size());
+      for (TrainDeparture td : departures) {
+        out.writeInt(td.getDepartureId());
+        out.writeShort(td.getDepartureTime().toSecondOfDay() / 60);
+        out.writeInt(td.getDelay());
+        out.writeByte(td.getTrack());
+        out.writeInt(codes.get(td.getTrainLine()));
+        out.writeInt(codes.get(td.getDestination()));
+      }
+      out.flush();
+      new DataOutputStream(fileOut).writeInt((int) checksum.getValue());
+    }
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Adds a string to the dictionary.
+   *
+   * @param dictionary the dictionary
+   * @param s the string to add
+   * @return the position of the string in the dictionary
+   */
+  private static int addTo(List<String> dictionary, String s) {
+    dictionary.add(s);
+    return dictionary.size() - 1;
+  }
+
+  /**
+   * Reads a snapshot into a new register. The departures are added in one batch.
+   *
+   * @param file the file to read
+   * @return the snapshot, or an empty snapshot if the file does not exist
+   * @throws IOException if the file cannot be read or is damaged
+   */
+  static RegisterSnapshot read(Path file) throws IOException {
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    if (!Files.exists(file)) {
+      return new RegisterSnapshot(register, 0);
+    }
+    CRC32C checksum = new CRC32C();
+    long lastSequenceNumber;
+    List<TimetableEntry> entries;
+    try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+      DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, checksum));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("The file " + file + " is not a snapshot of a register.");
+      }
+      lastSequenceNumber = in.readLong();
+      String[] dictionary = new String[in.readInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = in.readUTF();
+      }
+      int numberOfDepartures = in.readInt();
+      entries = new ArrayList<>(numberOfDepartures);
+      for (int i = 0; i < numberOfDepartures; i++) {
+        int departureId = in.readInt();
+        int minuteOfDay = in.readShort();
+        int delay = in.readInt();
+        int track = in.readByte();
+        String trainLine = dictionary[in.readInt()];
+        String destination = dictionary[in.readInt()];
+        entries.add(
+            new TimetableEntry(
+                minuteOfDay / 60,
+                minuteOfDay % 60,
+                trainLine,
+                departureId,
+                destination,
+                delay,
+                track));
+      }
+      int expected = (int) checksum.getValue();
+      if (new DataInputStream(fileIn).readInt() != expected) {
+        throw new IOException("The snapshot " + file + " is damaged.");
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IOException("The snapshot " + file + " is damaged.", e);
+    }
+    List<RejectedDeparture> rejected = register.addTrainDepartures(entries);
+    if (!rejected.isEmpty()) {
+      throw new IOException("The snapshot " + file + " is not valid: " + rejected.get(0));
+    }
+    return new RegisterSnapshot(register, lastSequenceNumber);
+  }
+}
@@ -0,0 +1,330 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TimetableEntry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses the rows of one chunk of a CSV timetable straight from the bytes of the file.
+ *
+ * <p>Each row has seven columns separated by commas: hours, minutes, train line, train ID,
+ * destination, delay and track. The delay may be left empty for a train on time and the track for
+ * a departure without a track. Spaces around a value are ignored, and quoted values are not
+ * supported. The numbers are read digit by digit from the bytes, and the train lines and
+ * destinations are decoded only the first time they are seen in the chunk, so the same destination
+ * is shared by every row going there.
+ *
+ * <p>A chunk always starts at the beginning of a row and ends after the last byte of a row.
+ *
+ * <p><Strong>Goal: </Strong>Turn the bytes of a timetable file into timetable entries without
+ * splitting every line into strings.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class TimetableChunkParser {
+  private static final int NUMBER_OF_COLUMNS = 7;
+  private static final int MAX_DIGITS = 9;
+
+  /** The rows of a parsed chunk. */
+  static final class Chunk {
+    private final List<TimetableEntry> entries = new ArrayList<>();
+    private int[] entryRows = new int[16];
+    private final List<RejectedDeparture> unreadableRows = new ArrayList<>();
+    private int rows;
+
+    /**
+     * Retrieves the entries read from the chunk.
+     *
+     * @return the entries in the order of the file
+     */
+    List<TimetableEntry> getEntries() {
+      return entries;
+    }
+
+    /**
+     * Retrieves the row of each entry within the chunk.
+     *
+     * @return the rows, where position i belongs to entry i
+     */
+    int[] getEntryRows() {
+      return entryRows;
+    }
+
+    /**
+     * Retrieves the rows that could not be read, with their row within the chunk.
+     *
+     * @return the unreadable rows
+     */
+    List<RejectedDeparture> getUnreadableRows() {
+      return unreadableRows;
+    }
+
+    /**
+     * Retrieves the number of rows in the chunk, both readable and unreadable.
+     *
+     * @return the number of rows
+     */
+    int getRows() {
+      return rows;
+    }
+  }
+
+  /** Shares the strings decoded from equal bytes, so each destination is decoded only once. */
+  private static final class StringPool {
+    private static final int MAX_SIZE = 1 << 12;
+    private byte[][] keys = new byte[64][];
+    private String[] values = new String[64];
+    private int size;
+
+    /**
+     * Retrieves the string for the bytes, decoding them if they have not been seen before.
+     *
+     * @param bytes the buffer holding the bytes
+     * @param length the number of bytes to use
+     * @return the decoded string
+     */
+    String get(byte[] bytes, int length) {
+      int hash = 1;
+      for (int i = 0; i < length; i++) {
+        hash = 31 * hash + bytes[i];
+      }
+      int mask = keys.length - 1;
+      int slot = (hash ^ (hash >>> 16)) & mask;
+      while (keys[slot] != null) {
+        if (Arrays.equals(keys[slot], 0, keys[slot].length, bytes, 0, length)) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      String value = new String(bytes, 0, length, StandardCharsets.UTF_8);
+      if (size < MAX_SIZE) {
+        keys[slot] = Arrays.copyOf(bytes, length);
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+          grow();
+        }
+      }
+      return value;
+    }
+
+    /** Doubles the size of the pool. */
+    private void grow() {
+      byte[][] oldKeys = keys;
+      String[] oldValues = values;
+      keys = new byte[oldKeys.length * 2][];
+      values = new String[oldKeys.length * 2];
+      int mask = keys.length - 1;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != null) {
+          int hash = 1;
+          for (byte b : oldKeys[i]) {
+            hash = 31 * hash + b;
+          }
+          int slot = (hash ^ (hash >>> 16)) & mask;
+          while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  private final ByteBuffer bytes;
+  private final boolean mayHaveHeader;
+  private final int[] columnStarts = new int[NUMBER_OF_COLUMNS];
+  private final int[] columnEnds = new int[NUMBER_OF_COLUMNS];
+  private final StringPool pool = new StringPool();
+  private byte[] scratch = new byte[64];
+
+  /**
+   * Constructs a parser for one chunk of a timetable file.
+   *
+   * @param bytes the bytes of the chunk, from position 0 to the limit
+   * @param mayHaveHeader true if the chunk is the start of the file, whose first row may be a
+   *     header
+   */
+  TimetableChunkParser(ByteBuffer bytes, boolean mayHaveHeader) {
+    this.bytes = bytes;
+    this.mayHaveHeader = mayHaveHeader;
+  }
+
+  /**
+   * Parses every row of the chunk. Blank lines and the header are skipped and not counted as rows.
+   *
+   * @return the entries and unreadable rows of the chunk
+   */
+  Chunk parse() {
+    Chunk chunk = new Chunk();
+    int limit = bytes.limit();
+    int position = 0;
+    if (mayHaveHeader && limit >= 3
+        && bytes.get(0) == (byte) 0xEF && bytes.get(1) == (byte) 0xBB
+        && bytes.get(2) == (byte) 0xBF) {
+      position = 3;
+    }
+    boolean lookForHeader = mayHaveHeader;
+    while (position < limit) {
+      int lineEnd = position;
+      while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+        lineEnd++;
+      }
+      int end = lineEnd > position && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+      int start = skipSpaces(position, end);
+      if (start < end) {
+        if (lookForHeader && !isNumberStart(bytes.get(start))) {
+          lookForHeader = false;
+        } else {
+          lookForHeader = false;
+          parseRow(chunk, start, end);
+        }
+      }
+      position = lineEnd + 1;
+    }
+    return chunk;
+  }
+
+  /**
+   * Parses one row and adds it to the chunk, as an entry or as an unreadable row.
+   *
+   * @param chunk the chunk being parsed
+   * @param start the first byte of the row
+   * @param end the position after the last byte of the row
+   */
+  private void parseRow(Chunk chunk, int start, int end) {
+    int row = chunk.rows++;
+    int columns = 0;
+    int columnStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || bytes.get(i) == ',') {
+        if (columns < NUMBER_OF_COLUMNS) {
+          columnStarts[columns] = columnStart;
+          columnEnds[columns] = i;
+        }
+        columns++;
+        columnStart = i + 1;
+      }
+    }
+    if (columns != NUMBER_OF_COLUMNS) {
+      chunk.unreadableRows.add(
+          new RejectedDeparture(
+              row, 0, "Expected 7 columns but found " + columns + ". The row was not read."));
+      return;
+    }
+    int departureId = 0;
+    try {
+      departureId = parseInt(3, "train ID", 0);
+      TimetableEntry entry =
+          new TimetableEntry(
+              parseInt(0, "hour", 0),
+              parseInt(1, "minute", 0),
+              parseString(2),
+              departureId,
+              parseString(4),
+              parseInt(5, "delay", 0),
+              parseInt(6, "track", -1));
+      if (chunk.entries.size() == chunk.entryRows.length) {
+        chunk.entryRows = Arrays.copyOf(chunk.entryRows, chunk.entryRows.length * 2);
+      }
+      chunk.entryRows[chunk.entries.size()] = row;
+      chunk.entries.add(entry);
+    } catch (NumberFormatException e) {
+      chunk.unreadableRows.add(new RejectedDeparture(row, departureId, e.getMessage()));
+    }
+  }
+
+  /**
+   * Reads a whole number from a column, digit by digit.
+   *
+   * @param column the column to read
+   * @param name the name of the column, used in the error message
+   * @param whenEmpty the value of an empty column
+   * @return the number
+   * @throws NumberFormatException if the column is not a whole number
+   */
+  private int parseInt(int column, String name, int whenEmpty) throws NumberFormatException {
+    int start = skipSpaces(columnStarts[column], columnEnds[column]);
+    int end = trimSpaces(start, columnEnds[column]);
+    if (start == end) {
+      if (column == 0 || column == 1 || column == 3) {
+        throw new NumberFormatException("The " + name + " is missing.");
+      }
+      return whenEmpty;
+    }
+    boolean negative = bytes.get(start) == '-';
+    int digitsStart = negative ? start + 1 : start;
+    if (digitsStart == end || end - digitsStart > MAX_DIGITS) {
+      throw new NumberFormatException("The " + name + " is not a whole number.");
+    }
+    int value = 0;
+    for (int i = digitsStart; i < end; i++) {
+      int digit = bytes.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("The " + name + " is not a whole number.");
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Reads a text column, sharing the string with earlier rows holding the same text.
+   *
+   * @param column the column to read
+   * @return the text without surrounding spaces
+   */
+  private String parseString(int column) {
+    int start = skipSpaces(columnStarts[column], columnEnds[column]);
+    int length = trimSpaces(start, columnEnds[column]) - start;
+    if (length > scratch.length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    bytes.get(start, scratch, 0, length);
+    return pool.get(scratch, length);
+  }
+
+  /**
+   * Finds the first byte from the start that is not a space or tab.
+   *
+   * @param start the first byte to look at
+   * @param end the position after the last byte to look at
+   * @return the position of the first other byte, or the end
+   */
+  private int skipSpaces(int start, int end) {
+    while (start < end && (bytes.get(start) == ' ' || bytes.get(start) == '\t')) {
+      start++;
+    }
+    return start;
+  }
+
+  /**
+   * Finds the position after the last byte before the end that is not a space or tab.
+   *
+   * @param start the first byte to look at
+   * @param end the position after the last byte to look at
+   * @return the position after the last other byte, or the start
+   */
+  private int trimSpaces(int start, int end) {
+    while (end > start && (bytes.get(end - 1) == ' ' || bytes.get(end - 1) == '\t')) {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Checks whether the byte can start a number, which a header row never does.
+   *
+   * @param b the first byte of a row
+   * @return true if the byte is a digit or a minus sign
+   */
+  private static boolean isNumberStart(byte b) {
+    return (b >= '0' && b <= '9') || b == '-';
+  }
+}
@@ -0,0 +1,295 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TimetableEntry;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports a CSV timetable file into a train departure register.
+ *
+ * <p>The file is memory-mapped and split into chunks at line breaks, and the chunks are parsed by
+ * {@link TimetableChunkParser} on several threads at once. While the later chunks are being parsed,
+ * the rows of the earlier ones are added to the register in batches through {@link
+ * TrainDepartureRegister#addTrainDepartures(List)}, in the order of the file. If the register
+ * rejects rows of a batch, they are reported and the rest of the batch is added, so a departure ID
+ * used twice in the file is added the first time it appears.
+ *
+ * <p>Each row has seven columns: hours, minutes, train line, train ID, destination, delay and
+ * track. An optional header row is skipped. See {@link TimetableChunkParser} for the details.
+ *
+ * <p><Strong>Goal: </Strong>Fill a register from a timetable file of up to millions of rows.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class TimetableImporter {
+  private static final int DEFAULT_BATCH_SIZE = 1 << 16;
+  private static final long DEFAULT_MIN_CHUNK_SIZE = 1 << 20;
+  private static final long MAX_CHUNK_SIZE = 1 << 30;
+  private static final int BOUNDARY_READ_SIZE = 4096;
+
+  private final TrainDepartureRegister register;
+  private final int numberOfThreads;
+  private final int batchSize;
+  private final long minChunkSize;
+
+  /**
+   * Constructs an importer that parses on every available processor.
+   *
+   * @param register the register to add the departures to
+   * @throws NullPointerException if the register is null
+   */
+  public TimetableImporter(TrainDepartureRegister register) throws NullPointerException {
+    this(
+        register,
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_BATCH_SIZE,
+        DEFAULT_MIN_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructs an importer with the given number of threads and batch size.
+   *
+   * @param register the register to add the departures to
+   * @param numberOfThreads the number of threads parsing the file
+   * @param batchSize the number of rows added to the register at once
+   * @param minChunkSize the smallest number of bytes a thread is given to parse
+   * @throws NullPointerException if the register is null
+   * @throws IllegalArgumentException if any of the numbers are less than 1
+   */
+  TimetableImporter(
+      TrainDepartureRegister register, int numberOfThreads, int batchSize, long minChunkSize)
+      throws NullPointerException, IllegalArgumentException {
+    this.register = Objects.requireNonNull(register, "The register cannot be null.");
+    if (numberOfThreads < 1 || batchSize < 1 || minChunkSize < 1) {
+      throw new IllegalArgumentException(
+          "The number of threads, batch size and chunk size must be at least 1.");
+    }
+    this.numberOfThreads = numberOfThreads;
+    this.batchSize = batchSize;
+    this.minChunkSize = minChunkSize;
+  }
+
+  /**
+   * Imports the timetable file into the register.
+   *
+   * @param file the CSV timetable file
+   * @return the report of the import, with every rejected row
+   * @throws IOException if the file cannot be read
+   * @throws NullPointerException if the file is null
+   */
+  public ImportReport importTimetable(Path file) throws IOException, NullPointerException {
+    Objects.requireNonNull(file, "The file cannot be null.");
+    long started = System.nanoTime();
+    int rowsRead = 0;
+    int rowsImported = 0;
+    List<RejectedDeparture> rejected = new ArrayList<>();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long[] boundaries = chunkBoundaries(channel);
+      int numberOfChunks = boundaries.length - 1;
+      ExecutorService parsers =
+          Executors.newFixedThreadPool(Math.max(1, Math.min(numberOfThreads, numberOfChunks)));
+      try {
+        List<Future<TimetableChunkParser.Chunk>> chunks = new ArrayList<>(numberOfChunks);
+        for (int i = 0; i < numberOfChunks; i++) {
+          long start = boundaries[i];
+          long size = boundaries[i + 1] - start;
+          boolean first = i == 0;
+          chunks.add(
+              parsers.submit(
+                  () -> new TimetableChunkParser(map(channel, start, size), first).parse()));
+        }
+        for (Future<TimetableChunkParser.Chunk> future : chunks) {
+          TimetableChunkParser.Chunk chunk = await(future);
+          for (RejectedDeparture unreadable : chunk.getUnreadableRows()) {
+            rejected.add(
+                new RejectedDeparture(
+                    rowsRead + unreadable.getRow(),
+                    unreadable.getDepartureId(),
+                    unreadable.getReason()));
+          }
+          rowsImported += addInBatches(chunk, rowsRead, rejected);
+          rowsRead += chunk.getRows();
+        }
+      } finally {
+        parsers.shutdownNow();
+      }
+    }
+    rejected.sort(Comparator.comparingInt(RejectedDeparture::getRow));
+    return new ImportReport(
+        rowsRead, rowsImported, rejected, Duration.ofNanos(System.nanoTime() - started));
+  }
+
+  /**
+   * Splits the file into chunks that each end with a line break, or at the end of the file.
+   *
+   * @param channel the open file
+   * @return the start of every chunk followed by the size of the file
+   * @throws IOException if the file cannot be read
+   */
+  private long[] chunkBoundaries(FileChannel channel) throws IOException {
+    long fileSize = channel.size();
+    long numberOfChunks =
+        Math.max(
+            Math.min(numberOfThreads * 4L, fileSize / minChunkSize),
+            (fileSize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    numberOfChunks = Math.max(1, numberOfChunks);
+    List<Long> boundaries = new ArrayList<>();
+    boundaries.add(0L);
+    ByteBuffer window = ByteBuffer.allocate(BOUNDARY_READ_SIZE);
+    for (long i = 1; i < numberOfChunks; i++) {
+      long boundary = nextLineStart(channel, fileSize * i / numberOfChunks, window);
+      if (boundary > boundaries.get(boundaries.size() - 1) && boundary < fileSize) {
+        boundaries.add(boundary);
+      }
+    }
+    boundaries.add(fileSize);
+    return boundaries.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Finds the start of the first line that begins at or after the position.
+   *
+   * @param channel the open file
+   * @param position the position to search from
+   * @param window the buffer used to read the file
+   * @return the position after the next line break, or the size of the file if there is none
+   * @throws IOException if the file cannot be read
+   */
+  private static long nextLineStart(FileChannel channel, long position, ByteBuffer window)
+      throws IOException {
+    long searched = position - 1;
+    while (true) {
+      window.clear();
+      int read = channel.read(window, searched);
+      if (read <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (window.get(i) == '\n') {
+          return searched + i + 1;
+        }
+      }
+      searched += read;
+    }
+  }
+
+  /**
+   * Maps a chunk of the file into memory.
+   *
+   * @param channel the open file
+   * @param start the first byte of the chunk
+   * @param size the number of bytes in the chunk
+   * @return the mapped bytes
+   */
+  private static ByteBuffer map(FileChannel channel, long start, long size) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Waits for a chunk to be parsed.
+   *
+   * @param future the parsing of the chunk
+   * @return the parsed chunk
+   * @throws IOException if the chunk could not be read, or the import was interrupted
+   */
+  private static TimetableChunkParser.Chunk await(Future<TimetableChunkParser.Chunk> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("The import was interrupted.");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException unchecked) {
+        throw unchecked.getCause();
+      }
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Adds the entries of a chunk to the register, one batch at a time.
+   *
+   * @param chunk the parsed chunk
+   * @param firstRow the row of the file the chunk starts at
+   * @param rejected the rejected rows, to which the rows the register rejects are added
+   * @return the number of rows added
+   */
+  private int addInBatches(
+      TimetableChunkParser.Chunk chunk, int firstRow, List<RejectedDeparture> rejected) {
+    List<TimetableEntry> entries = chunk.getEntries();
+    int[] entryRows = chunk.getEntryRows();
+    int added = 0;
+    for (int from = 0; from < entries.size(); from += batchSize) {
+      int to = Math.min(entries.size(), from + batchSize);
+      List<TimetableEntry> batch = new ArrayList<>(entries.subList(from, to));
+      int[] rows = new int[batch.size()];
+      for (int i = 0; i < rows.length; i++) {
+        rows[i] = firstRow + entryRows[from + i];
+      }
+      added += addBatch(batch, rows, rejected);
+    }
+    return added;
+  }
+
+  /**
+   * Adds a batch to the register. The register adds a batch only if it rejects none of its rows,
+   * so the rejected rows are taken out and the rest of the batch is added again.
+   *
+   * @param batch the entries of the batch
+   * @param rows the row of the file of each entry
+   * @param rejected the rejected rows, to which the rows the register rejects are added
+   * @return the number of rows added
+   */
+  private int addBatch(List<TimetableEntry> batch, int[] rows, List<RejectedDeparture> rejected) {
+    while (!batch.isEmpty()) {
+      List<RejectedDeparture> rejectedInBatch = register.addTrainDepartures(batch);
+      if (rejectedInBatch.isEmpty()) {
+        return batch.size();
+      }
+      boolean[] isRejected = new boolean[batch.size()];
+      for (RejectedDeparture r : rejectedInBatch) {
+        isRejected[r.getRow()] = true;
+        rejected.add(new RejectedDeparture(rows[r.getRow()], r.getDepartureId(), r.getReason()));
+      }
+      List<TimetableEntry> remaining = new ArrayList<>(batch.size() - rejectedInBatch.size());
+      int[] remainingRows = new int[batch.size() - rejectedInBatch.size()];
+      for (int i = 0; i < batch.size(); i++) {
+        if (!isRejected[i]) {
+          remainingRows[remaining.size()] = rows[i];
+          remaining.add(batch.get(i));
+        }
+      }
+      batch = remaining;
+      rows = remainingRows;
+    }
+    return 0;
+  }
+}
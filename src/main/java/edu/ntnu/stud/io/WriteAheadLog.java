@@ -0,0 +1,510 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TimetableEntry;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of the changes made to a register, so the changes made after the last
+ * snapshot can be replayed after a restart.
+ *
+ * <p>Each change is written as one record: the length of the record, its sequence number, the type
+ * of change, the values of the change and a CRC-32C checksum. A change is first added to a buffer
+ * in memory. A thread that needs its change on disk becomes the leader if no other thread is
+ * writing, and writes and forces every buffered change at once, while the other threads keep adding
+ * changes to a second buffer. The cost of forcing the file to disk is in this way shared by every
+ * change made while the previous write was forced (group commit).
+ *
+ * <p>If the application stops in the middle of a write, the log ends with a partly written record.
+ * When the log is opened, it is read up to the first record that is incomplete or has the wrong
+ * checksum, and cut off there.
+ *
+ * <p>If a write or a force fails, it is not known which of the buffered changes reached the disk,
+ * so the log is marked as failed: every later change and wait throws an {@link IOException}, and
+ * the log must be opened again, which replays the changes that did reach the disk.
+ *
+ * <p><Strong>Goal: </Strong>Make every change to a register durable without forcing the file to
+ * disk once per change.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class WriteAheadLog implements Closeable {
+  private static final byte ADD = 1;
+  private static final byte DELAY = 2;
+  private static final byte TRACK = 3;
+  private static final byte REMOVE = 4;
+  private static final byte REMOVE_BEFORE = 5;
+
+  private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Byte.BYTES;
+  private static final int CHECKSUM_SIZE = Integer.BYTES;
+  private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final CRC32C checksum = new CRC32C();
+  private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+  private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+  private int recordStart;
+  private long nextSequenceNumber;
+  private volatile long durableSequenceNumber;
+  private long numberOfSyncs;
+  private volatile IOException failure;
+
+  /**
+   * Constructs a log appending to an open file.
+   *
+   * @param channel the file, positioned after the last complete record
+   * @param lastSequenceNumber the sequence number of the last change already made durable
+   */
+  WriteAheadLog(FileChannel channel, long lastSequenceNumber) {
+    this.channel = channel;
+    this.nextSequenceNumber = lastSequenceNumber + 1;
+    this.durableSequenceNumber = lastSequenceNumber;
+  }
+
+  /**
+   * Opens the log, replays the changes after the snapshot into the register and cuts off a partly
+   * written record at the end of the log. The log file is created if it does not exist.
+   *
+   * @param file the log file
+   * @param register the register restored from the snapshot
+   * @param snapshotSequenceNumber the sequence number of the last change included in the snapshot
+   * @return the log, ready for new changes
+   * @throws IOException if the file cannot be read, or a change cannot be replayed
+   */
+  static WriteAheadLog open(Path file, TrainDepartureRegister register, long snapshotSequenceNumber)
+      throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("The log " + file + " is too large to be replayed.");
+      }
+      ByteBuffer log = ByteBuffer.allocate((int) channel.size());
+      while (log.hasRemaining() && channel.read(log, log.position()) > 0) {
+        // Keep reading until the whole log is in memory.
+      }
+      log.flip();
+      long lastSequenceNumber = replay(log, register, snapshotSequenceNumber);
+      channel.truncate(log.position());
+      channel.position(log.position());
+      return new WriteAheadLog(channel, Math.max(lastSequenceNumber, snapshotSequenceNumber));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Replays the complete records of the log into the register. The departures added by
+   * consecutive records are added in one batch.
+   *
+   * @param log the log, which is left positioned after the last complete record
+   * @param register the register to replay the changes into
+   * @param snapshotSequenceNumber the sequence number of the last change included in the snapshot
+   * @return the sequence number of the last complete record, or 0 if there is none
+   * @throws IOException if a change cannot be replayed
+   */
+  private static long replay(
+      ByteBuffer log, TrainDepartureRegister register, long snapshotSequenceNumber)
+      throws IOException {
+    CRC32C checksum = new CRC32C();
+    List<TimetableEntry> added = new ArrayList<>();
+    long lastSequenceNumber = 0;
+    while (log.remaining() >= HEADER_SIZE + CHECKSUM_SIZE) {
+      int start = log.position();
+      int length = log.getInt(start);
+      if (length < Long.BYTES + Byte.BYTES || length > log.remaining() - 2 * Integer.BYTES) {
+        break;
+      }
+      checksum.reset();
+      checksum.update(log.slice(start + Integer.BYTES, length));
+      if ((int) checksum.getValue() != log.getInt(start + Integer.BYTES + length)) {
+        break;
+      }
+      log.position(start + Integer.BYTES);
+      long sequenceNumber = log.getLong();
+      byte type = log.get();
+      if (sequenceNumber > snapshotSequenceNumber) {
+        if (type != ADD) {
+          addAll(register, added);
+        }
+        apply(type, log, register, added);
+      }
+      lastSequenceNumber = sequenceNumber;
+      log.position(start + Integer.BYTES + length + CHECKSUM_SIZE);
+    }
+    addAll(register, added);
+    return lastSequenceNumber;
+  }
+
+  /**
+   * Replays one change into the register.
+   *
+   * @param type the type of change
+   * @param log the log, positioned at the values of the change
+   * @param register the register to replay the change into
+   * @param added the departures waiting to be added, to which an added departure is put
+   * @throws IOException if the type of change is unknown
+   */
+  private static void apply(
+      byte type, ByteBuffer log, TrainDepartureRegister register, List<TimetableEntry> added)
+      throws IOException {
+    switch (type) {
+      case ADD -> {
+        int hours = log.get();
+        int minutes = log.get();
+        int departureId = log.getInt();
+        int delay = log.getInt();
+        int track = log.get();
+        String trainLine = getString(log);
+        String destination = getString(log);
+        added.add(
+            new TimetableEntry(hours, minutes, trainLine, departureId, destination, delay, track));
+      }
+      case DELAY -> register.assignDelay(log.getInt(), log.getInt());
+      case TRACK -> register.assignTrack(log.getInt(), log.getInt());
+      case REMOVE -> register.removeTrainDepartureBasedOnId(log.getInt());
+      case REMOVE_BEFORE ->
+          register.removeTrainDepartureBeforeTime(LocalTime.ofNanoOfDay(log.getLong()));
+      default -> throw new IOException("The log holds an unknown type of change: " + type + ".");
+    }
+  }
+
+  /**
+   * Adds the departures waiting to be added to the register in one batch.
+   *
+   * @param register the register to add the departures to
+   * @param added the departures to add, which is emptied
+   * @throws IOException if the register rejects any of the departures
+   */
+  private static void addAll(TrainDepartureRegister register, List<TimetableEntry> added)
+      throws IOException {
+    if (added.isEmpty()) {
+      return;
+    }
+    List<RejectedDeparture> rejected = register.addTrainDepartures(added);
+    if (!rejected.isEmpty()) {
+      throw new IOException("The log does not match the snapshot: " + rejected.get(0));
+    }
+    added.clear();
+  }
+
+  /**
+   * Reads a string written by {@link #putString(ByteBuffer, byte[])}.
+   *
+   * @param log the log, positioned at the string
+   * @return the string
+   */
+  private static String getString(ByteBuffer log) {
+    byte[] bytes = new byte[Short.toUnsignedInt(log.getShort())];
+    log.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a string as its length followed by its UTF-8 bytes.
+   *
+   * @param record the record to write to
+   * @param bytes the UTF-8 bytes of the string
+   */
+  private static void putString(ByteBuffer record, byte[] bytes) {
+    record.putShort((short) bytes.length);
+    record.put(bytes);
+  }
+
+  /**
+   * Logs an added departure.
+   *
+   * @param hours the hour of the departure time
+   * @param minutes the minute of the departure time
+   * @param trainLine the train line
+   * @param departureId the train ID
+   * @param destination the destination
+   * @param delay the delay in minutes
+   * @param track the track, or -1 if none
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  long logAdd(
+      int hours,
+      int minutes,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track)
+      throws IOException {
+    checkNotFailed();
+    byte[] line = trainLine.getBytes(StandardCharsets.UTF_8);
+    byte[] place = destination.getBytes(StandardCharsets.UTF_8);
+    appendLock.lock();
+    try {
+      ByteBuffer record = beginRecord(ADD, 11 + 2 * Short.BYTES + line.length + place.length);
+      record.put((byte) hours).put((byte) minutes).putInt(departureId).putInt(delay);
+      record.put((byte) track);
+      putString(record, line);
+      putString(record, place);
+      return endRecord(record);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Logs a new delay of a departure.
+   *
+   * @param departureId the train ID
+   * @param delay the new delay in minutes
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  long logDelay(int departureId, int delay) throws IOException {
+    return logTwoNumbers(DELAY, departureId, delay);
+  }
+
+  /**
+   * Logs a new track of a departure.
+   *
+   * @param departureId the train ID
+   * @param track the new track
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  long logTrack(int departureId, int track) throws IOException {
+    return logTwoNumbers(TRACK, departureId, track);
+  }
+
+  /**
+   * Logs a change holding a train ID and one other number.
+   *
+   * @param type the type of change
+   * @param departureId the train ID
+   * @param value the other number
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  private long logTwoNumbers(byte type, int departureId, int value) throws IOException {
+    checkNotFailed();
+    appendLock.lock();
+    try {
+      return endRecord(beginRecord(type, 2 * Integer.BYTES).putInt(departureId).putInt(value));
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Logs a removed departure.
+   *
+   * @param departureId the train ID
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  long logRemove(int departureId) throws IOException {
+    checkNotFailed();
+    appendLock.lock();
+    try {
+      return endRecord(beginRecord(REMOVE, Integer.BYTES).putInt(departureId));
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Logs the removal of the departures that left before a time.
+   *
+   * @param time the time
+   * @return the sequence number of the change
+   * @throws IOException if an earlier write of the log failed
+   */
+  long logRemoveBefore(LocalTime time) throws IOException {
+    checkNotFailed();
+    appendLock.lock();
+    try {
+      return endRecord(beginRecord(REMOVE_BEFORE, Long.BYTES).putLong(time.toNanoOfDay()));
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Checks that no write of the log has failed.
+   *
+   * @throws IOException if a write of the log has failed
+   */
+  void checkNotFailed() throws IOException {
+    IOException cause = failure;
+    if (cause != null) {
+      throw new IOException("The log cannot be used, since an earlier write failed.", cause);
+    }
+  }
+
+  /**
+   * Starts a record in the buffer, making the buffer larger if the record does not fit. The append
+   * lock must be held.
+   *
+   * @param type the type of change
+   * @param valuesSize the number of bytes of the values of the change
+   * @return the buffer, positioned at the values of the change
+   */
+  private ByteBuffer beginRecord(byte type, int valuesSize) {
+    int recordSize = HEADER_SIZE + valuesSize + CHECKSUM_SIZE;
+    if (pending.remaining() < recordSize) {
+      ByteBuffer larger =
+          ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordSize));
+      pending.flip();
+      pending = larger.put(pending);
+    }
+    recordStart = pending.position();
+    return pending
+        .putInt(Long.BYTES + Byte.BYTES + valuesSize)
+        .putLong(nextSequenceNumber)
+        .put(type);
+  }
+
+  /**
+   * Ends the record started last by adding its checksum. The append lock must be held.
+   *
+   * @param record the buffer, positioned after the values of the change
+   * @return the sequence number of the record
+   */
+  private long endRecord(ByteBuffer record) {
+    int start = recordStart + Integer.BYTES;
+    int end = record.position();
+    checksum.reset();
+    checksum.update(record.slice(start, end - start));
+    record.putInt((int) checksum.getValue());
+    return nextSequenceNumber++;
+  }
+
+  /**
+   * Retrieves the sequence number of the last change added to the log.
+   *
+   * @return the sequence number
+   */
+  long getLastSequenceNumber() {
+    appendLock.lock();
+    try {
+      return nextSequenceNumber - 1;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Waits until the change with the sequence number, and every change before it, is on disk. If
+   * no other thread is writing the log, this thread writes every buffered change and forces the
+   * file to disk once. If the write or the force fails, the log is marked as failed.
+   *
+   * @param sequenceNumber the sequence number of the change
+   * @throws IOException if the log cannot be written, or an earlier write failed
+   */
+  void awaitDurable(long sequenceNumber) throws IOException {
+    if (durableSequenceNumber >= sequenceNumber) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      if (durableSequenceNumber >= sequenceNumber) {
+        return;
+      }
+      checkNotFailed();
+      long written;
+      appendLock.lock();
+      try {
+        ByteBuffer swapped = pending;
+        pending = writing;
+        writing = swapped;
+        written = nextSequenceNumber - 1;
+      } finally {
+        appendLock.unlock();
+      }
+      writing.flip();
+      try {
+        while (writing.hasRemaining()) {
+          channel.write(writing);
+        }
+        channel.force(false);
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      } finally {
+        writing.clear();
+      }
+      numberOfSyncs++;
+      durableSequenceNumber = written;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Empties the log after a snapshot including every change has been written. No change may be
+   * added while the log is emptied.
+   *
+   * @param snapshotSequenceNumber the sequence number of the last change included in the snapshot
+   * @throws IOException if the log cannot be emptied, or an earlier write failed
+   */
+  void truncate(long snapshotSequenceNumber) throws IOException {
+    flushLock.lock();
+    try {
+      checkNotFailed();
+      appendLock.lock();
+      try {
+        pending.clear();
+        channel.truncate(0);
+        channel.force(false);
+        durableSequenceNumber = snapshotSequenceNumber;
+      } finally {
+        appendLock.unlock();
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the number of times the log has been forced to disk.
+   *
+   * @return the number of times
+   */
+  long getNumberOfSyncs() {
+    flushLock.lock();
+    try {
+      return numberOfSyncs;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Writes every buffered change to disk and closes the log.
+   *
+   * @throws IOException if the log cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      awaitDurable(getLastSequenceNumber());
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,720 @@
+package edu.ntnu.stud.models;
+
+import edu.ntnu.stud.utils.ParameterValidation;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a train departure register that stores the departures in columns of primitive values
+ * instead of as {@link TrainDeparture} objects, for registers holding many days or stations.
+ *
+ * <p>Each departure is one row across parallel arrays: the departure time in minutes of the day
+ * and the delay in minutes as {@code short}, the track as {@code byte}, the ID as {@code int}, and
+ * the train line and destination as {@code short} codes into dictionaries holding each distinct
+ * string once. A departure therefore takes 13 bytes in the columns plus its slot in an
+ * open-addressing index from ID to row, compared to a {@link TrainDeparture} object with two
+ * {@link LocalTime} objects and the entries of several indexes in {@link TrainDepartureRegister}.
+ *
+ * <p>It mirrors the single departure methods of {@link TrainDepartureRegister}: adding, finding,
+ * delaying, moving and removing a departure by ID, removing the departures before a time, the
+ * queries by destination, and the time statistics ({@code rank}, {@code select}, {@code
+ * percentile} and the interquartile range). These behave the same way in both registers. It has no
+ * bulk or filter operations, next departure lookup, time-window queries, streams, subscriptions or
+ * output to an {@link Appendable}, and {@link #getTrainDepartures()} returns a list of copies
+ * rather than a live view, so it cannot replace the register everywhere.
+ *
+ * <p>Lookups by ID take constant time, while the other queries scan the columns and ordered results
+ * are sorted when they are asked for. The methods are synchronized, so the register can be shared
+ * between threads.
+ *
+ * <p><Strong>Goal: </Strong>Act as a memory efficient model for a train departure register.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+public class CompactTrainDepartureRegister {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int EMPTY = 0;
+  private static final int NOT_FOUND = -1;
+  private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+  /** Stores each distinct string once and hands out a short code for it. */
+  private static final class Dictionary {
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private short encode(String value) {
+      Integer code = codes.get(value);
+      if (code == null) {
+        if (values.size() > 0xFFFF) {
+          throw new IllegalStateException("There are too many distinct values in the register.");
+        }
+        code = values.size();
+        values.add(value);
+        codes.put(value, code);
+      }
+      return (short) code.intValue();
+    }
+
+    private String decode(short code) {
+      return values.get(Short.toUnsignedInt(code));
+    }
+  }
+
+  private int size;
+  private int[] departureIds = new int[DEFAULT_CAPACITY];
+  private short[] departureMinutes = new short[DEFAULT_CAPACITY];
+  private short[] delays = new short[DEFAULT_CAPACITY];
+  private byte[] tracks = new byte[DEFAULT_CAPACITY];
+  private short[] trainLineCodes = new short[DEFAULT_CAPACITY];
+  private short[] destinationCodes = new short[DEFAULT_CAPACITY];
+
+  /** Open-addressing index from departure ID to row, where 0 marks an empty slot. */
+  private int[] indexKeys = new int[DEFAULT_CAPACITY];
+  private int[] indexRows = new int[DEFAULT_CAPACITY];
+
+  private final Dictionary trainLines = new Dictionary();
+  private final Dictionary destinations = new Dictionary();
+  private final TrackOccupancy trackOccupancy = new TrackOccupancy();
+  private final MinuteOfDayStatistics departureTimeStatistics = new MinuteOfDayStatistics();
+  private final MinuteOfDayStatistics delayedTimeStatistics = new MinuteOfDayStatistics();
+
+  /** Constructs an object of the class CompactTrainDepartureRegister. */
+  public CompactTrainDepartureRegister() {}
+
+  /**
+   * Spreads the bits of the ID so that consecutive IDs do not end up in consecutive slots.
+   *
+   * @param departureId the ID to hash
+   * @param mask the index length minus one
+   * @return the home slot of the ID
+   */
+  private static int slotOf(int departureId, int mask) {
+    int h = departureId * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Finds the row of the departure with the given ID.
+   *
+   * @param departureId the ID of the departure
+   * @return the row of the departure, or -1 if there is no departure with the ID
+   */
+  private int rowOf(int departureId) {
+    int mask = indexKeys.length - 1;
+    int slot = slotOf(departureId, mask);
+    while (indexKeys[slot] != EMPTY) {
+      if (indexKeys[slot] == departureId) {
+        return indexRows[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Stores the row of the departure in the index, replacing the row stored for the same ID.
+   *
+   * @param departureId the ID of the departure
+   * @param row the row of the departure
+   */
+  private void putRow(int departureId, int row) {
+    int mask = indexKeys.length - 1;
+    int slot = slotOf(departureId, mask);
+    while (indexKeys[slot] != EMPTY && indexKeys[slot] != departureId) {
+      slot = (slot + 1) & mask;
+    }
+    indexKeys[slot] = departureId;
+    indexRows[slot] = row;
+  }
+
+  /**
+   * Removes the ID from the index, shifting the following entries back into the hole.
+   *
+   * @param departureId the ID of the departure
+   */
+  private void removeFromIndex(int departureId) {
+    int mask = indexKeys.length - 1;
+    int hole = slotOf(departureId, mask);
+    while (indexKeys[hole] != departureId) {
+      hole = (hole + 1) & mask;
+    }
+    int next = (hole + 1) & mask;
+    while (indexKeys[next] != EMPTY) {
+      int home = slotOf(indexKeys[next], mask);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        indexKeys[hole] = indexKeys[next];
+        indexRows[hole] = indexRows[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    indexKeys[hole] = EMPTY;
+  }
+
+  /** Makes room for one more row, growing the columns and the index when they are full. */
+  private void ensureCapacityForOneMore() {
+    if (size == departureIds.length) {
+      int capacity = departureIds.length * 2;
+      departureIds = Arrays.copyOf(departureIds, capacity);
+      departureMinutes = Arrays.copyOf(departureMinutes, capacity);
+      delays = Arrays.copyOf(delays, capacity);
+      tracks = Arrays.copyOf(tracks, capacity);
+      trainLineCodes = Arrays.copyOf(trainLineCodes, capacity);
+      destinationCodes = Arrays.copyOf(destinationCodes, capacity);
+    }
+    if ((size + 1) * 4 > indexKeys.length * 3) {
+      indexKeys = new int[indexKeys.length * 2];
+      indexRows = new int[indexRows.length * 2];
+      for (int row = 0; row < size; row++) {
+        putRow(departureIds[row], row);
+      }
+    }
+  }
+
+  /**
+   * Retrieves the departure time of the row.
+   *
+   * @param row the row of the departure
+   * @return the departure time
+   */
+  private LocalTime departureTimeOf(int row) {
+    int minute = departureMinutes[row];
+    return LocalTime.of(minute / 60, minute % 60);
+  }
+
+  /**
+   * Retrieves the delayed time of the row, which wraps around midnight like {@link
+   * LocalTime#plusMinutes(long)}.
+   *
+   * @param row the row of the departure
+   * @return the delayed time
+   */
+  private LocalTime delayedTimeOf(int row) {
+    return departureTimeOf(row).plusMinutes(delays[row]);
+  }
+
+  /**
+   * Retrieves the minute of the day the row actually leaves, wrapping around midnight.
+   *
+   * @param row the row of the departure
+   * @return the delayed time in minutes of the day
+   */
+  private int delayedMinuteOf(int row) {
+    return (departureMinutes[row] + delays[row]) % MINUTES_PER_DAY;
+  }
+
+  /**
+   * Creates a train departure from the values of the row.
+   *
+   * @param row the row of the departure
+   * @return a new train departure with the values of the row
+   */
+  private TrainDeparture toTrainDeparture(int row) {
+    int minute = departureMinutes[row];
+    return new TrainDeparture(
+        minute / 60,
+        minute % 60,
+        trainLines.decode(trainLineCodes[row]),
+        departureIds[row],
+        destinations.decode(destinationCodes[row]),
+        delays[row],
+        tracks[row]);
+  }
+
+  /**
+   * Sorts rows in the order of departure time and then departure ID. Each row is packed into a
+   * {@code long} with the minute of the day in the upper half and the ID in the lower half, so the
+   * keys are sorted as primitives and the rows are found again through the index.
+   *
+   * @param rows the rows to sort, which are overwritten
+   * @return the sorted rows
+   */
+  private int[] sortRows(int[] rows) {
+    long[] keys = new long[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      keys[i] = (long) departureMinutes[rows[i]] << 32 | departureIds[rows[i]];
+    }
+    Arrays.sort(keys);
+    for (int i = 0; i < keys.length; i++) {
+      rows[i] = rowOf((int) keys[i]);
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the rows in the order of departure time and then departure ID.
+   *
+   * @return the sorted rows
+   */
+  private int[] rowsInOrder() {
+    return sortRows(IntStream.range(0, size).toArray());
+  }
+
+  /**
+   * Finds the destination codes of the destination, ignoring case.
+   *
+   * @param destination the destination
+   * @return whether each code of the dictionary is spelled as the destination, ignoring case
+   */
+  private boolean[] codesOf(String destination) {
+    String wanted = destination.toLowerCase(Locale.ROOT);
+    boolean[] matchingCodes = new boolean[destinations.values.size()];
+    for (int code = 0; code < matchingCodes.length; code++) {
+      matchingCodes[code] = destinations.values.get(code).toLowerCase(Locale.ROOT).equals(wanted);
+    }
+    return matchingCodes;
+  }
+
+  /**
+   * Finds the rows going to the destination, ignoring case, in the order of the register. Only the
+   * matching rows are sorted.
+   *
+   * @param destination the destination
+   * @return the sorted rows going to the destination
+   */
+  private int[] rowsGoingTo(String destination) {
+    boolean[] matchingCodes = codesOf(destination);
+    return sortRows(
+        IntStream.range(0, size)
+            .filter(row -> matchingCodes[Short.toUnsignedInt(destinationCodes[row])])
+            .toArray());
+  }
+
+  /**
+   * Creates the exception thrown when a track is already taken at a given time.
+   *
+   * @param track the track number
+   * @return the exception describing the collision
+   */
+  private static IllegalArgumentException trackIsTaken(int track) {
+    return new IllegalArgumentException(
+        "There already exists a departure departing from "
+            + track
+            + " at the same time. Please try again.");
+  }
+
+  /**
+   * Checks that the delay fits in the delay column.
+   *
+   * @param delay the delay in minutes
+   * @throws IllegalArgumentException if the delay is negative or too long
+   */
+  private static void validateDelay(int delay) throws IllegalArgumentException {
+    ParameterValidation.validateDelay(delay);
+    if (delay > Short.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "The delay cannot be more than " + Short.MAX_VALUE + " minutes.");
+    }
+  }
+
+  /**
+   * Checks whether the train ID is taken by another train departure in the register.
+   *
+   * @param departureIdUnique ID of the train departure
+   * @return true if the train departure exists in the register, false otherwise
+   */
+  public synchronized boolean doesDepartureIdExist(int departureIdUnique)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureIdUnique);
+    return rowOf(departureIdUnique) != NOT_FOUND;
+  }
+
+  /**
+   * Retrieves a copy of the departure with the given ID.
+   *
+   * @param departureId ID of the train being searched for
+   * @return a new train departure with the values stored in the register, or null if there is no
+   *     departure with the ID
+   */
+  public synchronized TrainDeparture getTrainDepartureBasedOnId(int departureId)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    int row = rowOf(departureId);
+    return row == NOT_FOUND ? null : toTrainDeparture(row);
+  }
+
+  /**
+   * Retrieves copies of the departures in the register, ordered by departure time and then
+   * departure ID.
+   *
+   * @return the departures in the register
+   */
+  public synchronized List<TrainDeparture> getTrainDepartures() {
+    return Arrays.stream(rowsInOrder()).mapToObj(this::toTrainDeparture).toList();
+  }
+
+  /**
+   * Checks whether or not there is a train that is going to a given destination.
+   *
+   * @param destination the destination to check if there is a train going to
+   * @return true if there is a train going to the destination, false otherwise
+   */
+  public synchronized boolean doesDestinationExist(String destination)
+      throws IllegalArgumentException {
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please try again.");
+    boolean[] matchingCodes = codesOf(destination);
+    for (int row = 0; row < size; row++) {
+      if (matchingCodes[Short.toUnsignedInt(destinationCodes[row])]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the total number of departures in the register.
+   *
+   * @return the number of departures in the register
+   */
+  public synchronized int getNumberOfTrainDepartures() {
+    return size;
+  }
+
+  /**
+   * Calculates the amount of time before the nearest departure leaves the station, taking the
+   * delays into account. The earliest delayed time is read from the statistics of the delayed
+   * times instead of searching the rows.
+   *
+   * @param time the current time
+   * @return the number of minutes until the next departure, or -1 if the register is empty
+   */
+  public synchronized long getTimeTilNextDeparture(LocalTime time) {
+    ParameterValidation.validateTime(time);
+    if (size == 0) {
+      return -1;
+    }
+    return Duration.between(time, delayedTimeStatistics.select(0)).toMinutes();
+  }
+
+  /**
+   * Counts the departures that leave before the given time.
+   *
+   * @param type whether the scheduled or the delayed time is counted
+   * @param time the time to compare with
+   * @return the number of departures leaving before the time
+   */
+  public synchronized int rank(DepartureTimeType type, LocalTime time)
+      throws NullPointerException {
+    ParameterValidation.validateTime(time);
+    return statisticsFor(type).rank(time);
+  }
+
+  /**
+   * Finds the time of the k-th departure when the departures are ordered by the given time.
+   *
+   * @param type whether the scheduled or the delayed time is used
+   * @param k the zero-based position of the departure
+   * @return the time of the departure at the position
+   * @throws IllegalArgumentException if the position is not in the register
+   */
+  public synchronized LocalTime select(DepartureTimeType type, int k)
+      throws IllegalArgumentException {
+    if (k < 0 || k >= size) {
+      throw new IllegalArgumentException(
+          "The position must be between 0 and the number of departures minus one.");
+    }
+    return statisticsFor(type).select(k);
+  }
+
+  /**
+   * Finds the given percentile of the departures, using the nearest rank below.
+   *
+   * @param type whether the scheduled or the delayed time is used
+   * @param percentile the percentile as a fraction between 0 and 1
+   * @return the time at the percentile
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   * @throws IllegalStateException if there are no departures in the register
+   */
+  public synchronized LocalTime percentile(DepartureTimeType type, double percentile)
+      throws IllegalArgumentException, IllegalStateException {
+    ParameterValidation.validatePercentile(percentile);
+    if (size == 0) {
+      throw new IllegalStateException("There are no departures in the register.");
+    }
+    return statisticsFor(type).select(Math.min((int) (percentile * size), size - 1));
+  }
+
+  /**
+   * Retrieves the statistics kept for the given type of time.
+   *
+   * @param type the type of time
+   * @return the statistics for the type of time
+   */
+  private MinuteOfDayStatistics statisticsFor(DepartureTimeType type) {
+    return type == DepartureTimeType.DEPARTURE_TIME
+        ? departureTimeStatistics
+        : delayedTimeStatistics;
+  }
+
+  /**
+   * Finds the 25th and the 75th percentile of the train departures based on the departure time.
+   *
+   * @return the interquartile range, or "-" if there are no departures in the register
+   */
+  public synchronized String findInterQuartileRange() {
+    if (size == 0) {
+      return "-";
+    }
+    return percentile(DepartureTimeType.DEPARTURE_TIME, 0.25)
+        + " - "
+        + percentile(DepartureTimeType.DEPARTURE_TIME, 0.75);
+  }
+
+  /**
+   * Generates a list of all the destinations that the departures in the register are going to.
+   * Each destination is listed once, spelled as in its first departure, in the order of the first
+   * departure going there.
+   *
+   * @return the list of destinations
+   */
+  public synchronized String returnAllDestinationsInRegister() {
+    Map<String, String> firstSpellings = new LinkedHashMap<>();
+    for (int row : rowsInOrder()) {
+      String destination = destinations.decode(destinationCodes[row]);
+      firstSpellings.putIfAbsent(destination.toLowerCase(Locale.ROOT), destination);
+    }
+    return String.join(" | ", firstSpellings.values());
+  }
+
+  /**
+   * Retrieves the train departures that are going to destination and maps them to string.
+   *
+   * @param destination to identify the train departure that is being searched for
+   * @return the string containing the train departures
+   */
+  public synchronized String returnTrainDeparturesBasedOnDestinationAsString(String destination)
+      throws IllegalArgumentException, NullPointerException {
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please enter the destination");
+    return Arrays.stream(rowsGoingTo(destination))
+        .mapToObj(row -> toTrainDeparture(row).toString())
+        .collect(Collectors.joining("\n"));
+  }
+
+  /**
+   * Looks up the departureId specified in the index and retrieves information about that train
+   * departure.
+   *
+   * @param departureId ID of the train being searched for
+   * @return the train departure with the specific train ID as a string, or an empty string if
+   *     there is no departure with the ID
+   */
+  public synchronized String returnTrainDepartureBasedOnId(int departureId)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    int row = rowOf(departureId);
+    return row == NOT_FOUND ? "" : toTrainDeparture(row).toString();
+  }
+
+  /**
+   * Adds a departure to the register after parameter validation is performed on the arguments.
+   *
+   * @param departureTimeInHours int representing the departure time in hours
+   * @param departureTimeInMinutes int representing the departure time in minutes
+   * @param trainLine string representing the train line
+   * @param departureId int representing the unique identifier for the train
+   * @param destination string representing the destination for the train
+   * @param delay int representing the delay in minutes
+   * @param track int representing the track number
+   * @throws NullPointerException if the train line or destination is null
+   * @throws IllegalArgumentException
+   *     <ol>
+   *       <li>if the Train line or destination is blank
+   *       <li>if the departure ID or delay is negative, or the delay is too long
+   *       <li>if the track number is not between 1 and 15
+   *       <li>if there already is a departure with the same ID in the register
+   *       <li>if another departure leaves from the same track at the same time
+   *     </ol>
+   * @throws IllegalStateException if the register already holds the largest number of distinct
+   *     train lines or destinations, in which case the register is left unchanged
+   */
+  public synchronized void addTrainDeparture(
+      int departureTimeInHours,
+      int departureTimeInMinutes,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track)
+      throws NullPointerException, IllegalArgumentException, IllegalStateException {
+    ParameterValidation.validateHour(departureTimeInHours);
+    ParameterValidation.validateMinute(departureTimeInMinutes);
+    ParameterValidation.notBlankValidation(
+        trainLine, "No Train line has been detected. Please enter the train line");
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please enter the destination");
+    ParameterValidation.validateId(departureId);
+    validateDelay(delay);
+    ParameterValidation.validateTrack(track);
+    LocalTime departureTime = LocalTime.of(departureTimeInHours, departureTimeInMinutes);
+    LocalTime delayedTime = departureTime.plusMinutes(delay);
+    if (rowOf(departureId) != NOT_FOUND) {
+      throw new IllegalArgumentException(
+          "There already exists a departure with the train ID " + departureId + ".");
+    }
+    short trainLineCode = trainLines.encode(trainLine);
+    short destinationCode = destinations.encode(destination);
+    if (!trackOccupancy.tryOccupy(track, delayedTime)) {
+      throw trackIsTaken(track);
+    }
+
+    ensureCapacityForOneMore();
+    int row = size++;
+    departureIds[row] = departureId;
+    departureMinutes[row] = (short) (departureTimeInHours * 60 + departureTimeInMinutes);
+    delays[row] = (short) delay;
+    tracks[row] = (byte) track;
+    trainLineCodes[row] = trainLineCode;
+    destinationCodes[row] = destinationCode;
+    putRow(departureId, row);
+    departureTimeStatistics.add(departureTime);
+    delayedTimeStatistics.add(delayedTime);
+  }
+
+  /**
+   * Edits the delay for a train departure based on the train ID.
+   *
+   * @param departureId unique identifier of the train departure
+   * @param delay the delay in minutes
+   * @throws IllegalArgumentException if the new delayed time collides with another departure
+   *     leaving from the same track
+   */
+  public synchronized void assignDelay(int departureId, int delay)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    validateDelay(delay);
+    int row = rowOf(departureId);
+    if (row != NOT_FOUND) {
+      LocalTime oldDelayedTime = delayedTimeOf(row);
+      LocalTime newDelayedTime = departureTimeOf(row).plusMinutes(delay);
+      if (!newDelayedTime.equals(oldDelayedTime)) {
+        if (!trackOccupancy.tryOccupy(tracks[row], newDelayedTime)) {
+          throw trackIsTaken(tracks[row]);
+        }
+        trackOccupancy.release(tracks[row], oldDelayedTime);
+        delayedTimeStatistics.remove(oldDelayedTime);
+        delayedTimeStatistics.add(newDelayedTime);
+      }
+      delays[row] = (short) delay;
+    }
+  }
+
+  /**
+   * Edits the track number for a train departure based on the train ID.
+   *
+   * @param departureId unique identifier of the train departure
+   * @param trackNum the track number
+   * @throws IllegalArgumentException if another departure leaves from the new track at the same
+   *     time
+   */
+  public synchronized void assignTrack(int departureId, int trackNum)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    ParameterValidation.validateTrack(trackNum);
+    int row = rowOf(departureId);
+    if (row != NOT_FOUND && tracks[row] != trackNum) {
+      LocalTime delayedTime = delayedTimeOf(row);
+      if (!trackOccupancy.tryOccupy(trackNum, delayedTime)) {
+        throw trackIsTaken(trackNum);
+      }
+      trackOccupancy.release(tracks[row], delayedTime);
+      tracks[row] = (byte) trackNum;
+    }
+  }
+
+  /**
+   * Checks if two departures have the same departure time from the same track. Departures without
+   * a track never collide.
+   *
+   * @param td the departure to check against the register
+   * @throws IllegalArgumentException if a departure in the register leaves from the same track at
+   *     the same time
+   */
+  public synchronized void checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(TrainDeparture td)
+      throws IllegalArgumentException {
+    if (trackOccupancy.isOccupied(td.getTrack(), td.getDelayedTime())) {
+      throw trackIsTaken(td.getTrack());
+    }
+  }
+
+  /**
+   * Removes the row, moving the last row into its place.
+   *
+   * @param row the row to remove
+   */
+  private void removeRow(int row) {
+    LocalTime delayedTime = delayedTimeOf(row);
+    trackOccupancy.release(tracks[row], delayedTime);
+    departureTimeStatistics.remove(departureTimeOf(row));
+    delayedTimeStatistics.remove(delayedTime);
+    removeFromIndex(departureIds[row]);
+    int last = --size;
+    if (row != last) {
+      departureIds[row] = departureIds[last];
+      departureMinutes[row] = departureMinutes[last];
+      delays[row] = delays[last];
+      tracks[row] = tracks[last];
+      trainLineCodes[row] = trainLineCodes[last];
+      destinationCodes[row] = destinationCodes[last];
+      putRow(departureIds[row], row);
+    }
+  }
+
+  /**
+   * Removes the train departure based on its ID.
+   *
+   * @param departureId the unique ID of the train to be removed
+   */
+  public synchronized void removeTrainDepartureBasedOnId(int departureId)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    int row = rowOf(departureId);
+    if (row != NOT_FOUND) {
+      removeRow(row);
+    }
+  }
+
+  /**
+   * Removes the train departures that left the station before the system time.
+   *
+   * @param theTime the time to check if the train departure is before
+   */
+  public synchronized void removeTrainDepartureBeforeTime(LocalTime theTime)
+      throws NullPointerException {
+    ParameterValidation.validateTime(theTime);
+    long limit = theTime.toNanoOfDay();
+    int row = 0;
+    while (row < size) {
+      if (delayedMinuteOf(row) * NANOS_PER_MINUTE < limit) {
+        removeRow(row);
+      } else {
+        row++;
+      }
+    }
+  }
+
+  /**
+   * Collects the train departures in the register as a string.
+   *
+   * @return the string containing the train departures
+   */
+  @Override
+  public synchronized String toString() {
+    return Arrays.stream(rowsInOrder())
+        .mapToObj(row -> toTrainDeparture(row).toString())
+        .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,228 @@
+package edu.ntnu.stud.models;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Computes punctuality reports over the departures of a register or of a whole network of stations.
+ *
+ * <p>The departures are read with the parallel stream of the register, which the common fork-join
+ * pool splits into parts with the same number of departures. Each part counts its departures into
+ * statistics of its own, for every train line, destination, track and hour, without any locks,
+ * and the parts are merged as the fork-join tasks finish. The train lines and destinations are
+ * counted in hash maps by the strings of the departures, and the tracks and hours in arrays, so
+ * counting a departure allocates nothing. The reports of the stations of a network are computed in
+ * parallel and merged the same way.
+ *
+ * <p>A departure is on time if its delay is no more than the on time threshold, which is {@value
+ * #DEFAULT_ON_TIME_THRESHOLD} minutes unless another threshold is given.
+ *
+ * <p><Strong>Goal: </Strong>Report the punctuality of the departures of a register in parallel.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DelayAnalytics {
+  /** The largest delay in minutes at which a departure is on time, unless told otherwise. */
+  public static final int DEFAULT_ON_TIME_THRESHOLD = 3;
+
+  private static final int HOURS_PER_DAY = 24;
+  private static final int HIGHEST_TRACK = 15;
+
+  /**
+   * The statistics counted by one fork-join task. Only the task counting into it uses it, until
+   * it is merged into the statistics of another task.
+   */
+  private static final class Accumulator {
+    private final int onTimeThreshold;
+    private final DelayStatistics overall;
+    private final Map<String, DelayStatistics> byTrainLine = new HashMap<>();
+    private final Map<String, DelayStatistics> byDestination = new HashMap<>();
+    /** The statistics of each track, where position 0 holds the departures without a track. */
+    private final DelayStatistics[] byTrack = new DelayStatistics[HIGHEST_TRACK + 1];
+    private final DelayStatistics[] byHour = new DelayStatistics[HOURS_PER_DAY];
+
+    /**
+     * Constructs an empty accumulator.
+     *
+     * @param onTimeThreshold the largest delay in minutes at which a departure is on time
+     */
+    private Accumulator(int onTimeThreshold) {
+      this.onTimeThreshold = onTimeThreshold;
+      this.overall = new DelayStatistics(onTimeThreshold);
+    }
+
+    /**
+     * Creates empty statistics with the threshold of the accumulator.
+     *
+     * @param key the group the statistics are for, not used
+     * @return the statistics
+     */
+    private DelayStatistics newStatistics(Object key) {
+      return new DelayStatistics(onTimeThreshold);
+    }
+
+    /**
+     * Retrieves the statistics at a position of an array of groups, creating them if needed.
+     *
+     * @param groups the statistics of the groups
+     * @param position the position of the group
+     * @return the statistics of the group
+     */
+    private DelayStatistics group(DelayStatistics[] groups, int position) {
+      DelayStatistics statistics = groups[position];
+      if (statistics == null) {
+        statistics = new DelayStatistics(onTimeThreshold);
+        groups[position] = statistics;
+      }
+      return statistics;
+    }
+
+    /**
+     * Counts a departure in every group it belongs to.
+     *
+     * @param td the departure
+     */
+    private void add(TrainDeparture td) {
+      int delay = td.getDelay();
+      overall.add(delay);
+      byTrainLine.computeIfAbsent(td.getTrainLine(), this::newStatistics).add(delay);
+      byDestination.computeIfAbsent(td.getDestination(), this::newStatistics).add(delay);
+      group(byTrack, Math.max(0, td.getTrack())).add(delay);
+      group(byHour, td.getDepartureTime().getHour()).add(delay);
+    }
+
+    /**
+     * Adds the counts of another accumulator to this one.
+     *
+     * @param other the accumulator of another fork-join task
+     * @return this accumulator
+     */
+    private Accumulator combine(Accumulator other) {
+      overall.addAll(other.overall);
+      other.byTrainLine.forEach(
+          (trainLine, statistics) ->
+              byTrainLine.computeIfAbsent(trainLine, this::newStatistics).addAll(statistics));
+      other.byDestination.forEach(
+          (destination, statistics) ->
+              byDestination.computeIfAbsent(destination, this::newStatistics).addAll(statistics));
+      for (int track = 0; track < byTrack.length; track++) {
+        if (other.byTrack[track] != null) {
+          group(byTrack, track).addAll(other.byTrack[track]);
+        }
+      }
+      for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+        if (other.byHour[hour] != null) {
+          group(byHour, hour).addAll(other.byHour[hour]);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Turns the counts into a report, grouping the destinations that differ only in case.
+     *
+     * @return the report
+     */
+    private DelayReport toReport() {
+      SortedMap<String, DelayStatistics> destinations =
+          new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      byDestination.forEach(
+          (destination, statistics) ->
+              destinations.merge(destination, statistics, DelayStatistics::merge));
+      SortedMap<Integer, DelayStatistics> tracks = new TreeMap<>();
+      for (int track = 0; track < byTrack.length; track++) {
+        if (byTrack[track] != null) {
+          tracks.put(track == 0 ? -1 : track, byTrack[track]);
+        }
+      }
+      SortedMap<Integer, DelayStatistics> hours = new TreeMap<>();
+      for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+        if (byHour[hour] != null) {
+          hours.put(hour, byHour[hour]);
+        }
+      }
+      return new DelayReport(overall, new TreeMap<>(byTrainLine), destinations, tracks, hours);
+    }
+  }
+
+  private final int onTimeThreshold;
+
+  /** Constructs analytics counting a departure as on time if it is at most 3 minutes late. */
+  public DelayAnalytics() {
+    this(DEFAULT_ON_TIME_THRESHOLD);
+  }
+
+  /**
+   * Constructs analytics with the given on time threshold.
+   *
+   * @param onTimeThreshold the largest delay in minutes at which a departure is on time
+   * @throws IllegalArgumentException if the threshold is negative
+   */
+  public DelayAnalytics(int onTimeThreshold) throws IllegalArgumentException {
+    if (onTimeThreshold < 0) {
+      throw new IllegalArgumentException("The on time threshold cannot be negative.");
+    }
+    this.onTimeThreshold = onTimeThreshold;
+  }
+
+  /**
+   * Retrieves the largest delay at which a departure is on time.
+   *
+   * @return the threshold in minutes
+   */
+  public int getOnTimeThreshold() {
+    return onTimeThreshold;
+  }
+
+  /**
+   * Creates the collector counting departures into a report, which the fork-join tasks of a
+   * parallel stream each use on their own part and then merge.
+   *
+   * @return the collector
+   */
+  private Collector<TrainDeparture, Accumulator, DelayReport> toDelayReport() {
+    return Collector.of(
+        () -> new Accumulator(onTimeThreshold),
+        Accumulator::add,
+        Accumulator::combine,
+        Accumulator::toReport,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Computes the punctuality report of the departures in the register, in parallel.
+   *
+   * @param register the register
+   * @return the report
+   * @throws NullPointerException if the register is null
+   */
+  public DelayReport analyse(TrainDepartureRegister register) throws NullPointerException {
+    return register.parallelStream().collect(toDelayReport());
+  }
+
+  /**
+   * Computes the punctuality report of every station in the network, with the stations analysed
+   * in parallel and their reports merged.
+   *
+   * @param stations the stations of the network
+   * @return the report of the departures of every station
+   * @throws NullPointerException if the stations are null
+   */
+  public DelayReport analyse(StationRegistry stations) throws NullPointerException {
+    List<TrainDepartureRegister> registers =
+        stations.getStationNames().stream()
+            .map(stations::getStation)
+            .filter(register -> register != null)
+            .toList();
+    return registers.parallelStream()
+        .map(this::analyse)
+        .reduce(DelayReport::merge)
+        .orElseGet(() -> new Accumulator(onTimeThreshold).toReport());
+  }
+}
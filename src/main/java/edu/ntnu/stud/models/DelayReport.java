@@ -0,0 +1,172 @@
+package edu.ntnu.stud.models;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Represents a punctuality report of train departures: the delay statistics of all of them, and of
+ * the departures of each train line, destination, track and hour of the scheduled departure time.
+ *
+ * <p>Destinations are grouped ignoring case, as in the register. Departures without a track are
+ * grouped under the track -1. Every group is described by {@link DelayStatistics}, and a report is
+ * read-only.
+ *
+ * <p>Reports of different registers, for example of every station in a network, can be merged into
+ * one report, which is the same as the report of all their departures together.
+ *
+ * <p><Strong>Goal: </Strong>Report the punctuality of departures broken down by line, destination,
+ * track and hour.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DelayReport {
+  private final DelayStatistics overall;
+  private final SortedMap<String, DelayStatistics> byTrainLine;
+  private final SortedMap<String, DelayStatistics> byDestination;
+  private final SortedMap<Integer, DelayStatistics> byTrack;
+  private final SortedMap<Integer, DelayStatistics> byHour;
+
+  /**
+   * Constructs a report of the statistics, which must not be changed afterwards.
+   *
+   * @param overall the statistics of every departure
+   * @param byTrainLine the statistics of each train line
+   * @param byDestination the statistics of each destination, ordered ignoring case
+   * @param byTrack the statistics of each track, with -1 for no track
+   * @param byHour the statistics of each hour of the scheduled departure time
+   */
+  DelayReport(
+      DelayStatistics overall,
+      SortedMap<String, DelayStatistics> byTrainLine,
+      SortedMap<String, DelayStatistics> byDestination,
+      SortedMap<Integer, DelayStatistics> byTrack,
+      SortedMap<Integer, DelayStatistics> byHour) {
+    this.overall = overall;
+    this.byTrainLine = Collections.unmodifiableSortedMap(byTrainLine);
+    this.byDestination = Collections.unmodifiableSortedMap(byDestination);
+    this.byTrack = Collections.unmodifiableSortedMap(byTrack);
+    this.byHour = Collections.unmodifiableSortedMap(byHour);
+  }
+
+  /**
+   * Retrieves the statistics of every departure in the report.
+   *
+   * @return the overall statistics
+   */
+  public DelayStatistics getOverall() {
+    return overall;
+  }
+
+  /**
+   * Retrieves the statistics of each train line, ordered by train line.
+   *
+   * @return read-only map from train line to statistics
+   */
+  public SortedMap<String, DelayStatistics> getByTrainLine() {
+    return byTrainLine;
+  }
+
+  /**
+   * Retrieves the statistics of each destination, ordered by destination ignoring case.
+   *
+   * @return read-only map from destination to statistics, where the destination is found ignoring
+   *     case
+   */
+  public SortedMap<String, DelayStatistics> getByDestination() {
+    return byDestination;
+  }
+
+  /**
+   * Retrieves the statistics of each track, ordered by track, with -1 for departures without a
+   * track.
+   *
+   * @return read-only map from track to statistics
+   */
+  public SortedMap<Integer, DelayStatistics> getByTrack() {
+    return byTrack;
+  }
+
+  /**
+   * Retrieves the statistics of each hour of the scheduled departure time, from 0 to 23. Hours
+   * without departures are left out.
+   *
+   * @return read-only map from hour to statistics
+   */
+  public SortedMap<Integer, DelayStatistics> getByHour() {
+    return byHour;
+  }
+
+  /**
+   * Merges this report with another into a new report, leaving both unchanged.
+   *
+   * @param other the report to merge with, for example of another station
+   * @return the report of the departures of both
+   * @throws IllegalArgumentException if the reports use different on time thresholds
+   * @throws NullPointerException if the other report is null
+   */
+  public DelayReport merge(DelayReport other)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(other, "The report cannot be null.");
+    return new DelayReport(
+        overall.merge(other.overall),
+        mergeGroups(byTrainLine, other.byTrainLine, new TreeMap<>()),
+        mergeGroups(
+            byDestination, other.byDestination, new TreeMap<>(String.CASE_INSENSITIVE_ORDER)),
+        mergeGroups(byTrack, other.byTrack, new TreeMap<>()),
+        mergeGroups(byHour, other.byHour, new TreeMap<>()));
+  }
+
+  /**
+   * Merges the statistics of two sets of groups, merging the groups found in both.
+   *
+   * @param first the first groups
+   * @param second the second groups
+   * @param merged the empty map to merge into
+   * @param <K> the type of the key of a group
+   * @return the merged groups
+   */
+  private static <K> SortedMap<K, DelayStatistics> mergeGroups(
+      Map<K, DelayStatistics> first,
+      Map<K, DelayStatistics> second,
+      SortedMap<K, DelayStatistics> merged) {
+    merged.putAll(first);
+    second.forEach((key, statistics) -> merged.merge(key, statistics, DelayStatistics::merge));
+    return merged;
+  }
+
+  /**
+   * Writes the report as a table, with one line for every group.
+   *
+   * @return the report as a string
+   */
+  @Override
+  public String toString() {
+    StringBuilder report = new StringBuilder();
+    report.append("All departures: ").append(overall).append('\n');
+    appendGroups(report, "Train line", byTrainLine);
+    appendGroups(report, "Destination", byDestination);
+    appendGroups(report, "Track", byTrack);
+    appendGroups(report, "Hour", byHour);
+    return report.toString();
+  }
+
+  /**
+   * Writes the statistics of a set of groups, one line for each.
+   *
+   * @param report the report to write to
+   * @param title the title of the groups
+   * @param groups the groups
+   */
+  private static void appendGroups(
+      StringBuilder report, String title, Map<?, DelayStatistics> groups) {
+    report.append(title).append(":\n");
+    groups.forEach(
+        (key, statistics) ->
+            report.append("  ").append(key).append(": ").append(statistics).append('\n'));
+  }
+}
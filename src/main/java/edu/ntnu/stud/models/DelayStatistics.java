@@ -0,0 +1,258 @@
+package edu.ntnu.stud.models;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Represents the punctuality of a group of train departures: how many there are, how many are on
+ * time, their average and largest delay, and a histogram of their delays.
+ *
+ * <p>The histogram has a bucket for every minute of delay up to an hour, a bucket for every ten
+ * minutes up to four hours, a bucket for every hour up to a day, and a last bucket for the longer
+ * delays. Short delays are therefore counted exactly, and the histogram has the same small size
+ * however many departures are counted, so percentiles are read from it without sorting the delays.
+ *
+ * <p>Statistics of the same threshold can be merged, for example the statistics of two stations,
+ * by adding up their counts. Merging gives the same result as counting all the departures at once.
+ *
+ * <p><Strong>Goal: </Strong>Describe the delays of a group of departures in a form that can be
+ * merged.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DelayStatistics {
+  private static final int MINUTE_BUCKETS = 60;
+  private static final int TEN_MINUTE_BUCKETS = 18;
+  private static final int HOUR_BUCKETS = 20;
+  private static final int FIRST_TEN_MINUTE_BUCKET = MINUTE_BUCKETS;
+  private static final int FIRST_HOUR_BUCKET = FIRST_TEN_MINUTE_BUCKET + TEN_MINUTE_BUCKETS;
+  private static final int LAST_BUCKET = FIRST_HOUR_BUCKET + HOUR_BUCKETS;
+
+  /** The number of buckets in the histogram of delays. */
+  public static final int NUMBER_OF_BUCKETS = LAST_BUCKET + 1;
+
+  private final int onTimeThreshold;
+  private final int[] histogram = new int[NUMBER_OF_BUCKETS];
+  private int numberOfDepartures;
+  private int numberOfOnTimeDepartures;
+  private long totalDelay;
+  private int maxDelay;
+
+  /**
+   * Constructs empty statistics.
+   *
+   * @param onTimeThreshold the largest delay in minutes at which a departure is on time
+   */
+  DelayStatistics(int onTimeThreshold) {
+    this.onTimeThreshold = onTimeThreshold;
+  }
+
+  /**
+   * Finds the bucket of the histogram a delay is counted in.
+   *
+   * @param delay the delay in minutes
+   * @return the bucket of the delay
+   */
+  static int bucketOf(int delay) {
+    if (delay < 60) {
+      return delay;
+    }
+    if (delay < 4 * 60) {
+      return FIRST_TEN_MINUTE_BUCKET + (delay - 60) / 10;
+    }
+    if (delay < 24 * 60) {
+      return FIRST_HOUR_BUCKET + (delay - 4 * 60) / 60;
+    }
+    return LAST_BUCKET;
+  }
+
+  /**
+   * Finds the shortest delay counted in a bucket of the histogram.
+   *
+   * @param bucket the bucket, from 0 to {@link #NUMBER_OF_BUCKETS} - 1
+   * @return the shortest delay of the bucket in minutes
+   * @throws IllegalArgumentException if there is no such bucket
+   */
+  public static int bucketStart(int bucket) throws IllegalArgumentException {
+    if (bucket < 0 || bucket > LAST_BUCKET) {
+      throw new IllegalArgumentException(
+          "The bucket must be between 0 and " + LAST_BUCKET + ", but was " + bucket + ".");
+    }
+    if (bucket < FIRST_TEN_MINUTE_BUCKET) {
+      return bucket;
+    }
+    if (bucket < FIRST_HOUR_BUCKET) {
+      return 60 + (bucket - FIRST_TEN_MINUTE_BUCKET) * 10;
+    }
+    return 4 * 60 + (bucket - FIRST_HOUR_BUCKET) * 60;
+  }
+
+  /**
+   * Counts a departure.
+   *
+   * @param delay the delay of the departure in minutes
+   */
+  void add(int delay) {
+    histogram[bucketOf(delay)]++;
+    numberOfDepartures++;
+    if (delay <= onTimeThreshold) {
+      numberOfOnTimeDepartures++;
+    }
+    totalDelay += delay;
+    maxDelay = Math.max(maxDelay, delay);
+  }
+
+  /**
+   * Adds the counts of other statistics to these.
+   *
+   * @param other the statistics to add
+   * @throws IllegalArgumentException if the other statistics use another on time threshold
+   */
+  void addAll(DelayStatistics other) throws IllegalArgumentException {
+    if (other.onTimeThreshold != onTimeThreshold) {
+      throw new IllegalArgumentException(
+          "Statistics with the on time thresholds "
+              + onTimeThreshold
+              + " and "
+              + other.onTimeThreshold
+              + " minutes cannot be merged.");
+    }
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      histogram[bucket] += other.histogram[bucket];
+    }
+    numberOfDepartures += other.numberOfDepartures;
+    numberOfOnTimeDepartures += other.numberOfOnTimeDepartures;
+    totalDelay += other.totalDelay;
+    maxDelay = Math.max(maxDelay, other.maxDelay);
+  }
+
+  /**
+   * Merges these statistics with others into new statistics, leaving both unchanged.
+   *
+   * @param other the statistics to merge with
+   * @return the statistics of the departures of both
+   * @throws IllegalArgumentException if the other statistics use another on time threshold
+   * @throws NullPointerException if the other statistics are null
+   */
+  public DelayStatistics merge(DelayStatistics other)
+      throws IllegalArgumentException, NullPointerException {
+    DelayStatistics merged = new DelayStatistics(onTimeThreshold);
+    merged.addAll(this);
+    merged.addAll(other);
+    return merged;
+  }
+
+  /**
+   * Retrieves the largest delay at which a departure is on time.
+   *
+   * @return the threshold in minutes
+   */
+  public int getOnTimeThreshold() {
+    return onTimeThreshold;
+  }
+
+  /**
+   * Retrieves the number of departures counted.
+   *
+   * @return the number of departures
+   */
+  public int getNumberOfDepartures() {
+    return numberOfDepartures;
+  }
+
+  /**
+   * Retrieves the number of departures delayed by no more than the on time threshold.
+   *
+   * @return the number of departures on time
+   */
+  public int getNumberOfOnTimeDepartures() {
+    return numberOfOnTimeDepartures;
+  }
+
+  /**
+   * Finds the share of the departures that are on time.
+   *
+   * @return the share from 0 to 1, or 1 if no departures are counted
+   */
+  public double getOnTimeShare() {
+    return numberOfDepartures == 0 ? 1 : (double) numberOfOnTimeDepartures / numberOfDepartures;
+  }
+
+  /**
+   * Finds the average delay of the departures.
+   *
+   * @return the average delay in minutes, or 0 if no departures are counted
+   */
+  public double getAverageDelay() {
+    return numberOfDepartures == 0 ? 0 : (double) totalDelay / numberOfDepartures;
+  }
+
+  /**
+   * Retrieves the largest delay of the departures.
+   *
+   * @return the largest delay in minutes, or 0 if no departures are counted
+   */
+  public int getMaxDelay() {
+    return maxDelay;
+  }
+
+  /**
+   * Finds the delay that the given share of the departures do not exceed, read from the histogram.
+   * The delay is exact below an hour, and otherwise the shortest delay of its bucket, but never
+   * more than the largest delay.
+   *
+   * @param percentile the share of the departures, from 0 to 1, such as 0.9 for the 90th
+   *     percentile
+   * @return the delay at the percentile in minutes, or 0 if no departures are counted
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   */
+  public int percentile(double percentile) throws IllegalArgumentException {
+    if (!(percentile >= 0 && percentile <= 1)) {
+      throw new IllegalArgumentException(
+          "The percentile must be between 0 and 1, but was " + percentile + ".");
+    }
+    if (numberOfDepartures == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile * numberOfDepartures));
+    long seen = 0;
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      seen += histogram[bucket];
+      if (seen >= rank) {
+        return Math.min(bucketStart(bucket), maxDelay);
+      }
+    }
+    return maxDelay;
+  }
+
+  /**
+   * Retrieves the histogram of the delays, see {@link #bucketStart(int)} for the delays counted in
+   * each bucket.
+   *
+   * @return a copy of the number of departures in each bucket
+   */
+  public int[] getHistogram() {
+    return Arrays.copyOf(histogram, NUMBER_OF_BUCKETS);
+  }
+
+  /**
+   * Describes the statistics on one line.
+   *
+   * @return the number of departures, the share on time, and the average, median, 90th percentile
+   *     and largest delay
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "%d departures, %.1f %% on time, delay avg %.1f, p50 %d, p90 %d, max %d min",
+        numberOfDepartures,
+        getOnTimeShare() * 100,
+        getAverageDelay(),
+        percentile(0.5),
+        percentile(0.9),
+        maxDelay);
+  }
+}
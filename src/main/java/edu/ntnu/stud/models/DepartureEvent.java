@@ -0,0 +1,82 @@
+package edu.ntnu.stud.models;
+
+/**
+ * Represents one change made to a train departure register.
+ *
+ * <p>The departures held by an event are the read-only instances stored in the register, so an
+ * event costs one small object no matter how large the departure is. A change of delay or track
+ * holds both the departure before and after the change, so a listener can move the row on a board
+ * without looking it up.
+ *
+ * <p><Strong>Goal: </Strong>Let listeners follow the register change by change instead of reading
+ * the whole register again.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DepartureEvent {
+  private final DepartureEventType type;
+  private final TrainDeparture departure;
+  private final TrainDeparture previous;
+
+  /**
+   * Constructs an event.
+   *
+   * @param type the kind of change
+   * @param departure the departure after the change, or the departure removed
+   * @param previous the departure before a change of delay or track, otherwise null
+   */
+  DepartureEvent(DepartureEventType type, TrainDeparture departure, TrainDeparture previous) {
+    this.type = type;
+    this.departure = departure;
+    this.previous = previous;
+  }
+
+  /**
+   * Retrieves the kind of change.
+   *
+   * @return the type of the event
+   */
+  public DepartureEventType getType() {
+    return type;
+  }
+
+  /**
+   * Retrieves the departure the event is about. For a departure that was removed or expired, this
+   * is the departure as it was when it was removed.
+   *
+   * @return the departure after the change
+   */
+  public TrainDeparture getDeparture() {
+    return departure;
+  }
+
+  /**
+   * Retrieves the departure as it was before a change of delay or track.
+   *
+   * @return the departure before the change, or null if the event adds or removes a departure
+   */
+  public TrainDeparture getPrevious() {
+    return previous;
+  }
+
+  /**
+   * Retrieves the train ID of the departure the event is about.
+   *
+   * @return the train ID
+   */
+  public int getDepartureId() {
+    return departure.getDepartureId();
+  }
+
+  /**
+   * Describes the event as its type and the row of the departure.
+   *
+   * @return the event as a string
+   */
+  @Override
+  public String toString() {
+    return type + ": " + departure;
+  }
+}
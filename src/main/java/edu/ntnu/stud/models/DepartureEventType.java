@@ -0,0 +1,23 @@
+package edu.ntnu.stud.models;
+
+/**
+ * The kinds of change a train departure register reports to its listeners.
+ *
+ * <p><Strong>Goal: </Strong>Tell the listeners of a register what happened to a departure.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public enum DepartureEventType {
+  /** A departure was added to the register. */
+  ADDED,
+  /** The delay, and with it the delayed time, of a departure was changed. */
+  DELAY_CHANGED,
+  /** A departure was given another track. */
+  TRACK_CHANGED,
+  /** A departure was removed by its train ID. */
+  REMOVED,
+  /** A departure was removed because it had left the station. */
+  EXPIRED
+}
@@ -0,0 +1,144 @@
+package edu.ntnu.stud.models;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Timing wheel that sorts the departures of the register into buckets by the minute they actually
+ * leave the station, so the departures that have left can be found without looking at the rest.
+ *
+ * <p>The wheel has two levels. The upper level has one slot for each hour of the day and counts the
+ * departures in it, so empty hours are skipped at once. Each hour slot holds one bucket of
+ * departure IDs for each of its 60 minutes. Adding, removing and moving a departure only touches
+ * the buckets of its old and new minute, and finding the departures that have left only reads the
+ * buckets before the given time.
+ *
+ * <p>Each hour slot is guarded by its own lock, so departures in different hours can be changed at
+ * the same time.
+ *
+ * <p><Strong>Goal: </Strong>Make the cost of removing departures that have left proportional to the
+ * number of departures that leave, not to the size of the register.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+final class DepartureExpiryWheel {
+  private static final int HOURS_PER_DAY = 24;
+  private static final int MINUTES_PER_HOUR = 60;
+  private static final int[] NO_DEPARTURES = new int[0];
+
+  /** The departures leaving within one hour, bucketed by minute. */
+  private static final class HourSlot {
+    private final int[][] departureIds = new int[MINUTES_PER_HOUR][];
+    private final int[] bucketSizes = new int[MINUTES_PER_HOUR];
+    private volatile int size;
+  }
+
+  private final HourSlot[] hours = new HourSlot[HOURS_PER_DAY];
+
+  /** Constructs an empty wheel. */
+  DepartureExpiryWheel() {
+    for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+      hours[hour] = new HourSlot();
+    }
+  }
+
+  /**
+   * Adds the departure to the bucket of the minute it leaves.
+   *
+   * @param departureId the ID of the departure
+   * @param delayedTime the time the departure leaves the station
+   */
+  void add(int departureId, LocalTime delayedTime) {
+    HourSlot slot = hours[delayedTime.getHour()];
+    int minute = delayedTime.getMinute();
+    synchronized (slot) {
+      int[] bucket = slot.departureIds[minute];
+      int bucketSize = slot.bucketSizes[minute];
+      if (bucket == null) {
+        bucket = new int[4];
+      } else if (bucketSize == bucket.length) {
+        bucket = Arrays.copyOf(bucket, bucketSize * 2);
+      }
+      bucket[bucketSize] = departureId;
+      slot.departureIds[minute] = bucket;
+      slot.bucketSizes[minute] = bucketSize + 1;
+      slot.size++;
+    }
+  }
+
+  /**
+   * Removes the departure from the bucket of the minute it leaves. The last departure in the
+   * bucket takes its place, so the order within a bucket is not kept.
+   *
+   * @param departureId the ID of the departure
+   * @param delayedTime the time the departure leaves the station
+   */
+  void remove(int departureId, LocalTime delayedTime) {
+    HourSlot slot = hours[delayedTime.getHour()];
+    int minute = delayedTime.getMinute();
+    synchronized (slot) {
+      int[] bucket = slot.departureIds[minute];
+      int bucketSize = slot.bucketSizes[minute];
+      for (int i = 0; i < bucketSize; i++) {
+        if (bucket[i] == departureId) {
+          bucket[i] = bucket[bucketSize - 1];
+          slot.bucketSizes[minute] = bucketSize - 1;
+          slot.size--;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves the departure to the bucket of its new departure minute.
+   *
+   * @param departureId the ID of the departure
+   * @param from the time the departure used to leave the station
+   * @param to the time the departure now leaves the station
+   */
+  void move(int departureId, LocalTime from, LocalTime to) {
+    if (from.getHour() != to.getHour() || from.getMinute() != to.getMinute()) {
+      remove(departureId, from);
+      add(departureId, to);
+    }
+  }
+
+  /**
+   * Finds the departures that leave before the given time. The departures are not removed from
+   * the wheel; the register does that when it removes them.
+   *
+   * @param time the time to check against
+   * @return the IDs of the departures leaving before the time
+   */
+  int[] departuresBefore(LocalTime time) {
+    int limit = time.getHour() * MINUTES_PER_HOUR + time.getMinute();
+    if (time.getSecond() != 0 || time.getNano() != 0) {
+      limit++;
+    }
+    int[] expired = NO_DEPARTURES;
+    int expiredSize = 0;
+    for (int hour = 0; hour * MINUTES_PER_HOUR < limit; hour++) {
+      HourSlot slot = hours[hour];
+      if (slot.size == 0) {
+        continue;
+      }
+      synchronized (slot) {
+        int lastMinute = Math.min(MINUTES_PER_HOUR, limit - hour * MINUTES_PER_HOUR);
+        for (int minute = 0; minute < lastMinute; minute++) {
+          int bucketSize = slot.bucketSizes[minute];
+          if (bucketSize > 0) {
+            if (expiredSize + bucketSize > expired.length) {
+              expired = Arrays.copyOf(expired, Math.max(16, 2 * (expiredSize + bucketSize)));
+            }
+            System.arraycopy(slot.departureIds[minute], 0, expired, expiredSize, bucketSize);
+            expiredSize += bucketSize;
+          }
+        }
+      }
+    }
+    return expiredSize == expired.length ? expired : Arrays.copyOf(expired, expiredSize);
+  }
+}
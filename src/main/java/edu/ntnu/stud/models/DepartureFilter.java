@@ -0,0 +1,163 @@
+package edu.ntnu.stud.models;
+
+import edu.ntnu.stud.utils.ParameterValidation;
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * Selects the train departures that a change made to many departures at once applies to, such as
+ * every departure on a train line or every departure leaving from a track after a given time.
+ *
+ * <p>A filter is built from {@link #allDepartures()} by adding conditions, and a departure must
+ * meet every condition to be selected. Filters are immutable, so adding a condition gives a new
+ * filter. Destinations and train lines are matched regardless of case, and the time window is
+ * based on the scheduled departure time.
+ *
+ * <p><Strong>Goal: </Strong>Describe which departures a bulk change in the {@link
+ * TrainDepartureRegister} applies to.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DepartureFilter {
+  private static final int ANY_TRACK = 0;
+  private static final DepartureFilter ALL_DEPARTURES =
+      new DepartureFilter(null, null, ANY_TRACK, LocalTime.MIN, null);
+
+  private final String trainLine;
+  private final String destination;
+  private final int track;
+  private final LocalTime from;
+  private final LocalTime until;
+
+  /**
+   * Constructs a filter with the given conditions.
+   *
+   * @param trainLine the train line, or null for any train line
+   * @param destination the destination, or null for any destination
+   * @param track the track number, or 0 for any track
+   * @param from the earliest departure time, inclusive
+   * @param until the latest departure time, exclusive, or null for the end of the day
+   */
+  private DepartureFilter(
+      String trainLine, String destination, int track, LocalTime from, LocalTime until) {
+    this.trainLine = trainLine;
+    this.destination = destination;
+    this.track = track;
+    this.from = from;
+    this.until = until;
+  }
+
+  /**
+   * Retrieves the filter that selects every departure.
+   *
+   * @return the filter without conditions
+   */
+  public static DepartureFilter allDepartures() {
+    return ALL_DEPARTURES;
+  }
+
+  /**
+   * Adds the condition that the departure is on the given train line.
+   *
+   * @param trainLine the train line
+   * @return the filter with the condition added
+   * @throws IllegalArgumentException if the train line is blank
+   */
+  public DepartureFilter onTrainLine(String trainLine) throws IllegalArgumentException {
+    ParameterValidation.notBlankValidation(
+        trainLine, "No Train line has been detected. Please enter the train line");
+    return new DepartureFilter(trainLine, destination, track, from, until);
+  }
+
+  /**
+   * Adds the condition that the departure is going to the given destination.
+   *
+   * @param destination the destination
+   * @return the filter with the condition added
+   * @throws IllegalArgumentException if the destination is blank
+   */
+  public DepartureFilter goingTo(String destination) throws IllegalArgumentException {
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please enter the destination");
+    return new DepartureFilter(trainLine, destination, track, from, until);
+  }
+
+  /**
+   * Adds the condition that the departure leaves from the given track.
+   *
+   * @param track the track number, or -1 for departures without a track
+   * @return the filter with the condition added
+   * @throws IllegalArgumentException if the track number is not valid
+   */
+  public DepartureFilter onTrack(int track) throws IllegalArgumentException {
+    ParameterValidation.validateTrack(track);
+    return new DepartureFilter(trainLine, destination, track, from, until);
+  }
+
+  /**
+   * Adds the condition that the departure is scheduled to leave at or after the given time.
+   *
+   * @param time the earliest departure time
+   * @return the filter with the condition added
+   * @throws NullPointerException if the time is null
+   */
+  public DepartureFilter departingFrom(LocalTime time) throws NullPointerException {
+    ParameterValidation.validateTime(time);
+    return new DepartureFilter(trainLine, destination, track, time, until);
+  }
+
+  /**
+   * Adds the condition that the departure is scheduled to leave before the given time.
+   *
+   * @param time the time the departures must leave before
+   * @return the filter with the condition added
+   * @throws NullPointerException if the time is null
+   */
+  public DepartureFilter departingBefore(LocalTime time) throws NullPointerException {
+    ParameterValidation.validateTime(time);
+    return new DepartureFilter(trainLine, destination, track, from, time);
+  }
+
+  /**
+   * Retrieves the destination the filter selects, in lower case.
+   *
+   * @return the destination, or null if any destination is selected
+   */
+  String getDestinationKey() {
+    return destination == null ? null : destination.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Retrieves the earliest departure time the filter selects.
+   *
+   * @return the earliest departure time, inclusive
+   */
+  LocalTime getFrom() {
+    return from;
+  }
+
+  /**
+   * Retrieves the time the selected departures leave before.
+   *
+   * @return the latest departure time, exclusive, or null for the end of the day
+   */
+  LocalTime getUntil() {
+    return until;
+  }
+
+  /**
+   * Checks whether the departure meets every condition of the filter.
+   *
+   * @param td the train departure
+   * @return true if the departure is selected, false otherwise
+   */
+  public boolean matches(TrainDeparture td) {
+    return (trainLine == null || trainLine.equalsIgnoreCase(td.getTrainLine()))
+        && (destination == null || destination.equalsIgnoreCase(td.getDestination()))
+        && (track == ANY_TRACK || track == td.getTrack())
+        && !td.getDepartureTime().isBefore(from)
+        && (until == null || td.getDepartureTime().isBefore(until));
+  }
+}
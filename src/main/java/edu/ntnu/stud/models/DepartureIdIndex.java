@@ -0,0 +1,224 @@
+package edu.ntnu.stud.models;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Hash index from departure ID to train departure, used by the register to look up departures
+ * without scanning the whole register.
+ *
+ * <p>The keys are stored as primitive ints in an open-addressing table with linear probing, so no
+ * {@code Integer} objects are created on lookup. Departure IDs are always positive, which means the
+ * value 0 can be used to mark an empty slot. Removal shifts the following entries back instead of
+ * leaving tombstones, so the table never degrades after many removals.
+ *
+ * <p>The index is safe to use from several threads. Lookups are optimistic: they read the table
+ * without locking and only retry under a read lock if the table was changed while they read it.
+ * Replacing the departure stored under an existing ID does not change the layout of the table and
+ * only needs the read lock, so updates of different departures do not block each other. Adding
+ * and removing IDs take the write lock.
+ *
+ * <p><Strong>Goal: </Strong>Give the register O(1) access to a departure based on its ID.
+ *
+ * @author 10083
+ * @version 1.1
+ * @since 1.2
+ */
+final class DepartureIdIndex {
+  private static final int EMPTY = 0;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /** The keys and values of the index, replaced as a whole when the index grows. */
+  private static final class Table {
+    private final int[] keys;
+    private final AtomicReferenceArray<TrainDeparture> values;
+
+    private Table(int capacity) {
+      keys = new int[capacity];
+      values = new AtomicReferenceArray<>(capacity);
+    }
+  }
+
+  private final StampedLock lock = new StampedLock();
+  private volatile Table table = new Table(DEFAULT_CAPACITY);
+  private volatile int size;
+
+  /** Constructs an empty index. */
+  DepartureIdIndex() {}
+
+  /**
+   * Spreads the bits of the ID so that consecutive IDs do not end up in consecutive slots.
+   *
+   * @param departureId the ID to hash
+   * @param mask the table length minus one
+   * @return the home slot of the ID
+   */
+  private static int slotOf(int departureId, int mask) {
+    int h = departureId * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  /**
+   * Finds the slot holding the ID.
+   *
+   * @param t the table to search
+   * @param departureId the ID to look for
+   * @return the slot of the ID, or -1 if it is not in the table
+   */
+  private static int indexOf(Table t, int departureId) {
+    int[] keys = t.keys;
+    int mask = keys.length - 1;
+    int slot = slotOf(departureId, mask);
+    for (int probes = 0; probes < keys.length && keys[slot] != EMPTY; probes++) {
+      if (keys[slot] == departureId) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Retrieves the departure with the given ID.
+   *
+   * @param departureId the ID of the departure
+   * @return the departure, or null if there is no departure with the ID
+   */
+  TrainDeparture get(int departureId) {
+    long stamp = lock.tryOptimisticRead();
+    Table t = table;
+    int slot = indexOf(t, departureId);
+    TrainDeparture result = slot == -1 ? null : t.values.get(slot);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        t = table;
+        slot = indexOf(t, departureId);
+        result = slot == -1 ? null : t.values.get(slot);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether the index contains the ID.
+   *
+   * @param departureId the ID of the departure
+   * @return true if the ID is in the index, false otherwise
+   */
+  boolean containsKey(int departureId) {
+    return get(departureId) != null;
+  }
+
+  /**
+   * Adds the departure to the index, replacing any departure stored under the same ID.
+   *
+   * @param departureId the ID of the departure
+   * @param departure the departure to store
+   * @return the departure previously stored under the ID, or null if there was none
+   */
+  TrainDeparture put(int departureId, TrainDeparture departure) {
+    long stamp = lock.readLock();
+    try {
+      Table t = table;
+      int slot = indexOf(t, departureId);
+      if (slot != -1) {
+        return t.values.getAndSet(slot, departure);
+      }
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    stamp = lock.writeLock();
+    try {
+      if ((size + 1) * 4 > table.keys.length * 3) {
+        resize(table.keys.length * 2);
+      }
+      Table t = table;
+      int mask = t.keys.length - 1;
+      int slot = slotOf(departureId, mask);
+      while (t.keys[slot] != EMPTY) {
+        if (t.keys[slot] == departureId) {
+          return t.values.getAndSet(slot, departure);
+        }
+        slot = (slot + 1) & mask;
+      }
+      t.keys[slot] = departureId;
+      t.values.set(slot, departure);
+      size++;
+      return null;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes the departure with the given ID from the index.
+   *
+   * @param departureId the ID of the departure
+   * @return the removed departure, or null if there was no departure with the ID
+   */
+  TrainDeparture remove(int departureId) {
+    long stamp = lock.writeLock();
+    try {
+      Table t = table;
+      int slot = indexOf(t, departureId);
+      if (slot == -1) {
+        return null;
+      }
+      TrainDeparture removed = t.values.get(slot);
+      int[] keys = t.keys;
+      int mask = keys.length - 1;
+      int hole = slot;
+      int next = (hole + 1) & mask;
+      while (keys[next] != EMPTY) {
+        int home = slotOf(keys[next], mask);
+        // Move the entry back if its home slot is not between the hole and its current slot.
+        if (((next - home) & mask) >= ((next - hole) & mask)) {
+          keys[hole] = keys[next];
+          t.values.set(hole, t.values.get(next));
+          hole = next;
+        }
+        next = (next + 1) & mask;
+      }
+      keys[hole] = EMPTY;
+      t.values.set(hole, null);
+      size--;
+      return removed;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Finds the number of departures in the index.
+   *
+   * @return the number of departures
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Rehashes every entry into a table of the new capacity. Must be called with the write lock.
+   *
+   * @param newCapacity the new table length, always a power of two
+   */
+  private void resize(int newCapacity) {
+    Table old = table;
+    Table resized = new Table(newCapacity);
+    int mask = newCapacity - 1;
+    for (int i = 0; i < old.keys.length; i++) {
+      if (old.keys[i] != EMPTY) {
+        int slot = slotOf(old.keys[i], mask);
+        while (resized.keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        resized.keys[slot] = old.keys[i];
+        resized.values.set(slot, old.values.get(i));
+      }
+    }
+    table = resized;
+  }
+}
@@ -0,0 +1,28 @@
+package edu.ntnu.stud.models;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to a train departure register, a batch at a time.
+ *
+ * <p>The events of one departure always arrive in the order the changes were made. The batches of
+ * one listener are delivered one at a time on a thread of the register's own, never on the thread
+ * that made the change, so a listener may take as long as it needs without slowing the register
+ * down.
+ *
+ * <p><Strong>Goal: </Strong>Let display boards and other systems follow a register as it changes.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+@FunctionalInterface
+public interface DepartureListener {
+  /**
+   * Receives the events published since the last batch.
+   *
+   * @param events the events in the order they were published, never empty, which must not be
+   *     kept after the method returns
+   */
+  void onEvents(List<DepartureEvent> events);
+}
@@ -0,0 +1,138 @@
+package edu.ntnu.stud.models;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits the departures of an ordered index of the register into parts of equal size, so a
+ * parallel stream gives each thread the same amount of work.
+ *
+ * <p>A spliterator covers a range of minutes of the day. It is split at the minute of its middle
+ * departure, which the Fenwick tree counting the departures at each minute finds in logarithmic
+ * time, so the halves hold the same number of departures whether the timetable is spread over the
+ * day or packed into the rush hours. Nothing is copied: each part reads its slice of the skip list
+ * only when it is traversed. A part is never split within a minute, so a minute with many
+ * departures is read by one thread.
+ *
+ * <p>The register can be changed while it is streamed, so the spliterator is {@link #CONCURRENT}
+ * rather than {@link #IMMUTABLE}, and its size is an estimate, exact when the register is not
+ * changed during the stream, rather than {@link #SIZED}. The departures themselves are read-only.
+ *
+ * <p><Strong>Goal: </Strong>Let fork-join streams over the register scale across cores without a
+ * copy of the register.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class DepartureSpliterator implements Spliterator<TrainDeparture> {
+  /** The order of the departures in the register: departure time and then departure ID. */
+  static final Comparator<TrainDeparture> BY_DEPARTURE_TIME =
+      Comparator.comparing(TrainDeparture::getDepartureTime)
+          .thenComparingInt(TrainDeparture::getDepartureId);
+
+  private final NavigableMap<Long, TrainDeparture> index;
+  private final MinuteOfDayStatistics statistics;
+  private int fromMinute;
+  private final int untilMinute;
+  private Iterator<TrainDeparture> departures;
+
+  /**
+   * Constructs a spliterator over the departures of the index in a range of minutes.
+   *
+   * @param index the departures keyed by minute of the day in the upper half and ID in the lower
+   * @param statistics the number of departures at each minute, counted by the same time as the
+   *     index
+   * @param fromMinute the first minute of the range
+   * @param untilMinute the minute after the last minute of the range
+   */
+  DepartureSpliterator(
+      NavigableMap<Long, TrainDeparture> index,
+      MinuteOfDayStatistics statistics,
+      int fromMinute,
+      int untilMinute) {
+    this.index = index;
+    this.statistics = statistics;
+    this.fromMinute = fromMinute;
+    this.untilMinute = untilMinute;
+  }
+
+  /**
+   * Opens the slice of the index covered by the spliterator, the first time it is traversed.
+   *
+   * @return the departures of the slice
+   */
+  private Iterator<TrainDeparture> departures() {
+    if (departures == null) {
+      departures =
+          index
+              .subMap((long) fromMinute << 32, true, (long) untilMinute << 32, false)
+              .values()
+              .iterator();
+    }
+    return departures;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super TrainDeparture> action) {
+    Iterator<TrainDeparture> iterator = departures();
+    if (!iterator.hasNext()) {
+      return false;
+    }
+    action.accept(iterator.next());
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super TrainDeparture> action) {
+    departures().forEachRemaining(action);
+  }
+
+  /**
+   * Splits off the first half of the departures, cut at the minute of the middle departure. A
+   * spliterator that has started its traversal, or covers a single minute, is not split.
+   *
+   * @return a spliterator over the first half, or null if it cannot be split
+   */
+  @Override
+  public Spliterator<TrainDeparture> trySplit() {
+    if (departures != null || untilMinute - fromMinute < 2) {
+      return null;
+    }
+    int before = statistics.countBefore(fromMinute);
+    int size = statistics.countBefore(untilMinute) - before;
+    if (size < 2) {
+      return null;
+    }
+    int middleMinute = statistics.selectMinute(before + size / 2);
+    int splitMinute = Math.min(Math.max(middleMinute, fromMinute + 1), untilMinute - 1);
+    Spliterator<TrainDeparture> firstHalf =
+        new DepartureSpliterator(index, statistics, fromMinute, splitMinute);
+    fromMinute = splitMinute;
+    return firstHalf;
+  }
+
+  /**
+   * Estimates the number of departures left, from the number of departures in the range of
+   * minutes. The estimate is exact until the traversal starts, if the register is not changed.
+   *
+   * @return the estimated number of departures
+   */
+  @Override
+  public long estimateSize() {
+    return Math.max(0, statistics.countBefore(untilMinute) - statistics.countBefore(fromMinute));
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | SORTED | DISTINCT | NONNULL | CONCURRENT;
+  }
+
+  @Override
+  public Comparator<? super TrainDeparture> getComparator() {
+    return BY_DEPARTURE_TIME;
+  }
+}
@@ -0,0 +1,152 @@
+package edu.ntnu.stud.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents a listener subscribed to the changes of a train departure register.
+ *
+ * <p>The register publishes each event into a lock-free queue of the subscription, which takes a
+ * few atomic operations and never waits for the listener. A delivery task drains the queue in
+ * batches and hands each batch to the listener. At most one delivery task runs for a subscription
+ * at any time, and it is only started when events arrive while none is running, so a listener that
+ * is slow only lets its own queue grow: the register and the other listeners go on as before.
+ *
+ * <p>The delivery tasks run on a shared pool of daemon threads. A listener that throws an exception
+ * loses the batch it was given, but still receives the later ones.
+ *
+ * <p><Strong>Goal: </Strong>Deliver the changes of a register to a listener without letting the
+ * listener block the register.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DepartureSubscription implements AutoCloseable {
+  /** The largest number of events handed to the listener at once. */
+  static final int MAX_BATCH_SIZE = 1024;
+
+  /** The threads that deliver the events of every subscription. */
+  private static final Executor DELIVERY_THREADS = newDeliveryThreads();
+
+  private final TrainDepartureRegister register;
+  private final DepartureListener listener;
+  private final Queue<DepartureEvent> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+  private final List<DepartureEvent> batch = new ArrayList<>();
+  private final List<DepartureEvent> readOnlyBatch = Collections.unmodifiableList(batch);
+  private volatile boolean closed;
+
+  /**
+   * Constructs a subscription of the listener to the register.
+   *
+   * @param register the register the listener is subscribed to
+   * @param listener the listener receiving the events
+   */
+  DepartureSubscription(TrainDepartureRegister register, DepartureListener listener) {
+    this.register = register;
+    this.listener = listener;
+  }
+
+  /**
+   * Creates the pool of daemon threads delivering the events, so a subscription that is never
+   * closed does not keep the application running.
+   *
+   * @return the pool of delivery threads
+   */
+  private static ExecutorService newDeliveryThreads() {
+    return Executors.newCachedThreadPool(
+        task -> {
+          Thread thread = new Thread(task, "departure-events");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Adds an event to the queue, without starting a delivery.
+   *
+   * @param event the event to deliver
+   */
+  void offer(DepartureEvent event) {
+    queue.offer(event);
+  }
+
+  /** Starts a delivery of the queued events, unless one is already running. */
+  void scheduleDelivery() {
+    if (!closed && !queue.isEmpty() && deliveryScheduled.compareAndSet(false, true)) {
+      DELIVERY_THREADS.execute(this::deliver);
+    }
+  }
+
+  /**
+   * Hands the queued events to the listener in batches until the queue is empty. Events published
+   * after the last check of the queue start a new delivery.
+   */
+  private void deliver() {
+    try {
+      while (!closed && fillBatch()) {
+        try {
+          listener.onEvents(readOnlyBatch);
+        } catch (RuntimeException e) {
+          // The listener keeps receiving the later batches.
+        } finally {
+          batch.clear();
+        }
+      }
+    } finally {
+      deliveryScheduled.set(false);
+    }
+    scheduleDelivery();
+  }
+
+  /**
+   * Moves queued events into the batch, at most {@link #MAX_BATCH_SIZE} of them.
+   *
+   * @return true if the batch has any events
+   */
+  private boolean fillBatch() {
+    DepartureEvent event;
+    while (batch.size() < MAX_BATCH_SIZE && (event = queue.poll()) != null) {
+      batch.add(event);
+    }
+    return !batch.isEmpty();
+  }
+
+  /**
+   * Finds the number of events published but not yet handed to the listener. The queue is
+   * counted, which takes time in proportion to its length.
+   *
+   * @return the number of queued events
+   */
+  public int getNumberOfPendingEvents() {
+    return queue.size();
+  }
+
+  /**
+   * Checks whether the subscription has been closed.
+   *
+   * @return true if the listener no longer receives events
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Stops the listener from receiving events. Events still in the queue are dropped, but a batch
+   * already being handed to the listener is finished.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    register.unsubscribe(this);
+    queue.clear();
+  }
+}
@@ -0,0 +1,18 @@
+package edu.ntnu.stud.models;
+
+/**
+ * The two times a train departure has: the time it is scheduled to leave, and the time it actually
+ * leaves once the delay is added.
+ *
+ * <p><Strong>Goal: </Strong>Choose which time the statistics of the register are based on.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+public enum DepartureTimeType {
+  /** The scheduled departure time. */
+  DEPARTURE_TIME,
+  /** The departure time with the delay added. */
+  DELAYED_TIME
+}
@@ -0,0 +1,140 @@
+package edu.ntnu.stud.models;
+
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts how many departures leave at each minute of the day in a Fenwick tree, so the order
+ * statistics of the departure times can be found without sorting the departures.
+ *
+ * <p>A Fenwick tree stores partial sums of the counts, so both changing the count of a minute and
+ * counting the departures before a minute take O(log 1440) steps. Finding the k-th departure time
+ * walks down the tree in the same number of steps. The counts are atomic, so departures can be
+ * added and removed from several threads.
+ *
+ * <p><Strong>Goal: </Strong>Answer percentile, rank and selection queries on departure times in
+ * logarithmic time.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+final class MinuteOfDayStatistics {
+  /** The number of minutes in a day. */
+  static final int MINUTES_PER_DAY = 24 * 60;
+
+  /** The largest power of two not above the number of minutes, where the walk down starts. */
+  private static final int HIGHEST_STEP = Integer.highestOneBit(MINUTES_PER_DAY);
+
+  /** Fenwick tree of the counts, using 1-based positions where position m + 1 is minute m. */
+  private final AtomicIntegerArray tree = new AtomicIntegerArray(MINUTES_PER_DAY + 1);
+  private final AtomicInteger count = new AtomicInteger();
+
+  /**
+   * Converts the time to the minute of the day.
+   *
+   * @param time the time
+   * @return minutes since midnight
+   */
+  private static int minuteOfDay(LocalTime time) {
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  /**
+   * Adds the change to the count of the minute.
+   *
+   * @param minute the minute of the day
+   * @param change the change of the count
+   */
+  private void update(int minute, int change) {
+    for (int position = minute + 1; position <= MINUTES_PER_DAY; position += position & -position) {
+      tree.addAndGet(position, change);
+    }
+    count.addAndGet(change);
+  }
+
+  /**
+   * Counts a departure leaving at the given time.
+   *
+   * @param time the time the departure leaves
+   */
+  void add(LocalTime time) {
+    update(minuteOfDay(time), 1);
+  }
+
+  /**
+   * Stops counting a departure leaving at the given time.
+   *
+   * @param time the time the departure used to leave
+   */
+  void remove(LocalTime time) {
+    update(minuteOfDay(time), -1);
+  }
+
+  /**
+   * Finds the number of departures counted.
+   *
+   * @return the number of departures
+   */
+  int size() {
+    return count.get();
+  }
+
+  /**
+   * Counts the departures leaving before the given time.
+   *
+   * @param time the time to compare with
+   * @return the number of departures leaving before the minute of the time
+   */
+  int rank(LocalTime time) {
+    return countBefore(minuteOfDay(time));
+  }
+
+  /**
+   * Counts the departures leaving before the given minute of the day.
+   *
+   * @param minute the minute of the day, from 0 to 1440
+   * @return the number of departures leaving before the minute
+   */
+  int countBefore(int minute) {
+    int sum = 0;
+    for (int position = minute; position > 0; position -= position & -position) {
+      sum += tree.get(position);
+    }
+    return sum;
+  }
+
+  /**
+   * Finds the time of the k-th departure when the departures are ordered by time.
+   *
+   * @param k the zero-based position of the departure
+   * @return the time of the departure at the position
+   */
+  LocalTime select(int k) {
+    int minute = selectMinute(k);
+    return LocalTime.of(minute / 60, minute % 60);
+  }
+
+  /**
+   * Finds the minute of the day of the k-th departure when the departures are ordered by time.
+   *
+   * @param k the zero-based position of the departure
+   * @return the minute of the day the departure at the position leaves
+   */
+  int selectMinute(int k) {
+    int position = 0;
+    int remaining = k;
+    for (int step = HIGHEST_STEP; step > 0; step >>= 1) {
+      int next = position + step;
+      if (next <= MINUTES_PER_DAY) {
+        int countInStep = tree.get(next);
+        if (countInStep <= remaining) {
+          position = next;
+          remaining -= countInStep;
+        }
+      }
+    }
+    return Math.min(position, MINUTES_PER_DAY - 1);
+  }
+}
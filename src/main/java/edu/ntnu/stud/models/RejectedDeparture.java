@@ -0,0 +1,68 @@
+package edu.ntnu.stud.models;
+
+/**
+ * Represents a row of a timetable that could not be added to the {@link TrainDepartureRegister},
+ * together with the reason it was rejected.
+ *
+ * <p><Strong>Goal: </Strong>Tell the user which rows of a timetable must be corrected before the
+ * timetable can be added.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class RejectedDeparture {
+  private final int row;
+  private final int departureId;
+  private final String reason;
+
+  /**
+   * Constructs a new rejected departure.
+   *
+   * @param row the position of the row in the timetable, starting at 0
+   * @param departureId the departure ID given in the row
+   * @param reason the reason the row was rejected
+   */
+  public RejectedDeparture(int row, int departureId, String reason) {
+    this.row = row;
+    this.departureId = departureId;
+    this.reason = reason;
+  }
+
+  /**
+   * Retrieves the position of the row in the timetable.
+   *
+   * @return the position of the row, starting at 0
+   */
+  public int getRow() {
+    return row;
+  }
+
+  /**
+   * Retrieves the departure ID given in the row.
+   *
+   * @return the departure ID
+   */
+  public int getDepartureId() {
+    return departureId;
+  }
+
+  /**
+   * Retrieves the reason the row was rejected.
+   *
+   * @return the reason
+   */
+  public String getReason() {
+    return reason;
+  }
+
+  /**
+   * Retrieves a string representation of the rejected row.
+   *
+   * @return the row, the departure ID and the reason
+   */
+  @Override
+  public String toString() {
+    return "Row " + row + " (train ID " + departureId + "): " + reason;
+  }
+}
@@ -0,0 +1,69 @@
+package edu.ntnu.stud.models;
+
+import java.util.Comparator;
+
+/**
+ * Represents a train departure together with the station it leaves from, as found by a query
+ * across every station in a {@link StationRegistry}.
+ *
+ * <p><Strong>Goal: </Strong>Tell which station a departure found across the network leaves from.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class StationDeparture {
+  /** Orders the departures by departure time, then by station and then by departure ID. */
+  static final Comparator<StationDeparture> BY_DEPARTURE_TIME =
+      Comparator.comparing((StationDeparture sd) -> sd.departure.getDepartureTime())
+          .thenComparing(StationDeparture::getStation)
+          .thenComparingInt(sd -> sd.departure.getDepartureId());
+
+  /** Orders the departures by delayed time, then by station and then by departure ID. */
+  static final Comparator<StationDeparture> BY_DELAYED_TIME =
+      Comparator.comparing((StationDeparture sd) -> sd.departure.getDelayedTime())
+          .thenComparing(StationDeparture::getStation)
+          .thenComparingInt(sd -> sd.departure.getDepartureId());
+
+  private final String station;
+  private final TrainDeparture departure;
+
+  /**
+   * Constructs a new station departure.
+   *
+   * @param station the name of the station
+   * @param departure the read-only departure stored in the register of the station
+   */
+  StationDeparture(String station, TrainDeparture departure) {
+    this.station = station;
+    this.departure = departure;
+  }
+
+  /**
+   * Retrieves the name of the station the train leaves from.
+   *
+   * @return the name of the station
+   */
+  public String getStation() {
+    return station;
+  }
+
+  /**
+   * Retrieves the departure, which is read-only.
+   *
+   * @return the departure
+   */
+  public TrainDeparture getDeparture() {
+    return departure;
+  }
+
+  /**
+   * Retrieves a string representation of the departure.
+   *
+   * @return the name of the station followed by the row of the departure
+   */
+  @Override
+  public String toString() {
+    return station + ": " + departure;
+  }
+}
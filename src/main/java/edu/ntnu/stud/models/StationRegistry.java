@@ -0,0 +1,256 @@
+package edu.ntnu.stud.models;
+
+import edu.ntnu.stud.utils.ParameterValidation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Represents the stations of a railway network, each with its own train departure register.
+ *
+ * <p>Every station has a register of its own, with its own locks and indexes, so the stations are
+ * shards that never wait for each other: a change at one station does not slow down another, and a
+ * new station does not make the existing ones slower. The stations are found by name, ignoring
+ * case, in a concurrent hash map.
+ *
+ * <p>Queries across the network, such as every departure to a destination or the next departure
+ * anywhere, are run on every station in parallel. Each station answers from its own ordered
+ * indexes, and the already sorted answers are then merged instead of sorted again.
+ *
+ * <p><Strong>Goal: </Strong>Act as a model for the train departure registers of many stations.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class StationRegistry {
+  /** A station and its register. */
+  private static final class Station {
+    private final String name;
+    private final TrainDepartureRegister register = new TrainDepartureRegister();
+
+    /**
+     * Constructs a station with an empty register.
+     *
+     * @param name the name of the station
+     */
+    private Station(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Retrieves the departures of the station going to the destination, in the order of the
+     * register.
+     *
+     * @param destination the destination
+     * @return the departures, paired with the name of the station
+     */
+    private List<StationDeparture> departuresTo(String destination) {
+      Collection<TrainDeparture> departures =
+          register.getTrainDeparturesBasedOnDestination(destination);
+      List<StationDeparture> found = new ArrayList<>();
+      for (TrainDeparture td : departures) {
+        found.add(new StationDeparture(name, td));
+      }
+      return found;
+    }
+  }
+
+  /** Reads the departures of one station in order while they are merged with other stations. */
+  private static final class Cursor {
+    private final List<StationDeparture> departures;
+    private int position;
+
+    /**
+     * Constructs a cursor at the first departure.
+     *
+     * @param departures the sorted departures of a station
+     */
+    private Cursor(List<StationDeparture> departures) {
+      this.departures = departures;
+    }
+
+    /**
+     * Retrieves the departure the cursor is at.
+     *
+     * @return the current departure
+     */
+    private StationDeparture current() {
+      return departures.get(position);
+    }
+  }
+
+  private final ConcurrentMap<String, Station> stations = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the key that identifies a station, ignoring case.
+   *
+   * @param name the name of the station
+   * @return the key of the station
+   */
+  private static String stationKey(String name) {
+    ParameterValidation.notBlankValidation(name, "The name of the station cannot be blank.");
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Adds a station with an empty register.
+   *
+   * @param name the name of the station
+   * @return the register of the new station
+   * @throws IllegalArgumentException if the name is blank or there already is a station with the
+   *     name
+   * @throws NullPointerException if the name is null
+   */
+  public TrainDepartureRegister addStation(String name)
+      throws IllegalArgumentException, NullPointerException {
+    String key = stationKey(name);
+    Station station = new Station(name.strip());
+    if (stations.putIfAbsent(key, station) != null) {
+      throw new IllegalArgumentException("There already exists a station called " + name + ".");
+    }
+    return station.register;
+  }
+
+  /**
+   * Retrieves the register of a station. The station is found in constant time, no matter how many
+   * stations there are.
+   *
+   * @param name the name of the station, ignoring case
+   * @return the register of the station, or null if there is no station with the name
+   * @throws IllegalArgumentException if the name is blank
+   * @throws NullPointerException if the name is null
+   */
+  public TrainDepartureRegister getStation(String name)
+      throws IllegalArgumentException, NullPointerException {
+    Station station = stations.get(stationKey(name));
+    return station == null ? null : station.register;
+  }
+
+  /**
+   * Removes a station and its register. Nothing happens if there is no station with the name.
+   *
+   * @param name the name of the station, ignoring case
+   * @throws IllegalArgumentException if the name is blank
+   * @throws NullPointerException if the name is null
+   */
+  public void removeStation(String name) throws IllegalArgumentException, NullPointerException {
+    stations.remove(stationKey(name));
+  }
+
+  /**
+   * Retrieves the names of the stations in alphabetical order.
+   *
+   * @return the names of the stations
+   */
+  public List<String> getStationNames() {
+    List<String> names = new ArrayList<>();
+    for (Station station : stations.values()) {
+      names.add(station.name);
+    }
+    names.sort(String.CASE_INSENSITIVE_ORDER);
+    return names;
+  }
+
+  /**
+   * Finds the number of stations in the registry.
+   *
+   * @return the number of stations
+   */
+  public int getNumberOfStations() {
+    return stations.size();
+  }
+
+  /**
+   * Counts the departures at every station, with the stations counted in parallel.
+   *
+   * @return the number of departures in the network
+   */
+  public long getNumberOfTrainDepartures() {
+    return List.copyOf(stations.values()).parallelStream()
+        .mapToLong(station -> station.register.getNumberOfTrainDepartures())
+        .sum();
+  }
+
+  /**
+   * Finds the departures going to the destination from every station in the network. The stations
+   * are searched in parallel, and their sorted departures are merged into one list ordered by
+   * departure time, then station and then departure ID.
+   *
+   * @param destination the destination, ignoring case
+   * @return the departures going to the destination from every station
+   * @throws IllegalArgumentException if the destination is blank
+   * @throws NullPointerException if the destination is null
+   */
+  public List<StationDeparture> getTrainDeparturesBasedOnDestination(String destination)
+      throws IllegalArgumentException, NullPointerException {
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please enter the destination");
+    List<List<StationDeparture>> perStation =
+        List.copyOf(stations.values()).parallelStream()
+            .map(station -> station.departuresTo(destination))
+            .filter(departures -> !departures.isEmpty())
+            .toList();
+    return merge(perStation);
+  }
+
+  /**
+   * Merges lists of departures that are each sorted by departure time into one sorted list. The
+   * first departure of every list is kept in a priority queue, so each departure is compared with
+   * only the logarithm of the number of lists.
+   *
+   * @param sortedLists the sorted lists, each from one station
+   * @return the merged list
+   */
+  private static List<StationDeparture> merge(List<List<StationDeparture>> sortedLists) {
+    if (sortedLists.isEmpty()) {
+      return Collections.emptyList();
+    }
+    if (sortedLists.size() == 1) {
+      return sortedLists.get(0);
+    }
+    int total = 0;
+    PriorityQueue<Cursor> heads =
+        new PriorityQueue<>(
+            sortedLists.size(),
+            (a, b) -> StationDeparture.BY_DEPARTURE_TIME.compare(a.current(), b.current()));
+    for (List<StationDeparture> departures : sortedLists) {
+      heads.add(new Cursor(departures));
+      total += departures.size();
+    }
+    List<StationDeparture> merged = new ArrayList<>(total);
+    while (!heads.isEmpty()) {
+      Cursor cursor = heads.poll();
+      merged.add(cursor.current());
+      if (++cursor.position < cursor.departures.size()) {
+        heads.add(cursor);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Finds the departure that actually leaves first anywhere in the network, taking the delays into
+   * account. Each station reads its own next departure in constant time, in parallel, and the
+   * earliest of them is picked.
+   *
+   * @return the next departure in the network, or null if there are no departures
+   */
+  public StationDeparture getNextDeparture() {
+    return List.copyOf(stations.values()).parallelStream()
+        .map(
+            station -> {
+              TrainDeparture next = station.register.getNextDeparture();
+              return next == null ? null : new StationDeparture(station.name, next);
+            })
+        .filter(Objects::nonNull)
+        .min(StationDeparture.BY_DELAYED_TIME)
+        .orElse(null);
+  }
+}
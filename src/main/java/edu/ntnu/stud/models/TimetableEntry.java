@@ -0,0 +1,116 @@
+package edu.ntnu.stud.models;
+
+/**
+ * Represents one row of a timetable that is to be added to a {@link TrainDepartureRegister}.
+ *
+ * <p>The entry only holds the values of the row. They are validated by the register when the
+ * timetable is added, so an entry with invalid values can be created and is reported back by the
+ * register instead of failing when the timetable is read.
+ *
+ * <p><Strong>Goal: </Strong>Carry the details of a train departure into the register when a whole
+ * timetable is added at once.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class TimetableEntry {
+  private final int departureTimeInHours;
+  private final int departureTimeInMinutes;
+  private final String trainLine;
+  private final int departureId;
+  private final String destination;
+  private final int delay;
+  private final int track;
+
+  /**
+   * Constructs a new timetable entry with the specified details.
+   *
+   * @param departureTimeInHours int representing the departure time in hours
+   * @param departureTimeInMinutes int representing the departure time in minutes
+   * @param trainLine string representing the train line
+   * @param departureId int representing the unique identifier for the train
+   * @param destination string representing the destination for the train
+   * @param delay int representing the delay in minutes
+   * @param track int representing the track number, or -1 if no track is assigned
+   */
+  public TimetableEntry(
+      int departureTimeInHours,
+      int departureTimeInMinutes,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track) {
+    this.departureTimeInHours = departureTimeInHours;
+    this.departureTimeInMinutes = departureTimeInMinutes;
+    this.trainLine = trainLine;
+    this.departureId = departureId;
+    this.destination = destination;
+    this.delay = delay;
+    this.track = track;
+  }
+
+  /**
+   * Retrieves the hour of the departure time.
+   *
+   * @return the departure time in hours
+   */
+  public int getDepartureTimeInHours() {
+    return departureTimeInHours;
+  }
+
+  /**
+   * Retrieves the minute of the departure time.
+   *
+   * @return the departure time in minutes
+   */
+  public int getDepartureTimeInMinutes() {
+    return departureTimeInMinutes;
+  }
+
+  /**
+   * Retrieves the train line.
+   *
+   * @return the train line
+   */
+  public String getTrainLine() {
+    return trainLine;
+  }
+
+  /**
+   * Retrieves the unique identifier for the train.
+   *
+   * @return the departure ID
+   */
+  public int getDepartureId() {
+    return departureId;
+  }
+
+  /**
+   * Retrieves the destination.
+   *
+   * @return the destination
+   */
+  public String getDestination() {
+    return destination;
+  }
+
+  /**
+   * Retrieves the delay.
+   *
+   * @return the delay in minutes
+   */
+  public int getDelay() {
+    return delay;
+  }
+
+  /**
+   * Retrieves the track number.
+   *
+   * @return the track number, or -1 if no track is assigned
+   */
+  public int getTrack() {
+    return track;
+  }
+}
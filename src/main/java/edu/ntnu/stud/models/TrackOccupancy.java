@@ -0,0 +1,101 @@
+package edu.ntnu.stud.models;
+
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of which minutes of the day each track at the station is taken by a departure.
+ *
+ * <p>Every track has a bitset of 1440 bits, one for each minute of the day, stored in an array of
+ * longs. Checking and updating a track at a given minute is therefore a single bit operation.
+ * Departures without a track (track number -1) are never stored, as they cannot collide with each
+ * other.
+ *
+ * <p>The bits are changed with compare-and-set, so several threads can claim and release minutes
+ * without locking, and only one of two threads claiming the same track and minute succeeds.
+ *
+ * <p><Strong>Goal: </Strong>Detect two departures leaving from the same track at the same time in
+ * constant time.
+ *
+ * @author 10083
+ * @version 1.1
+ * @since 1.2
+ */
+final class TrackOccupancy {
+  private static final int NUMBER_OF_TRACKS = 15;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int NO_TRACK = -1;
+
+  /** One bitset per track, where bit {@code m} is set if the track is taken at minute m. */
+  private final AtomicLongArray[] occupiedMinutes = new AtomicLongArray[NUMBER_OF_TRACKS + 1];
+
+  /** Constructs an occupancy where every track is free at every minute of the day. */
+  TrackOccupancy() {
+    for (int track = 1; track <= NUMBER_OF_TRACKS; track++) {
+      occupiedMinutes[track] = new AtomicLongArray((MINUTES_PER_DAY + 63) / 64);
+    }
+  }
+
+  /**
+   * Converts the time to the minute of the day.
+   *
+   * @param time the time
+   * @return minutes since midnight
+   */
+  private static int minuteOfDay(LocalTime time) {
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  /**
+   * Checks whether a departure already leaves from the track at the given time.
+   *
+   * @param track the track number, or -1 if no track is assigned
+   * @param time the time the departure leaves the station
+   * @return true if the track is taken at that time, false otherwise or if there is no track
+   */
+  boolean isOccupied(int track, LocalTime time) {
+    if (track == NO_TRACK) {
+      return false;
+    }
+    int minute = minuteOfDay(time);
+    return (occupiedMinutes[track].get(minute >>> 6) & (1L << minute)) != 0;
+  }
+
+  /**
+   * Marks the track as taken at the given time, unless it is taken already.
+   *
+   * @param track the track number, or -1 if no track is assigned
+   * @param time the time the departure leaves the station
+   * @return true if the track was claimed or there is no track, false if it was already taken
+   */
+  boolean tryOccupy(int track, LocalTime time) {
+    if (track == NO_TRACK) {
+      return true;
+    }
+    int minute = minuteOfDay(time);
+    long bit = 1L << minute;
+    AtomicLongArray bits = occupiedMinutes[track];
+    long word;
+    do {
+      word = bits.get(minute >>> 6);
+      if ((word & bit) != 0) {
+        return false;
+      }
+    } while (!bits.compareAndSet(minute >>> 6, word, word | bit));
+    return true;
+  }
+
+  /**
+   * Marks the track as free at the given time.
+   *
+   * @param track the track number, or -1 if no track is assigned
+   * @param time the time the departure was leaving the station
+   */
+  void release(int track, LocalTime time) {
+    if (track != NO_TRACK) {
+      int minute = minuteOfDay(time);
+      long bit = 1L << minute;
+      occupiedMinutes[track].getAndUpdate(minute >>> 6, word -> word & ~bit);
+    }
+  }
+}
@@ -11,14 +11,16 @@ import java.util.Objects;
  * track.
  *
  * <p>All attributes are immutable except for delay and track. Class includes accessor methods for
- * all attributes and mutator methods for the mutable attributes.
+ * all attributes and mutator methods for the mutable attributes. Once a departure is stored in a
+ * {@link TrainDepartureRegister} it is marked as read-only, so the register can hand out the same
+ * instance to every reader. Changes are then made by the register on a copy of the departure.
  *
  * <p>Input validation is performed on all parameters of the constructor before initialising the
  * attributes.
  *
  * <p><Strong>Goal: </Strong>Act as a model for storing information about train departures.
  *
- * @version 1.0.3
+ * @version 1.0.4
  * @author 10083
  * @since 0.1
  */
@@ -30,6 +32,10 @@ public class TrainDeparture {
   private LocalTime delayedTime;
   private int delay;
   private int track;
+  private boolean readOnly;
+
+  /** The row of the departure board for this departure, or null if it must be formatted again. */
+  private String row;
 
   /**
    * Constructs a new train departure with the specified details.
@@ -76,7 +82,8 @@ public class TrainDeparture {
   /**
    * Constructs a new train departure with the specified details.
    *
-   * <p><Strong>Role: </Strong> Used to create a deep copy of the train departure
+   * <p><Strong>Role: </Strong> Used to create a deep copy of the train departure. The copy can be
+   * changed even if the original is read-only.
    *
    * @param trainDeparture the object of the class to be copied
    */
@@ -88,6 +95,36 @@ public class TrainDeparture {
     this.delay = trainDeparture.delay;
     this.delayedTime = trainDeparture.delayedTime;
     this.track = trainDeparture.track;
+    this.row = trainDeparture.row;
+  }
+
+  /**
+   * Constructs a new train departure from details that have already been validated.
+   *
+   * <p><Strong>Role: </Strong> Used by the register, which validates the details itself, so they
+   * are not validated a second time.
+   *
+   * @param departureTime the departure time
+   * @param trainLine the train line
+   * @param departureId the unique identifier for the train
+   * @param destination the destination for the train
+   * @param delay the delay in minutes
+   * @param track the track number, or -1 if no track is assigned
+   */
+  TrainDeparture(
+      LocalTime departureTime,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track) {
+    this.departureTime = departureTime;
+    this.trainLine = trainLine;
+    this.departureId = departureId;
+    this.destination = destination;
+    this.delay = delay;
+    this.delayedTime = departureTime.plusMinutes(delay);
+    this.track = track;
   }
 
   /**
@@ -95,16 +132,16 @@ public class TrainDeparture {
    *
    * @return The delay for the train
    */
-  private int getDelay() {
+  public int getDelay() {
     return delay;
   }
 
   /**
    * Retrieves the train line for the train.
    *
-   * @return The track number for the train
+   * @return The train line for the train
    */
-  private String getTrainLine() {
+  public String getTrainLine() {
     return trainLine;
   }
 
@@ -153,16 +190,45 @@ public class TrainDeparture {
     return track;
   }
 
+  /**
+   * Checks whether the departure can no longer be changed.
+   *
+   * @return true if the departure is read-only, false otherwise
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /** Marks the departure as read-only, which is done when it is stored in a register. */
+  void markAsReadOnly() {
+    this.readOnly = true;
+  }
+
+  /**
+   * Ensures that the departure is not read-only before it is changed.
+   *
+   * @throws IllegalStateException if the departure is read-only
+   */
+  private void checkIfWritable() throws IllegalStateException {
+    if (readOnly) {
+      throw new IllegalStateException(
+          "The departure is stored in a register and must be changed through the register.");
+    }
+  }
+
   /**
    * Assigns a delay in minutes to the train departure.
    *
    * @param delay the delay in minutes
    * @throws IllegalArgumentException if the delay is negative
+   * @throws IllegalStateException if the departure is read-only
    */
   public void setDelayAndDelayTime(int delay) {
+    checkIfWritable();
     ParameterValidation.validateDelay(delay);
     this.delay = delay;
     this.delayedTime = departureTime.plusMinutes(this.delay);
+    this.row = null;
   }
 
   /**
@@ -170,32 +236,107 @@ public class TrainDeparture {
    *
    * @param track the track number
    * @throws IllegalArgumentException if the track number is not between 1 and 15
+   * @throws IllegalStateException if the departure is read-only
    */
   public void setTrack(int track) {
+    checkIfWritable();
     ParameterValidation.validateTrack(track);
     this.track = track;
+    this.row = null;
   }
 
   /**
-   * Retrieves a formatted string representation of the train departure.
+   * Retrieves a formatted string representation of the train departure, as a row of the departure
+   * board.
    *
-   * <p><Strong>PS. </Strong>ChatGPT was used to implement <code>String.format()</code>
+   * <p>The row is formatted the first time it is needed and kept until the delay or the track is
+   * changed, so showing the same board again does not format the rows again.
    *
    * @return The formatted string with all attributes
    */
   @Override
   public String toString() {
-    String formattedDestination =
-        Character.toUpperCase(getDestination().charAt(0))
-            + getDestination().substring(1).toLowerCase();
-    return String.format(
-        "| %-10s | %-10s | %-10d | %-20s | %-10s | %-5s |",
-        getDepartureTime(),
-        getTrainLine(),
-        getDepartureId(),
-        formattedDestination,
-        (getDelay() > 0) ? getDelayedTime() : " ",
-        (getTrack() == -1) ? " " : getTrack());
+    String formatted = row;
+    if (formatted == null) {
+      formatted = formatRow();
+      row = formatted;
+    }
+    return formatted;
+  }
+
+  /**
+   * Formats the row of the departure board, with the columns padded to a fixed width: departure
+   * time, train line, train ID, destination with only the first letter in upper case, delayed time
+   * if the train is delayed, and track if one is assigned.
+   *
+   * @return the formatted row
+   */
+  private String formatRow() {
+    StringBuilder sb = new StringBuilder(84);
+    sb.append("| ");
+    int column = sb.length();
+    appendTime(sb, departureTime);
+    padColumn(sb, column, 10);
+    sb.append(" | ");
+    column = sb.length();
+    sb.append(trainLine);
+    padColumn(sb, column, 10);
+    sb.append(" | ");
+    column = sb.length();
+    sb.append(departureId);
+    padColumn(sb, column, 10);
+    sb.append(" | ");
+    column = sb.length();
+    sb.append(Character.toUpperCase(destination.charAt(0)));
+    for (int i = 1; i < destination.length(); i++) {
+      sb.append(Character.toLowerCase(destination.charAt(i)));
+    }
+    padColumn(sb, column, 20);
+    sb.append(" | ");
+    column = sb.length();
+    if (delay > 0) {
+      appendTime(sb, delayedTime);
+    } else {
+      sb.append(' ');
+    }
+    padColumn(sb, column, 10);
+    sb.append(" | ");
+    column = sb.length();
+    if (track == -1) {
+      sb.append(' ');
+    } else {
+      sb.append(track);
+    }
+    padColumn(sb, column, 5);
+    return sb.append(" |").toString();
+  }
+
+  /**
+   * Appends the time as hours and minutes, in the same way as {@link LocalTime#toString()} does for
+   * a time without seconds.
+   *
+   * @param sb the row being formatted
+   * @param time the time to append
+   */
+  private static void appendTime(StringBuilder sb, LocalTime time) {
+    int hour = time.getHour();
+    int minute = time.getMinute();
+    sb.append((char) ('0' + hour / 10)).append((char) ('0' + hour % 10)).append(':');
+    sb.append((char) ('0' + minute / 10)).append((char) ('0' + minute % 10));
+  }
+
+  /**
+   * Pads a column of the row with spaces up to its width. A column that is already wider is left as
+   * it is, like a left-aligned field in {@link String#format(String, Object...)}.
+   *
+   * @param sb the row being formatted
+   * @param column the position where the column starts
+   * @param width the width of the column
+   */
+  private static void padColumn(StringBuilder sb, int column, int width) {
+    while (sb.length() < column + width) {
+      sb.append(' ');
+    }
   }
 
   /**
@@ -1,65 +1,510 @@
 package edu.ntnu.stud.models;
 
 import edu.ntnu.stud.utils.ParameterValidation;
+import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents the train departure register containing the instances of the train departures. The
- * instances are stored in an ArrayList.
+ * instances are stored in a map ordered by departure time and departure ID, so the register is
+ * always sorted, and an index on the departure ID gives constant time access to a single departure.
+ * A second ordered map keeps the same departures by delayed time, so the next departure to actually
+ * leave is always its first entry. Another index groups the departures by destination, ignoring
+ * case, with each group kept in the same order as the register. The tracks taken at each minute of
+ * the day are kept in a bitmap, so two departures can never leave from the same track at the same
+ * time. A timing wheel sorts the departures by the minute they actually leave, so the departures
+ * that have left the station can be removed without looking at the others. The number of departures
+ * at each minute of the day is kept in Fenwick trees for both the departure time and the delayed
+ * time, which answer percentile queries without sorting.
+ *
+ * <p>The departures stored in the register are read-only, so readers get the stored instances
+ * instead of copies. A change of delay or track is made on a copy of the departure, which then
+ * replaces the original in the register.
+ *
+ * <p>The register can be shared between threads, for example a delay feed and several dispatchers.
+ * Reads never lock: the ordered register and the destination index are concurrent skip lists, the
+ * ID index is read optimistically, and a departure's delay and delayed time are always read from
+ * the same read-only instance. Writes lock only the departure they change, using a lock picked by
+ * the departure ID from a fixed set of locks, so changes to different departures rarely wait for
+ * each other. Tracks are claimed with compare-and-set, so two departures can never be given the
+ * same track and minute even when they are changed at the same time.
+ *
+ * <p>A whole timetable can be added at once. It is validated in a single pass and added only if
+ * none of its rows are rejected. The delay or track of every departure selected by a {@link
+ * DepartureFilter} can be changed in one step, with the tracks of the whole batch checked once.
+ * The register can be written straight to a writer, as a whole or one page at a time, instead of
+ * being built as a single string. The register can be streamed in order, and a parallel stream is
+ * split into parts with the same number of departures, so analytics scale across cores without a
+ * copy of the register.
+ *
+ * <p>Listeners can subscribe to the changes of the register instead of reading it again. Every
+ * addition, change of delay or track, removal and expiry is published as a {@link DepartureEvent}
+ * into a lock-free queue of each subscription while the departure's lock is held, so the events of
+ * a departure are in the order of its changes, and the events are handed to the listener in
+ * batches on another thread. A slow listener therefore never holds up a change to the register.
  *
  * <p><Strong>Goal: </Strong>Act as a model for a train departure register.
  *
  * @author 10083
- * @version 1.1
+ * @version 1.3
  * @since 0.2
  */
 public class TrainDepartureRegister {
-  /** ArrayList containing the instances of the train departures. */
-  private final ArrayList<TrainDeparture> allTrainDepartures = new ArrayList<>();
+  /** Number of locks that writes to the register are spread across, always a power of two. */
+  private static final int NUMBER_OF_DEPARTURE_LOCKS = 64;
+
+  /** The instances of the train departures, ordered by departure time and then departure ID. */
+  private final NavigableMap<Long, TrainDeparture> departuresByTime =
+      new ConcurrentSkipListMap<>();
+
+  /** The same instances ordered by delayed time and then departure ID. */
+  private final NavigableMap<Long, TrainDeparture> departuresByDelayedTime =
+      new ConcurrentSkipListMap<>();
+
+  /** Index from departure ID to the departure instance stored in the register. */
+  private final DepartureIdIndex departuresById = new DepartureIdIndex();
+
+  /** Index from the lower case destination to the departures going there, ordered by time. */
+  private final Map<String, NavigableMap<Long, TrainDeparture>> departuresByDestination =
+      new ConcurrentHashMap<>();
+
+  /** The minutes of the day each track is taken by a departure in the register. */
+  private final TrackOccupancy trackOccupancy = new TrackOccupancy();
+
+  /** The departures sorted by the minute they leave, used to remove the departures that left. */
+  private final DepartureExpiryWheel expiryWheel = new DepartureExpiryWheel();
+
+  /** The number of departures at each minute of the day, by scheduled departure time. */
+  private final MinuteOfDayStatistics departureTimeStatistics = new MinuteOfDayStatistics();
+
+  /** The number of departures at each minute of the day, by delayed time. */
+  private final MinuteOfDayStatistics delayedTimeStatistics = new MinuteOfDayStatistics();
+
+  /** Locks guarding changes to the departures, picked by the departure ID. */
+  private final ReentrantLock[] departureLocks = new ReentrantLock[NUMBER_OF_DEPARTURE_LOCKS];
+
+  /** The listeners subscribed to the changes of the register. */
+  private final List<DepartureSubscription> subscriptions = new CopyOnWriteArrayList<>();
 
   /** Constructs an object of the class TrainDepartureRegister. */
-  public TrainDepartureRegister() {}
+  public TrainDepartureRegister() {
+    for (int i = 0; i < NUMBER_OF_DEPARTURE_LOCKS; i++) {
+      departureLocks[i] = new ReentrantLock();
+    }
+  }
 
   /**
-   * Makes a deep copy of the objects in the register.
+   * Retrieves the lock that guards changes to the departure with the given ID.
    *
-   * @return arrayList containing deep copies of the departure instances in the register
+   * @param departureId the ID of the departure
+   * @return the lock of the departure
    */
-  private ArrayList<TrainDeparture> deepCopyOfDepartures() {
-    ArrayList<TrainDeparture> copyOfAllDepartures = new ArrayList<>();
-    allTrainDepartures.forEach(
-        trainDeparture -> copyOfAllDepartures.add(new TrainDeparture(trainDeparture)));
-    return copyOfAllDepartures;
+  private ReentrantLock lockFor(int departureId) {
+    return departureLocks[departureId & (NUMBER_OF_DEPARTURE_LOCKS - 1)];
   }
 
   /**
-   * Removes departures that are not going to the destination from the deep copied list.
+   * Creates the key that orders the departures in the register. The departure time in minutes is
+   * placed in the upper half of the key and the departure ID in the lower half, so departures
+   * leaving at the same time are ordered by their ID.
    *
-   * @param destination to identify the train departure that is being searched for
-   * @return arrayList of objects going to the same destination
+   * @param td the train departure
+   * @return the ordering key of the departure
    */
-  private ArrayList<TrainDeparture> returnListOfTrainDeparturesBasedOnDestination(
-      String destination) throws IllegalArgumentException, NullPointerException {
+  private static long timeKey(TrainDeparture td) {
+    long minuteOfDay = td.getDepartureTime().toSecondOfDay() / 60;
+    return (minuteOfDay << 32) | td.getDepartureId();
+  }
+
+  /**
+   * Creates the key that orders the departures by the time they actually leave, in the same way
+   * as {@link #timeKey(TrainDeparture)} orders them by departure time.
+   *
+   * @param td the train departure
+   * @return the ordering key of the departure by delayed time
+   */
+  private static long delayedTimeKey(TrainDeparture td) {
+    long minuteOfDay = td.getDelayedTime().toSecondOfDay() / 60;
+    return (minuteOfDay << 32) | td.getDepartureId();
+  }
+
+  /**
+   * Creates the key of the destination index, so that destinations are matched regardless of case.
+   *
+   * @param destination the destination
+   * @return the destination in lower case
+   */
+  private static String destinationKey(String destination) {
+    return destination.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Creates the exception thrown when a track is already taken at a given time.
+   *
+   * @param track the track number
+   * @return the exception describing the collision
+   */
+  private static IllegalArgumentException trackIsTaken(int track) {
+    return new IllegalArgumentException(
+        "There already exists a departure departing from "
+            + track
+            + " at the same time. Please try again.");
+  }
+
+  /**
+   * Validates the details of a departure and creates it. The details are validated here only, not
+   * again by the departure.
+   *
+   * @param departureTimeInHours int representing the departure time in hours
+   * @param departureTimeInMinutes int representing the departure time in minutes
+   * @param trainLine string representing the train line
+   * @param departureId int representing the unique identifier for the train
+   * @param destination string representing the destination for the train
+   * @param delay int representing the delay in minutes
+   * @param track int representing the track number
+   * @return the new departure
+   * @throws NullPointerException if the train line or destination is null
+   * @throws IllegalArgumentException if any of the details are invalid
+   */
+  private static TrainDeparture createDeparture(
+      int departureTimeInHours,
+      int departureTimeInMinutes,
+      String trainLine,
+      int departureId,
+      String destination,
+      int delay,
+      int track)
+      throws NullPointerException, IllegalArgumentException {
+    ParameterValidation.validateHour(departureTimeInHours);
+    ParameterValidation.validateMinute(departureTimeInMinutes);
+    ParameterValidation.notBlankValidation(
+        trainLine, "No Train line has been detected. Please enter the train line");
     ParameterValidation.notBlankValidation(
         destination, "No destination has been detected. Please enter the destination");
-    ArrayList<TrainDeparture> copyOfDepartures = sortTheTrainDepartureRegister();
-    copyOfDepartures.removeIf(td -> !td.getDestination().equalsIgnoreCase(destination));
-    return copyOfDepartures;
+    ParameterValidation.validateId(departureId);
+    ParameterValidation.validateDelay(delay);
+    ParameterValidation.validateTrack(track);
+    return new TrainDeparture(
+        LocalTime.of(departureTimeInHours, departureTimeInMinutes),
+        trainLine,
+        departureId,
+        destination,
+        delay,
+        track);
+  }
+
+  /** Takes every departure lock, in order, so no other change can be made to the register. */
+  private void lockAllDepartures() {
+    for (ReentrantLock lock : departureLocks) {
+      lock.lock();
+    }
+  }
+
+  /** Releases every departure lock taken by {@link #lockAllDepartures()}. */
+  private void unlockAllDepartures() {
+    for (int i = NUMBER_OF_DEPARTURE_LOCKS - 1; i >= 0; i--) {
+      departureLocks[i].unlock();
+    }
+  }
+
+  /**
+   * Queues an event for every subscribed listener, without starting the deliveries. Nothing is
+   * created when no listener is subscribed.
+   *
+   * @param type the kind of change
+   * @param departure the departure after the change, or the departure removed
+   * @param previous the departure before a change of delay or track, otherwise null
+   */
+  private void queueEvent(
+      DepartureEventType type, TrainDeparture departure, TrainDeparture previous) {
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+    DepartureEvent event = new DepartureEvent(type, departure, previous);
+    for (DepartureSubscription subscription : subscriptions) {
+      subscription.offer(event);
+    }
+  }
+
+  /** Starts delivering the queued events to every subscribed listener. */
+  private void deliverEvents() {
+    for (DepartureSubscription subscription : subscriptions) {
+      subscription.scheduleDelivery();
+    }
+  }
+
+  /**
+   * Publishes an event to every subscribed listener.
+   *
+   * @param type the kind of change
+   * @param departure the departure after the change, or the departure removed
+   * @param previous the departure before a change of delay or track, otherwise null
+   */
+  private void publish(
+      DepartureEventType type, TrainDeparture departure, TrainDeparture previous) {
+    queueEvent(type, departure, previous);
+    deliverEvents();
   }
 
   /**
-   * Sorts the train departures based on the departure time.
+   * Adds the departure to the ordered register and to every index. The lock of the departure must
+   * be held, and its track must already be claimed.
    *
-   * @return the sorted list of train departures
+   * @param td the train departure to add
    */
-  private ArrayList<TrainDeparture> sortTheTrainDepartureRegister() {
-    ArrayList<TrainDeparture> unsortedListOfTrainDepartures = deepCopyOfDepartures();
-    unsortedListOfTrainDepartures.sort(Comparator.comparing(TrainDeparture::getDepartureTime));
-    return unsortedListOfTrainDepartures;
+  private void addToIndexes(TrainDeparture td) {
+    td.markAsReadOnly();
+    long key = timeKey(td);
+    departuresById.put(td.getDepartureId(), td);
+    departuresByTime.put(key, td);
+    departuresByDelayedTime.put(delayedTimeKey(td), td);
+    departuresByDestination.compute(
+        destinationKey(td.getDestination()),
+        (destination, bucket) -> {
+          NavigableMap<Long, TrainDeparture> departures =
+              bucket == null ? new ConcurrentSkipListMap<>() : bucket;
+          departures.put(key, td);
+          return departures;
+        });
+    expiryWheel.add(td.getDepartureId(), td.getDelayedTime());
+    departureTimeStatistics.add(td.getDepartureTime());
+    delayedTimeStatistics.add(td.getDelayedTime());
+  }
+
+  /**
+   * Removes the departure from the ordered register and from every index, and frees its track.
+   * The lock of the departure must be held.
+   *
+   * @param td the train departure to remove
+   */
+  private void removeFromIndexes(TrainDeparture td) {
+    long key = timeKey(td);
+    departuresByTime.remove(key);
+    departuresByDelayedTime.remove(delayedTimeKey(td));
+    departuresByDestination.computeIfPresent(
+        destinationKey(td.getDestination()),
+        (destination, bucket) -> {
+          bucket.remove(key);
+          return bucket.isEmpty() ? null : bucket;
+        });
+    departuresById.remove(td.getDepartureId());
+    trackOccupancy.release(td.getTrack(), td.getDelayedTime());
+    expiryWheel.remove(td.getDepartureId(), td.getDelayedTime());
+    departureTimeStatistics.remove(td.getDepartureTime());
+    delayedTimeStatistics.remove(td.getDelayedTime());
+  }
+
+  /**
+   * Replaces a departure in the register with a changed copy of it. If the copy leaves from another
+   * track or at another time, the new track is claimed before the old one is freed. The lock of
+   * the departure must be held.
+   *
+   * @param original the departure stored in the register
+   * @param updated the changed copy of the departure
+   * @throws IllegalArgumentException if the new track is already taken at the new time
+   */
+  private void replaceInIndexes(TrainDeparture original, TrainDeparture updated)
+      throws IllegalArgumentException {
+    boolean sameTrackAndTime = leavesFromSameTrackAndTime(original, updated);
+    if (!sameTrackAndTime
+        && !trackOccupancy.tryOccupy(updated.getTrack(), updated.getDelayedTime())) {
+      throw trackIsTaken(updated.getTrack());
+    }
+    swapInIndexes(original, updated);
+    if (!sameTrackAndTime) {
+      trackOccupancy.release(original.getTrack(), original.getDelayedTime());
+    }
+  }
+
+  /**
+   * Checks whether two versions of a departure leave from the same track at the same time.
+   *
+   * @param original the departure stored in the register
+   * @param updated the changed copy of the departure
+   * @return true if the track and the delayed time are the same, false otherwise
+   */
+  private static boolean leavesFromSameTrackAndTime(
+      TrainDeparture original, TrainDeparture updated) {
+    return original.getTrack() == updated.getTrack()
+        && original.getDelayedTime().equals(updated.getDelayedTime());
+  }
+
+  /**
+   * Checks whether a copy of a departure has another delay or track than the original, so a
+   * change that leaves the departure as it was is not published.
+   *
+   * @param original the departure stored in the register
+   * @param updated the changed copy of the departure
+   * @return true if the delay or the track differs, false otherwise
+   */
+  private static boolean isChanged(TrainDeparture original, TrainDeparture updated) {
+    return original.getDelay() != updated.getDelay() || original.getTrack() != updated.getTrack();
+  }
+
+  /**
+   * Puts a changed copy of a departure in place of the original in the register and every index,
+   * without touching the tracks. The departure time, ID and destination are the same for both, so
+   * the positions in the register and the indexes stay the same. The lock of the departure must be
+   * held.
+   *
+   * @param original the departure stored in the register
+   * @param updated the changed copy of the departure
+   */
+  private void swapInIndexes(TrainDeparture original, TrainDeparture updated) {
+    updated.markAsReadOnly();
+    long key = timeKey(updated);
+    departuresById.put(updated.getDepartureId(), updated);
+    departuresByTime.put(key, updated);
+    departuresByDelayedTime.remove(delayedTimeKey(original));
+    departuresByDelayedTime.put(delayedTimeKey(updated), updated);
+    departuresByDestination.get(destinationKey(updated.getDestination())).put(key, updated);
+    expiryWheel.move(
+        updated.getDepartureId(), original.getDelayedTime(), updated.getDelayedTime());
+    if (!original.getDelayedTime().equals(updated.getDelayedTime())) {
+      delayedTimeStatistics.remove(original.getDelayedTime());
+      delayedTimeStatistics.add(updated.getDelayedTime());
+    }
+  }
+
+  /**
+   * Finds the departures selected by the filter. Only the departures within the time window of the
+   * filter are looked at, and only those going to its destination if it has one.
+   *
+   * @param filter the filter selecting the departures
+   * @return the selected departures in the order of the register
+   */
+  private List<TrainDeparture> select(DepartureFilter filter) {
+    NavigableMap<Long, TrainDeparture> candidates =
+        filter.getDestinationKey() == null
+            ? departuresByTime
+            : departuresByDestination.get(filter.getDestinationKey());
+    if (candidates == null) {
+      return Collections.emptyList();
+    }
+    long fromKey = firstMinuteFrom(filter.getFrom()) << 32;
+    candidates =
+        filter.getUntil() == null
+            ? candidates.tailMap(fromKey, true)
+            : candidates.subMap(fromKey, true, firstMinuteFrom(filter.getUntil()) << 32, false);
+    List<TrainDeparture> selected = new ArrayList<>();
+    for (TrainDeparture td : candidates.values()) {
+      if (filter.matches(td)) {
+        selected.add(td);
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Changes every departure selected by the filter in a single pass. Each selected departure is
+   * copied and changed, then the tracks of the whole batch are checked once: the batch frees the
+   * tracks it leaves and claims the tracks it moves to. If any departure would collide with
+   * another, nothing is changed.
+   *
+   * @param filter the filter selecting the departures
+   * @param change the change made to the copy of each departure
+   * @param type the kind of change, published for every departure changed
+   * @return the number of departures changed
+   * @throws IllegalArgumentException if the change is invalid for a departure, or if departures
+   *     would leave from the same track at the same time
+   */
+  private int changeDepartures(
+      DepartureFilter filter, Consumer<TrainDeparture> change, DepartureEventType type)
+      throws IllegalArgumentException {
+    Objects.requireNonNull(filter, "The filter cannot be null.");
+    lockAllDepartures();
+    try {
+      List<TrainDeparture> originals = select(filter);
+      List<TrainDeparture> moved = new ArrayList<>();
+      List<TrainDeparture> updates = new ArrayList<>(originals.size());
+      for (TrainDeparture original : originals) {
+        TrainDeparture updated = new TrainDeparture(original);
+        change.accept(updated);
+        updates.add(updated);
+        if (!leavesFromSameTrackAndTime(original, updated)) {
+          moved.add(original);
+        }
+      }
+
+      for (TrainDeparture original : moved) {
+        trackOccupancy.release(original.getTrack(), original.getDelayedTime());
+      }
+      List<TrainDeparture> claimed = new ArrayList<>(moved.size());
+      List<Integer> collisions = new ArrayList<>();
+      for (int i = 0; i < originals.size(); i++) {
+        TrainDeparture original = originals.get(i);
+        TrainDeparture updated = updates.get(i);
+        if (!leavesFromSameTrackAndTime(original, updated)) {
+          if (trackOccupancy.tryOccupy(updated.getTrack(), updated.getDelayedTime())) {
+            claimed.add(updated);
+          } else {
+            collisions.add(updated.getDepartureId());
+          }
+        }
+      }
+      if (!collisions.isEmpty()) {
+        for (TrainDeparture updated : claimed) {
+          trackOccupancy.release(updated.getTrack(), updated.getDelayedTime());
+        }
+        for (TrainDeparture original : moved) {
+          trackOccupancy.tryOccupy(original.getTrack(), original.getDelayedTime());
+        }
+        throw new IllegalArgumentException(
+            "The departures with the train IDs "
+                + collisions.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                + " would leave from the same track as another departure at the same time.");
+      }
+
+      int changed = 0;
+      for (int i = 0; i < originals.size(); i++) {
+        swapInIndexes(originals.get(i), updates.get(i));
+        if (isChanged(originals.get(i), updates.get(i))) {
+          queueEvent(type, updates.get(i), originals.get(i));
+          changed++;
+        }
+      }
+      deliverEvents();
+      return changed;
+    } finally {
+      unlockAllDepartures();
+    }
+  }
+
+  /**
+   * Retrieves the departures that are going to the destination, in the order of the register.
+   *
+   * @param destination to identify the train departure that is being searched for
+   * @return read-only collection of objects going to the same destination
+   */
+  private Collection<TrainDeparture> returnListOfTrainDeparturesBasedOnDestination(
+      String destination) throws IllegalArgumentException, NullPointerException {
+    ParameterValidation.notBlankValidation(
+        destination, "No destination has been detected. Please enter the destination");
+    NavigableMap<Long, TrainDeparture> bucket =
+        departuresByDestination.get(destinationKey(destination));
+    return bucket == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableCollection(bucket.values());
   }
 
   /**
@@ -70,7 +515,126 @@ public class TrainDepartureRegister {
    */
   public boolean doesDepartureIdExist(int departureIdUnique) throws IllegalArgumentException {
     ParameterValidation.validateId(departureIdUnique);
-    return allTrainDepartures.stream().anyMatch(td -> td.getDepartureId() == departureIdUnique);
+    return departuresById.containsKey(departureIdUnique);
+  }
+
+  /**
+   * Retrieves the departure with the given ID. The departure is read-only and shared with every
+   * other reader, so no copy is made.
+   *
+   * @param departureId ID of the train being searched for
+   * @return the train departure, or null if there is no departure with the ID
+   */
+  public TrainDeparture getTrainDepartureBasedOnId(int departureId)
+      throws IllegalArgumentException {
+    ParameterValidation.validateId(departureId);
+    return departuresById.get(departureId);
+  }
+
+  /**
+   * Retrieves a read-only view of the departures in the register, ordered by departure time and
+   * then departure ID. The view is backed by the register, so no departures are copied, and the
+   * departures in it are read-only.
+   *
+   * @return the departures in the register
+   */
+  public Collection<TrainDeparture> getTrainDepartures() {
+    return Collections.unmodifiableCollection(departuresByTime.values());
+  }
+
+  /**
+   * Retrieves a read-only view of the departures going to the destination, ignoring case, ordered
+   * by departure time and then departure ID. The view is backed by the register, so no departures
+   * are copied.
+   *
+   * @param destination the destination
+   * @return the departures going to the destination
+   * @throws IllegalArgumentException if the destination is blank
+   * @throws NullPointerException if the destination is null
+   */
+  public Collection<TrainDeparture> getTrainDeparturesBasedOnDestination(String destination)
+      throws IllegalArgumentException, NullPointerException {
+    return returnListOfTrainDeparturesBasedOnDestination(destination);
+  }
+
+  /**
+   * Streams the departures in the register, ordered by departure time and then departure ID,
+   * without copying them. The stream reads the register as it is traversed, and the departures in
+   * it are read-only.
+   *
+   * @return a sequential stream of the departures
+   */
+  public Stream<TrainDeparture> stream() {
+    return StreamSupport.stream(newSpliterator(), false);
+  }
+
+  /**
+   * Streams the departures in the register in parallel, without copying them. The departures are
+   * split into parts of the same size by the number of departures at each minute of the day, so
+   * every thread gets the same amount of work, for example when grouping by train line or summing
+   * the delays.
+   *
+   * @return a parallel stream of the departures
+   */
+  public Stream<TrainDeparture> parallelStream() {
+    return StreamSupport.stream(newSpliterator(), true);
+  }
+
+  /**
+   * Creates a spliterator over every departure in the register, ordered by departure time.
+   *
+   * @return the spliterator
+   */
+  private DepartureSpliterator newSpliterator() {
+    return new DepartureSpliterator(
+        departuresByTime, departureTimeStatistics, 0, MinuteOfDayStatistics.MINUTES_PER_DAY);
+  }
+
+  /**
+   * Retrieves a read-only view of the departures leaving in a window of time, by scheduled or
+   * delayed time. The departures are ordered by the chosen time and then departure ID.
+   *
+   * <p>The view is the slice of the ordered index between the two times, found with two searches
+   * in the index, so departures outside of the window are never looked at or copied. Reading the
+   * first departure takes logarithmic time, and each departure after it constant time. The view is
+   * backed by the register and lazy: it shows the changes made while it is read, and its size is
+   * found by counting the departures in it.
+   *
+   * @param type whether the departures are chosen by departure time or by delayed time
+   * @param from the start of the window, included
+   * @param until the end of the window, not included, where {@link LocalTime#MAX} includes the
+   *     rest of the day
+   * @return the departures leaving in the window
+   * @throws IllegalArgumentException if the end of the window is before its start
+   * @throws NullPointerException if the type or either time is null
+   */
+  public Collection<TrainDeparture> getTrainDeparturesBetween(
+      DepartureTimeType type, LocalTime from, LocalTime until)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(type, "The type of time cannot be null.");
+    ParameterValidation.validateTime(from);
+    ParameterValidation.validateTime(until);
+    if (until.isBefore(from)) {
+      throw new IllegalArgumentException(
+          "The end of the window, " + until + ", cannot be before its start, " + from + ".");
+    }
+    NavigableMap<Long, TrainDeparture> index =
+        type == DepartureTimeType.DEPARTURE_TIME ? departuresByTime : departuresByDelayedTime;
+    return Collections.unmodifiableCollection(
+        index.subMap(firstMinuteFrom(from) << 32, true, firstMinuteFrom(until) << 32, false)
+            .values());
+  }
+
+  /**
+   * Finds the first whole minute of the day at or after the time, so a window starting or ending
+   * within a minute includes exactly the departures leaving at or after the time.
+   *
+   * @param time the time
+   * @return the minute of the day, from 0 to 1440
+   */
+  private static long firstMinuteFrom(LocalTime time) {
+    long nanosPerMinute = Duration.ofMinutes(1).toNanos();
+    return (time.toNanoOfDay() + nanosPerMinute - 1) / nanosPerMinute;
   }
 
   /**
@@ -82,8 +646,7 @@ public class TrainDepartureRegister {
   public boolean doesDestinationExist(String destination) throws IllegalArgumentException {
     ParameterValidation.notBlankValidation(
         destination, "No destination has been detected. Please try again.");
-    return allTrainDepartures.stream()
-        .anyMatch(td -> td.getDestination().equalsIgnoreCase(destination));
+    return departuresByDestination.containsKey(destinationKey(destination));
   }
 
   /**
@@ -92,44 +655,126 @@ public class TrainDepartureRegister {
    * @return the number of departures in the register
    */
   public int getNumberOfTrainDepartures() {
-    return allTrainDepartures.size();
+    return departuresById.size();
   }
 
-  /** Calculates the amount of time before the nearest departure leaves the station. */
+  /**
+   * Retrieves the departure that actually leaves first, taking the delays into account. The
+   * departures are kept ordered by delayed time, so the first one is read without searching.
+   *
+   * @return the departure with the earliest delayed time, or null if the register is empty
+   */
+  public TrainDeparture getNextDeparture() {
+    Map.Entry<Long, TrainDeparture> first = departuresByDelayedTime.firstEntry();
+    return first == null ? null : first.getValue();
+  }
+
+  /**
+   * Calculates the amount of time before the nearest departure leaves the station, taking the
+   * delays into account.
+   *
+   * @param time the current time
+   * @return the number of minutes until the next departure, or -1 if the register is empty
+   */
   public long getTimeTilNextDeparture(LocalTime time) {
     ParameterValidation.validateTime(time);
-    ArrayList<TrainDeparture> sortedList = sortTheTrainDepartureRegister();
-    if (allTrainDepartures.isEmpty()) {
+    TrainDeparture next = getNextDeparture();
+    if (next == null) {
       return -1;
     }
-    LocalTime timeOfNextDeparture = sortedList.get(0).getDelayedTime();
+    return Duration.between(time, next.getDelayedTime()).toMinutes();
+  }
 
-    Duration timeUntilNextDeparture = Duration.between(time, timeOfNextDeparture);
-    return timeUntilNextDeparture.toMinutes();
+  /**
+   * Retrieves the statistics kept for the given type of time.
+   *
+   * @param type the type of time
+   * @return the statistics for the type of time
+   */
+  private MinuteOfDayStatistics statisticsFor(DepartureTimeType type) {
+    Objects.requireNonNull(type, "The type of time cannot be null.");
+    return type == DepartureTimeType.DEPARTURE_TIME
+        ? departureTimeStatistics
+        : delayedTimeStatistics;
   }
 
-  /** Finds the 50th percentile of the train departures based on the departure time. */
-  public String findInterQuartileRange() {
-    ArrayList<TrainDeparture> sortedRegister = sortTheTrainDepartureRegister();
-    int size = sortedRegister.size();
-    int start = size / 4;
-    int end = 3 * size / 4;
+  /**
+   * Counts the departures that leave before the given time.
+   *
+   * @param type whether the scheduled or the delayed time is counted
+   * @param time the time to compare with
+   * @return the number of departures leaving before the time
+   */
+  public int rank(DepartureTimeType type, LocalTime time) throws NullPointerException {
+    ParameterValidation.validateTime(time);
+    return statisticsFor(type).rank(time);
+  }
 
-    LocalTime theStart = sortedRegister.get(start).getDepartureTime();
-    LocalTime theEnd = sortedRegister.get(end).getDepartureTime();
+  /**
+   * Finds the time of the k-th departure when the departures are ordered by the given time.
+   *
+   * @param type whether the scheduled or the delayed time is used
+   * @param k the zero-based position of the departure
+   * @return the time of the departure at the position
+   * @throws IllegalArgumentException if the position is not in the register
+   */
+  public LocalTime select(DepartureTimeType type, int k) throws IllegalArgumentException {
+    MinuteOfDayStatistics statistics = statisticsFor(type);
+    if (k < 0 || k >= statistics.size()) {
+      throw new IllegalArgumentException(
+          "The position must be between 0 and the number of departures minus one.");
+    }
+    return statistics.select(k);
+  }
+
+  /**
+   * Finds the given percentile of the departures, using the nearest rank below: the percentile p
+   * of n departures is the time of the departure at position p * n, rounded down.
+   *
+   * @param type whether the scheduled or the delayed time is used
+   * @param percentile the percentile as a fraction between 0 and 1
+   * @return the time at the percentile
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   * @throws IllegalStateException if there are no departures in the register
+   */
+  public LocalTime percentile(DepartureTimeType type, double percentile)
+      throws IllegalArgumentException, IllegalStateException {
+    ParameterValidation.validatePercentile(percentile);
+    MinuteOfDayStatistics statistics = statisticsFor(type);
+    int size = statistics.size();
+    if (size == 0) {
+      throw new IllegalStateException("There are no departures in the register.");
+    }
+    return statistics.select(Math.min((int) (percentile * size), size - 1));
+  }
 
-    return theStart + " - " + theEnd;
+  /**
+   * Finds the 25th and the 75th percentile of the train departures based on the departure time.
+   *
+   * @return the interquartile range, or "-" if there are no departures in the register
+   */
+  public String findInterQuartileRange() {
+    if (departureTimeStatistics.size() == 0) {
+      return "-";
+    }
+    return percentile(DepartureTimeType.DEPARTURE_TIME, 0.25)
+        + " - "
+        + percentile(DepartureTimeType.DEPARTURE_TIME, 0.75);
   }
 
   /**
    * Generates a list of all the destinations that the departures in the register are going to.
+   * Each destination is listed once, spelled as in its first departure, in the order of the first
+   * departure going there.
    *
    * @return the list of destinations
    */
   public String returnAllDestinationsInRegister() {
-    return sortTheTrainDepartureRegister().stream()
-        .map(TrainDeparture::getDestination)
-        .distinct()
+    return departuresByDestination.values().stream()
+        .map(NavigableMap::firstEntry)
+        .filter(Objects::nonNull)
+        .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+        .map(entry -> entry.getValue().getDestination())
         .collect(Collectors.joining(" | "));
   }
 
@@ -143,23 +788,111 @@ public class TrainDepartureRegister {
       throws IllegalArgumentException, NullPointerException {
     ParameterValidation.notBlankValidation(
         destination, "No destination has been detected. Please enter the destination");
-    ArrayList<TrainDeparture> temp = returnListOfTrainDeparturesBasedOnDestination(destination);
+    Collection<TrainDeparture> temp = returnListOfTrainDeparturesBasedOnDestination(destination);
     return temp.stream().map(TrainDeparture::toString).collect(Collectors.joining("\n"));
   }
 
   /**
-   * Filters the original list for the departureId specified and retrieves information about that
-   * train departure.
+   * Writes the departures, one row per line, to the output in the given order. Every row ends with
+   * a line break. The output is not flushed, so the caller can flush once per board.
+   *
+   * @param out the output to write to
+   * @param departures the departures to write
+   * @return the number of rows written
+   * @throws IOException if the output cannot be written to
+   */
+  private static int writeRows(Appendable out, Iterable<TrainDeparture> departures)
+      throws IOException {
+    int rows = 0;
+    for (TrainDeparture td : departures) {
+      out.append(td.toString()).append('\n');
+      rows++;
+    }
+    return rows;
+  }
+
+  /**
+   * Writes every departure in the register to the output, in the same order and format as {@link
+   * #toString()} but with a line break after every row. The rows are written as the register is
+   * read, so the board is never built as a single string.
+   *
+   * @param out the output to write to, for example a buffered writer
+   * @return the number of rows written
+   * @throws IOException if the output cannot be written to
+   * @throws NullPointerException if the output is null
+   */
+  public int writeTo(Appendable out) throws IOException, NullPointerException {
+    Objects.requireNonNull(out, "The output cannot be null.");
+    return writeRows(out, departuresByTime.values());
+  }
+
+  /**
+   * Writes one page of the departures in the register to the output. The first departure of the
+   * page is found through the departure time statistics, so earlier pages are not read.
+   *
+   * @param out the output to write to, for example a buffered writer
+   * @param page the number of the page, starting at 0
+   * @param pageSize the number of departures on each page
+   * @return the number of rows written, which is less than the page size on the last page
+   * @throws IOException if the output cannot be written to
+   * @throws IllegalArgumentException if the page is negative or the page size is less than 1
+   * @throws NullPointerException if the output is null
+   */
+  public int writePageTo(Appendable out, int page, int pageSize)
+      throws IOException, IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(out, "The output cannot be null.");
+    ParameterValidation.validatePage(page, pageSize);
+    long firstRow = (long) page * pageSize;
+    if (firstRow >= departureTimeStatistics.size()) {
+      return 0;
+    }
+    LocalTime firstTime = departureTimeStatistics.select((int) firstRow);
+    long skip = firstRow - departureTimeStatistics.rank(firstTime);
+    long fromKey = (long) (firstTime.toSecondOfDay() / 60) << 32;
+    int rows = 0;
+    for (TrainDeparture td : departuresByTime.tailMap(fromKey, true).values()) {
+      if (rows == pageSize) {
+        break;
+      }
+      if (skip > 0) {
+        skip--;
+      } else {
+        out.append(td.toString()).append('\n');
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Writes the departures going to the destination to the output, in the order of the register
+   * and with a line break after every row.
+   *
+   * @param out the output to write to, for example a buffered writer
+   * @param destination the destination
+   * @return the number of rows written
+   * @throws IOException if the output cannot be written to
+   * @throws IllegalArgumentException if the destination is blank
+   * @throws NullPointerException if the output or destination is null
+   */
+  public int writeTrainDeparturesBasedOnDestinationTo(Appendable out, String destination)
+      throws IOException, IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(out, "The output cannot be null.");
+    return writeRows(out, returnListOfTrainDeparturesBasedOnDestination(destination));
+  }
+
+  /**
+   * Looks up the departureId specified in the index and retrieves information about that train
+   * departure.
    *
    * @param departureId ID of the train being searched for
-   * @return the train departure object with the specific train ID as a string
+   * @return the train departure object with the specific train ID as a string, or an empty string
+   *     if there is no departure with the ID
    */
   public String returnTrainDepartureBasedOnId(int departureId) throws IllegalArgumentException {
     ParameterValidation.validateId(departureId);
-    return sortTheTrainDepartureRegister().stream()
-        .filter(td -> td.getDepartureId() == departureId)
-        .map(TrainDeparture::toString)
-        .collect(Collectors.joining("\n"));
+    TrainDeparture td = departuresById.get(departureId);
+    return td == null ? "" : td.toString();
   }
 
   /**
@@ -178,6 +911,7 @@ public class TrainDepartureRegister {
    *       <li>if the Train line or destination is blank
    *       <li>if the departure ID or delay is negative
    *       <li>if the track number is not between 1 and 15
+   *       <li>if there already is a departure with the same ID in the register
    *     </ol>
    */
   public void addTrainDeparture(
@@ -189,18 +923,8 @@ public class TrainDepartureRegister {
       int delay,
       int track)
       throws NullPointerException, IllegalArgumentException {
-    ParameterValidation.validateHour(departureTimeInHours);
-    ParameterValidation.validateMinute(departureTimeInMinutes);
-    ParameterValidation.notBlankValidation(
-        trainLine, "No Train line has been detected. Please enter the train line");
-    ParameterValidation.notBlankValidation(
-        destination, "No destination has been detected. Please enter the destination");
-    ParameterValidation.validateId(departureId);
-    ParameterValidation.validateDelay(delay);
-    ParameterValidation.validateTrack(track);
-
     TrainDeparture td =
-        new TrainDeparture(
+        createDeparture(
             departureTimeInHours,
             departureTimeInMinutes,
             trainLine,
@@ -208,9 +932,178 @@ public class TrainDepartureRegister {
             destination,
             delay,
             track);
-    checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(td);
 
-    allTrainDepartures.add(td);
+    ReentrantLock lock = lockFor(departureId);
+    lock.lock();
+    try {
+      if (departuresById.containsKey(departureId)) {
+        throw new IllegalArgumentException(
+            "There already exists a departure with the train ID " + departureId + ".");
+      }
+      if (!trackOccupancy.tryOccupy(td.getTrack(), td.getDelayedTime())) {
+        throw trackIsTaken(td.getTrack());
+      }
+      addToIndexes(td);
+      publish(DepartureEventType.ADDED, td, null);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds a whole timetable to the register at once.
+   *
+   * <p>Every row is validated once. Rows using the same departure ID, and rows leaving from the
+   * same track at the same time, are found by sorting the rows on the ID and on the track and time,
+   * so each conflict is found between neighbours instead of by comparing every pair of rows. The
+   * rows are also checked against the departures already in the register.
+   *
+   * <p>The timetable is added as a whole or not at all: if any row is rejected, nothing is added
+   * and every rejected row is reported. Other changes to the register wait while the timetable is
+   * checked and added.
+   *
+   * @param timetable the rows of the timetable
+   * @return the rejected rows ordered by their position in the timetable, or an empty list if the
+   *     whole timetable was added
+   * @throws NullPointerException if the timetable is null
+   */
+  public List<RejectedDeparture> addTrainDepartures(List<TimetableEntry> timetable)
+      throws NullPointerException {
+    Objects.requireNonNull(timetable, "The timetable cannot be null.");
+    int numberOfRows = timetable.size();
+    TrainDeparture[] departures = new TrainDeparture[numberOfRows];
+    List<RejectedDeparture> rejected = new ArrayList<>();
+    int row = 0;
+    for (TimetableEntry entry : timetable) {
+      if (entry == null) {
+        rejected.add(new RejectedDeparture(row, 0, "The row is empty."));
+      } else {
+        try {
+          departures[row] =
+              createDeparture(
+                  entry.getDepartureTimeInHours(),
+                  entry.getDepartureTimeInMinutes(),
+                  entry.getTrainLine(),
+                  entry.getDepartureId(),
+                  entry.getDestination(),
+                  entry.getDelay(),
+                  entry.getTrack());
+        } catch (IllegalArgumentException | DateTimeException e) {
+          rejected.add(new RejectedDeparture(row, entry.getDepartureId(), e.getMessage()));
+        } catch (NullPointerException e) {
+          rejected.add(
+              new RejectedDeparture(
+                  row, entry.getDepartureId(), "The train line and destination must be given."));
+        }
+      }
+      row++;
+    }
+
+    lockAllDepartures();
+    try {
+      rejectDuplicateIds(departures, rejected);
+      rejectTrackCollisions(departures, rejected);
+      if (!rejected.isEmpty()) {
+        rejected.sort(Comparator.comparingInt(RejectedDeparture::getRow));
+        return Collections.unmodifiableList(rejected);
+      }
+      // Adding in the order of the register keeps the paths through the skip lists in the cache.
+      Arrays.sort(departures, Comparator.comparingLong(TrainDepartureRegister::timeKey));
+      for (TrainDeparture td : departures) {
+        trackOccupancy.tryOccupy(td.getTrack(), td.getDelayedTime());
+        addToIndexes(td);
+        queueEvent(DepartureEventType.ADDED, td, null);
+      }
+      deliverEvents();
+      return Collections.emptyList();
+    } finally {
+      unlockAllDepartures();
+    }
+  }
+
+  /**
+   * Rejects the rows whose departure ID is already in the register or is used by an earlier row.
+   * Every departure lock must be held.
+   *
+   * @param departures the valid departures by row, null for rows already rejected
+   * @param rejected the rejected rows, to which the duplicates are added
+   */
+  private void rejectDuplicateIds(TrainDeparture[] departures, List<RejectedDeparture> rejected) {
+    long[] keys = new long[departures.length];
+    int numberOfKeys = 0;
+    for (int row = 0; row < departures.length; row++) {
+      if (departures[row] != null) {
+        keys[numberOfKeys++] = ((long) departures[row].getDepartureId() << 32) | row;
+      }
+    }
+    Arrays.sort(keys, 0, numberOfKeys);
+    int previousId = 0;
+    int previousRow = -1;
+    for (int i = 0; i < numberOfKeys; i++) {
+      int departureId = (int) (keys[i] >>> 32);
+      int row = (int) keys[i];
+      String reason = null;
+      if (departureId == previousId) {
+        reason = "The train ID " + departureId + " is also used in row " + previousRow + ".";
+      } else {
+        previousId = departureId;
+        previousRow = row;
+        if (departuresById.containsKey(departureId)) {
+          reason = "There already exists a departure with the train ID " + departureId + ".";
+        }
+      }
+      if (reason != null) {
+        rejected.add(new RejectedDeparture(row, departureId, reason));
+        departures[row] = null;
+      }
+    }
+  }
+
+  /**
+   * Rejects the rows leaving from a track that is already taken at the same time, either by a
+   * departure in the register or by an earlier row. Every departure lock must be held.
+   *
+   * @param departures the valid departures by row, null for rows already rejected
+   * @param rejected the rejected rows, to which the collisions are added
+   */
+  private void rejectTrackCollisions(
+      TrainDeparture[] departures, List<RejectedDeparture> rejected) {
+    long[] keys = new long[departures.length];
+    int numberOfKeys = 0;
+    for (int row = 0; row < departures.length; row++) {
+      TrainDeparture td = departures[row];
+      if (td != null && td.getTrack() != -1) {
+        long slot = td.getTrack() * 24L * 60 + td.getDelayedTime().toSecondOfDay() / 60;
+        keys[numberOfKeys++] = (slot << 32) | row;
+      }
+    }
+    Arrays.sort(keys, 0, numberOfKeys);
+    long previousSlot = -1;
+    int previousRow = -1;
+    for (int i = 0; i < numberOfKeys; i++) {
+      long slot = keys[i] >>> 32;
+      int row = (int) keys[i];
+      TrainDeparture td = departures[row];
+      String reason = null;
+      if (slot == previousSlot) {
+        reason =
+            "The departure leaves from track "
+                + td.getTrack()
+                + " at the same time as row "
+                + previousRow
+                + ".";
+      } else {
+        previousSlot = slot;
+        previousRow = row;
+        if (trackOccupancy.isOccupied(td.getTrack(), td.getDelayedTime())) {
+          reason = trackIsTaken(td.getTrack()).getMessage();
+        }
+      }
+      if (reason != null) {
+        rejected.add(new RejectedDeparture(row, td.getDepartureId(), reason));
+        departures[row] = null;
+      }
+    }
   }
 
   /**
@@ -218,13 +1111,27 @@ public class TrainDepartureRegister {
    *
    * @param departureId unique identifier of the train departure
    * @param delay the delay in minutes
+   * @throws IllegalArgumentException if the new delayed time collides with another departure
+   *     leaving from the same track
    */
-  public void assignDelay(int departureId, int delay) {
+  public void assignDelay(int departureId, int delay) throws IllegalArgumentException {
     ParameterValidation.validateId(departureId);
     ParameterValidation.validateDelay(delay);
-    allTrainDepartures.stream()
-        .filter(traDep -> traDep.getDepartureId() == departureId)
-        .forEach(traDep -> traDep.setDelayAndDelayTime(delay));
+    ReentrantLock lock = lockFor(departureId);
+    lock.lock();
+    try {
+      TrainDeparture td = departuresById.get(departureId);
+      if (td != null) {
+        TrainDeparture updated = new TrainDeparture(td);
+        updated.setDelayAndDelayTime(delay);
+        replaceInIndexes(td, updated);
+        if (isChanged(td, updated)) {
+          publish(DepartureEventType.DELAY_CHANGED, updated, td);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -232,22 +1139,108 @@ public class TrainDepartureRegister {
    *
    * @param departureId unique identifier of the train departure
    * @param trackNum the track number
+   * @throws IllegalArgumentException if another departure leaves from the new track at the same
+   *     time
    */
   public void assignTrack(int departureId, int trackNum) throws IllegalArgumentException {
     ParameterValidation.validateId(departureId);
     ParameterValidation.validateTrack(trackNum);
-    allTrainDepartures.stream()
-        .filter(traDep -> traDep.getDepartureId() == departureId)
-        .forEach(traDep -> traDep.setTrack(trackNum));
+    ReentrantLock lock = lockFor(departureId);
+    lock.lock();
+    try {
+      TrainDeparture td = departuresById.get(departureId);
+      if (td != null) {
+        TrainDeparture updated = new TrainDeparture(td);
+        updated.setTrack(trackNum);
+        replaceInIndexes(td, updated);
+        if (isChanged(td, updated)) {
+          publish(DepartureEventType.TRACK_CHANGED, updated, td);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Assigns the same delay to every departure selected by the filter, for example every departure
+   * on a train line.
+   *
+   * @param filter the filter selecting the departures
+   * @param delay the delay in minutes
+   * @return the number of departures changed
+   * @throws IllegalArgumentException if the delay is negative, or if the new delayed times make
+   *     departures leave from the same track at the same time, in which case nothing is changed
+   */
+  public int assignDelay(DepartureFilter filter, int delay) throws IllegalArgumentException {
+    ParameterValidation.validateDelay(delay);
+    return changeDepartures(
+        filter, td -> td.setDelayAndDelayTime(delay), DepartureEventType.DELAY_CHANGED);
+  }
+
+  /**
+   * Adds minutes to the delay of every departure selected by the filter, for example 15 minutes to
+   * every departure on a train line. A negative number of minutes shortens the delays.
+   *
+   * @param filter the filter selecting the departures
+   * @param minutes the minutes to add to each delay
+   * @return the number of departures changed
+   * @throws IllegalArgumentException if a delay would become negative or too large, or if the new
+   *     delayed times make departures leave from the same track at the same time, in which case
+   *     nothing is changed
+   */
+  public int addDelay(DepartureFilter filter, int minutes) throws IllegalArgumentException {
+    return changeDepartures(
+        filter,
+        td -> td.setDelayAndDelayTime(addMinutes(td.getDelay(), minutes)),
+        DepartureEventType.DELAY_CHANGED);
   }
 
-  /** Checks if two departures have the same departure time from the same track. */
-  public void checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(TrainDeparture td) {
-    if (allTrainDepartures.contains(td)) {
+  /**
+   * Adds minutes to a delay.
+   *
+   * @param delay the delay in minutes
+   * @param minutes the minutes to add
+   * @return the new delay in minutes
+   * @throws IllegalArgumentException if the new delay is too large to be stored
+   */
+  private static int addMinutes(int delay, int minutes) throws IllegalArgumentException {
+    try {
+      return Math.addExact(delay, minutes);
+    } catch (ArithmeticException e) {
       throw new IllegalArgumentException(
-          "There already exists a departure departing from "
-              + td.getTrack()
-              + " at the same time. Please try again.");
+          "Adding " + minutes + " minutes to a delay of " + delay + " minutes is too large.", e);
+    }
+  }
+
+  /**
+   * Moves every departure selected by the filter to the same track, for example every departure on
+   * track 3 after 14:00 to track 5.
+   *
+   * @param filter the filter selecting the departures
+   * @param trackNum the track number
+   * @return the number of departures changed
+   * @throws IllegalArgumentException if the track number is not valid, or if departures would leave
+   *     from the same track at the same time, in which case nothing is changed
+   */
+  public int assignTrack(DepartureFilter filter, int trackNum) throws IllegalArgumentException {
+    ParameterValidation.validateTrack(trackNum);
+    return changeDepartures(
+        filter, td -> td.setTrack(trackNum), DepartureEventType.TRACK_CHANGED);
+  }
+
+  /**
+   * Checks if two departures have the same departure time from the same track. Departures without
+   * a track never collide.
+   *
+   * @param td the departure to check against the register
+   * @throws IllegalArgumentException if a departure in the register leaves from the same track at
+   *     the same time
+   */
+  public void checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(TrainDeparture td)
+      throws IllegalArgumentException {
+    if (trackOccupancy.isOccupied(td.getTrack(), td.getDelayedTime())) {
+      throw trackIsTaken(td.getTrack());
     }
   }
 
@@ -258,21 +1251,79 @@ public class TrainDepartureRegister {
    */
   public void removeTrainDepartureBasedOnId(int departureId) throws IllegalArgumentException {
     ParameterValidation.validateId(departureId);
-    allTrainDepartures.removeIf(td -> td.getDepartureId() == departureId);
+    ReentrantLock lock = lockFor(departureId);
+    lock.lock();
+    try {
+      TrainDeparture removed = departuresById.get(departureId);
+      if (removed != null) {
+        removeFromIndexes(removed);
+        publish(DepartureEventType.REMOVED, removed, null);
+      }
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
-   * Removes the train departures that left the station before the system time.
+   * Removes the train departures that left the station before the system time. Only the minutes
+   * of the timing wheel before the time are read, so departures that have not left are never
+   * looked at.
    *
    * @param theTime the time to check if the train departure is before
    */
   public void removeTrainDepartureBeforeTime(LocalTime theTime) throws NullPointerException {
     ParameterValidation.validateTime(theTime);
-    if (!allTrainDepartures.isEmpty()) {
-      allTrainDepartures.removeIf(td -> td.getDelayedTime().isBefore(theTime));
+    for (int departureId : expiryWheel.departuresBefore(theTime)) {
+      removeIfLeftBefore(departureId, theTime);
+    }
+  }
+
+  /**
+   * Removes the departure if it still leaves before the given time once its lock is held, as it
+   * may have been delayed or removed by another thread in the meantime.
+   *
+   * @param departureId the ID of the departure
+   * @param theTime the time to check if the train departure is before
+   */
+  private void removeIfLeftBefore(int departureId, LocalTime theTime) {
+    ReentrantLock lock = lockFor(departureId);
+    lock.lock();
+    try {
+      TrainDeparture current = departuresById.get(departureId);
+      if (current != null && current.getDelayedTime().isBefore(theTime)) {
+        removeFromIndexes(current);
+        publish(DepartureEventType.EXPIRED, current, null);
+      }
+    } finally {
+      lock.unlock();
     }
   }
 
+  /**
+   * Subscribes a listener to the changes of the register. The listener receives the changes made
+   * after it subscribed, in batches, on a thread of its own.
+   *
+   * @param listener the listener receiving the events
+   * @return the subscription, which is closed to stop receiving events
+   * @throws NullPointerException if the listener is null
+   */
+  public DepartureSubscription subscribe(DepartureListener listener) throws NullPointerException {
+    DepartureSubscription subscription =
+        new DepartureSubscription(
+            this, Objects.requireNonNull(listener, "The listener cannot be null."));
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * Removes a subscription, so no more events are published to it.
+   *
+   * @param subscription the subscription to remove
+   */
+  void unsubscribe(DepartureSubscription subscription) {
+    subscriptions.remove(subscription);
+  }
+
   /**
    * Collects the train departures in the register as a string.
    *
@@ -280,7 +1331,13 @@ public class TrainDepartureRegister {
    */
   @Override
   public String toString() {
-    ArrayList<TrainDeparture> sortedRegister = sortTheTrainDepartureRegister();
-    return sortedRegister.stream().map(TrainDeparture::toString).collect(Collectors.joining("\n"));
+    StringBuilder board = new StringBuilder();
+    for (TrainDeparture td : departuresByTime.values()) {
+      if (!board.isEmpty()) {
+        board.append('\n');
+      }
+      board.append(td);
+    }
+    return board.toString();
   }
 }
@@ -0,0 +1,301 @@
+package edu.ntnu.stud.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.ntnu.stud.models.TrainDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An embedded HTTP server answering queries on a train departure register with JSON.
+ *
+ * <p>The server answers {@code GET} requests on these paths:
+ *
+ * <ul>
+ *   <li>{@code /departures} gives every departure, ordered by departure time
+ *   <li>{@code /departures?destination=Oslo} gives the departures going to a destination
+ *   <li>{@code /departures/next} gives the departure that actually leaves first
+ *   <li>{@code /departures/ID} gives the departure with the train ID
+ * </ul>
+ *
+ * <p>A departure is written as described in {@link DepartureJson}. A failed request gets a status
+ * code of 400, 404 or 405 and an object with the field {@code error}. Lists of departures are
+ * streamed straight from the register into the response, so a large board is never built in
+ * memory.
+ *
+ * <p>Each request is handled on a virtual thread when the application runs on Java 21 or newer, so
+ * thousands of requests can wait on the network at once. The project is built for Java 17, so the
+ * virtual thread executor is looked up when the server is created, and a pool of platform threads
+ * is used on older versions.
+ *
+ * <p><Strong>Goal: </Strong>Let display boards and other systems query the register over HTTP.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DepartureServer implements Closeable {
+  private static final String PATH = "/departures";
+  private static final String NEXT = "next";
+  private static final String DESTINATION_PARAMETER = "destination=";
+  private static final int BACKLOG = 4096;
+  private static final int RESPONSE_BUFFER_SIZE = 1 << 13;
+
+  private final TrainDepartureRegister register;
+  private final HttpServer server;
+  private final ExecutorService requestExecutor;
+  private final boolean virtualThreads;
+
+  /**
+   * Constructs a server for the register, listening on the address. The server does not answer
+   * requests until it is started.
+   *
+   * @param register the register to query
+   * @param address the address to listen on, where port 0 picks a free port
+   * @throws IOException if the server cannot listen on the address
+   * @throws NullPointerException if the register or address is null
+   */
+  public DepartureServer(TrainDepartureRegister register, InetSocketAddress address)
+      throws IOException, NullPointerException {
+    this.register = Objects.requireNonNull(register, "The register cannot be null.");
+    this.server =
+        HttpServer.create(Objects.requireNonNull(address, "The address cannot be null."), BACKLOG);
+    ExecutorService executor = newVirtualThreadExecutor();
+    this.virtualThreads = executor != null;
+    this.requestExecutor = virtualThreads ? executor : Executors.newCachedThreadPool();
+    server.setExecutor(requestExecutor);
+    server.createContext(PATH, this::handle);
+  }
+
+  /**
+   * Creates an executor that starts a virtual thread for each task, if the Java version running
+   * the application has virtual threads.
+   *
+   * @return the executor, or null if virtual threads are not available
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /** Starts answering requests. */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Retrieves the port the server listens on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Checks whether the requests are handled on virtual threads.
+   *
+   * @return true if the requests are handled on virtual threads, false if on platform threads
+   */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /** Stops the server without waiting for the requests being handled. */
+  @Override
+  public void close() {
+    server.stop(0);
+    requestExecutor.shutdownNow();
+  }
+
+  /**
+   * Answers a request on a path starting with {@code /departures}.
+   *
+   * @param exchange the request and its response
+   * @throws IOException if the response cannot be written
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      try {
+        answer(exchange);
+      } catch (IllegalArgumentException e) {
+        sendError(exchange, 400, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Finds the answer to a request and sends it.
+   *
+   * @param exchange the request and its response
+   * @throws IOException if the response cannot be written
+   * @throws IllegalArgumentException if the request asks for a destination that is not valid
+   */
+  private void answer(HttpExchange exchange) throws IOException, IllegalArgumentException {
+    if (!exchange.getRequestMethod().equals("GET")) {
+      exchange.getResponseHeaders().set("Allow", "GET");
+      sendError(exchange, 405, "Only GET requests are answered.");
+      return;
+    }
+    String path = exchange.getRequestURI().getPath();
+    String rest = path.length() > PATH.length() + 1 ? path.substring(PATH.length() + 1) : "";
+    if (path.equals(PATH) || path.equals(PATH + "/")) {
+      String destination = destinationParameter(exchange.getRequestURI().getRawQuery());
+      sendDepartures(
+          exchange,
+          destination == null
+              ? register.getTrainDepartures()
+              : register.getTrainDeparturesBasedOnDestination(destination));
+    } else if (path.charAt(PATH.length()) != '/' || rest.indexOf('/') >= 0) {
+      sendError(exchange, 404, "There is nothing at " + path + ".");
+    } else if (rest.equals(NEXT)) {
+      sendDeparture(exchange, register.getNextDeparture(), "There are no more departures.");
+    } else {
+      int departureId = parseId(rest);
+      if (departureId < 1) {
+        sendError(exchange, 400, "The train ID must be a whole number greater than 0.");
+      } else {
+        sendDeparture(
+            exchange,
+            register.getTrainDepartureBasedOnId(departureId),
+            "There is no departure with the train ID " + departureId + ".");
+      }
+    }
+  }
+
+  /**
+   * Finds the destination in the query of the request.
+   *
+   * @param rawQuery the query, still URL-encoded, or null if there is none
+   * @return the decoded destination, or null if the query has none
+   * @throws IllegalArgumentException if the destination is not correctly encoded
+   */
+  private static String destinationParameter(String rawQuery) throws IllegalArgumentException {
+    if (rawQuery == null) {
+      return null;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      if (parameter.startsWith(DESTINATION_PARAMETER)) {
+        return URLDecoder.decode(
+            parameter.substring(DESTINATION_PARAMETER.length()), StandardCharsets.UTF_8);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads a train ID from the path, digit by digit.
+   *
+   * @param s the part of the path after {@code /departures/}
+   * @return the train ID, or -1 if it is not a whole number
+   */
+  private static int parseId(String s) {
+    if (s.isEmpty() || s.length() > 9) {
+      return -1;
+    }
+    int departureId = 0;
+    for (int i = 0; i < s.length(); i++) {
+      int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      departureId = departureId * 10 + digit;
+    }
+    return departureId;
+  }
+
+  /**
+   * Sends one departure, or an error if there is none.
+   *
+   * @param exchange the request and its response
+   * @param td the departure, or null if none was found
+   * @param notFound the error message if no departure was found
+   * @throws IOException if the response cannot be written
+   */
+  private static void sendDeparture(HttpExchange exchange, TrainDeparture td, String notFound)
+      throws IOException {
+    if (td == null) {
+      sendError(exchange, 404, notFound);
+      return;
+    }
+    StringBuilder json = new StringBuilder(192);
+    DepartureJson.writeDeparture(json, td);
+    send(exchange, 200, json);
+  }
+
+  /**
+   * Streams a list of departures as a JSON array, using chunked transfer encoding.
+   *
+   * @param exchange the request and its response
+   * @param departures the departures, in the order they are sent
+   * @throws IOException if the response cannot be written
+   */
+  private static void sendDepartures(HttpExchange exchange, Iterable<TrainDeparture> departures)
+      throws IOException {
+    setJsonContentType(exchange);
+    exchange.sendResponseHeaders(200, 0);
+    try (Writer out =
+        new BufferedWriter(
+            new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8),
+            RESPONSE_BUFFER_SIZE)) {
+      DepartureJson.writeDepartures(out, departures);
+    }
+  }
+
+  /**
+   * Sends an error as a JSON object.
+   *
+   * @param exchange the request and its response
+   * @param status the HTTP status code
+   * @param message the error message
+   * @throws IOException if the response cannot be written
+   */
+  private static void sendError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    StringBuilder json = new StringBuilder(64 + message.length());
+    DepartureJson.writeError(json, message);
+    send(exchange, status, json);
+  }
+
+  /**
+   * Sends a JSON response of known length.
+   *
+   * @param exchange the request and its response
+   * @param status the HTTP status code
+   * @param json the body of the response
+   * @throws IOException if the response cannot be written
+   */
+  private static void send(HttpExchange exchange, int status, CharSequence json)
+      throws IOException {
+    byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+    setJsonContentType(exchange);
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Marks the response as JSON encoded in UTF-8.
+   *
+   * @param exchange the request and its response
+   */
+  private static void setJsonContentType(HttpExchange exchange) {
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+  }
+}
@@ -0,0 +1,362 @@
+package edu.ntnu.stud.userinterface;
+
+import edu.ntnu.stud.io.ImportReport;
+import edu.ntnu.stud.io.TimetableImporter;
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Runs a script of dispatcher commands against a register, without prompts.
+ *
+ * <p>Each line of the script is one command, and empty lines and lines starting with {@code #} are
+ * skipped. The commands are:
+ *
+ * <ul>
+ *   <li>{@code time HH:MM} sets the system time, which cannot go back
+ *   <li>{@code add HH:MM LINE ID DELAY TRACK DESTINATION} adds a departure, with track -1 for no
+ *       track and the rest of the line as the destination
+ *   <li>{@code remove ID} removes a departure
+ *   <li>{@code delay ID MINUTES} assigns a delay
+ *   <li>{@code track ID TRACK} assigns a track
+ *   <li>{@code find ID} writes the row of a departure
+ *   <li>{@code destination DESTINATION} writes the departures going to a destination
+ *   <li>{@code overview} removes the departures that have left and writes the board
+ *   <li>{@code import FILE} imports a CSV timetable file
+ *   <li>{@code quit} stops the script
+ * </ul>
+ *
+ * <p>A command that fails is reported as {@code Line N: reason} and the script goes on. Nothing is
+ * written for a command that succeeds without output, and all the output goes to one buffered
+ * writer, so a session of many thousand commands can be replayed and timed.
+ *
+ * <p><Strong>Goal: </Strong>Drive the train dispatch application from a script or a pipe.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class BatchCommandRunner {
+  private final TrainDepartureRegister register;
+  private final Appendable out;
+  private LocalTime systemTime;
+  private int numberOfErrors;
+
+  /**
+   * Constructs a runner changing the register and writing to the output.
+   *
+   * @param register the register the commands are applied to
+   * @param out the output, for example a buffered writer, which the runner never flushes
+   * @throws NullPointerException if the register or output is null
+   */
+  public BatchCommandRunner(TrainDepartureRegister register, Appendable out)
+      throws NullPointerException {
+    this(register, out, LocalTime.MIDNIGHT);
+  }
+
+  /**
+   * Constructs a runner changing the register and writing to the output, starting at a system
+   * time other than midnight.
+   *
+   * @param register the register the commands are applied to
+   * @param out the output, for example a buffered writer, which the runner never flushes
+   * @param systemTime the system time before the first command
+   * @throws NullPointerException if the register, output or system time is null
+   */
+  public BatchCommandRunner(TrainDepartureRegister register, Appendable out, LocalTime systemTime)
+      throws NullPointerException {
+    this.register = Objects.requireNonNull(register, "The register cannot be null.");
+    this.out = Objects.requireNonNull(out, "The output cannot be null.");
+    this.systemTime = Objects.requireNonNull(systemTime, "The system time cannot be null.");
+  }
+
+  /**
+   * Runs every command of the script, until its end or a {@code quit} command.
+   *
+   * @param commands the script, read as UTF-8
+   * @return the number of commands run, including those that failed
+   * @throws IOException if the script cannot be read or the output cannot be written
+   * @throws NullPointerException if the script is null
+   */
+  public int run(InputStream commands) throws IOException, NullPointerException {
+    CommandTokenizer tokens =
+        new CommandTokenizer(Objects.requireNonNull(commands, "The script cannot be null."));
+    int numberOfCommands = 0;
+    while (tokens.nextLine()) {
+      String command = tokens.next();
+      numberOfCommands++;
+      if (command.equals("quit")) {
+        break;
+      }
+      String error;
+      try {
+        error = runCommand(command, tokens);
+      } catch (IllegalArgumentException | NullPointerException | DateTimeException e) {
+        error = e.getMessage();
+      }
+      if (error != null) {
+        numberOfErrors++;
+        out.append("Line ")
+            .append(String.valueOf(tokens.getLineNumber()))
+            .append(": ")
+            .append(error)
+            .append('\n');
+      }
+    }
+    return numberOfCommands;
+  }
+
+  /**
+   * Retrieves the system time, as set by the last {@code time} command.
+   *
+   * @return the system time
+   */
+  public LocalTime getSystemTime() {
+    return systemTime;
+  }
+
+  /**
+   * Retrieves the number of commands that have failed.
+   *
+   * @return the number of failed commands
+   */
+  public int getNumberOfErrors() {
+    return numberOfErrors;
+  }
+
+  /**
+   * Runs one command. Mistakes in the command itself are returned instead of thrown, while the
+   * register still throws for values it does not accept.
+   *
+   * @param command the first word of the line
+   * @param tokens the tokenizer, positioned after the first word
+   * @return the reason the command failed, or null if it succeeded
+   * @throws IOException if the output cannot be written
+   */
+  private String runCommand(String command, CommandTokenizer tokens) throws IOException {
+    return switch (command) {
+      case "time" -> setTime(tokens);
+      case "add" -> add(tokens);
+      case "remove" -> remove(tokens);
+      case "delay" -> delay(tokens);
+      case "track" -> track(tokens);
+      case "find" -> find(tokens);
+      case "destination" -> destination(tokens);
+      case "overview" -> overview();
+      case "import" -> importTimetable(tokens);
+      default -> "Unknown command " + command + ".";
+    };
+  }
+
+  /**
+   * Sets the system time.
+   *
+   * @param tokens the tokenizer, positioned at the time
+   * @return the reason the command failed, or null if it succeeded
+   */
+  private String setTime(CommandTokenizer tokens) {
+    int minuteOfDay = tokens.nextTime();
+    if (minuteOfDay == CommandTokenizer.NOT_A_NUMBER) {
+      return "The time must be written as HH:MM.";
+    }
+    LocalTime time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    if (time.isBefore(systemTime)) {
+      return "The new time cannot be before the current time. It is currently " + systemTime + ".";
+    }
+    systemTime = time;
+    return null;
+  }
+
+  /**
+   * Adds a departure.
+   *
+   * @param tokens the tokenizer, positioned at the departure time
+   * @return the reason the command failed, or null if it succeeded
+   */
+  private String add(CommandTokenizer tokens) {
+    int minuteOfDay = tokens.nextTime();
+    String trainLine = tokens.next();
+    int departureId = tokens.nextInt();
+    int delay = tokens.nextInt();
+    int track = tokens.nextInt();
+    String destination = tokens.rest();
+    if (minuteOfDay == CommandTokenizer.NOT_A_NUMBER
+        || departureId == CommandTokenizer.NOT_A_NUMBER
+        || delay == CommandTokenizer.NOT_A_NUMBER
+        || track == CommandTokenizer.NOT_A_NUMBER
+        || destination == null) {
+      return "Expected add HH:MM LINE ID DELAY TRACK DESTINATION.";
+    }
+    register.addTrainDeparture(
+        minuteOfDay / 60, minuteOfDay % 60, trainLine, departureId, destination, delay, track);
+    return null;
+  }
+
+  /**
+   * Removes a departure.
+   *
+   * @param tokens the tokenizer, positioned at the train ID
+   * @return the reason the command failed, or null if it succeeded
+   */
+  private String remove(CommandTokenizer tokens) {
+    int departureId = tokens.nextInt();
+    String error = checkDepartureExists(departureId, "remove ID");
+    if (error == null) {
+      register.removeTrainDepartureBasedOnId(departureId);
+    }
+    return error;
+  }
+
+  /**
+   * Assigns a delay to a departure.
+   *
+   * @param tokens the tokenizer, positioned at the train ID
+   * @return the reason the command failed, or null if it succeeded
+   */
+  private String delay(CommandTokenizer tokens) {
+    int departureId = tokens.nextInt();
+    int delay = tokens.nextInt();
+    String error = checkDepartureExists(departureId, "delay ID MINUTES");
+    if (error == null && delay == CommandTokenizer.NOT_A_NUMBER) {
+      error = "Expected delay ID MINUTES.";
+    }
+    if (error == null) {
+      register.assignDelay(departureId, delay);
+    }
+    return error;
+  }
+
+  /**
+   * Assigns a track to a departure.
+   *
+   * @param tokens the tokenizer, positioned at the train ID
+   * @return the reason the command failed, or null if it succeeded
+   */
+  private String track(CommandTokenizer tokens) {
+    int departureId = tokens.nextInt();
+    int track = tokens.nextInt();
+    String error = checkDepartureExists(departureId, "track ID TRACK");
+    if (error == null && track == CommandTokenizer.NOT_A_NUMBER) {
+      error = "Expected track ID TRACK.";
+    }
+    if (error == null) {
+      register.assignTrack(departureId, track);
+    }
+    return error;
+  }
+
+  /**
+   * Writes the row of a departure.
+   *
+   * @param tokens the tokenizer, positioned at the train ID
+   * @return the reason the command failed, or null if it succeeded
+   * @throws IOException if the output cannot be written
+   */
+  private String find(CommandTokenizer tokens) throws IOException {
+    int departureId = tokens.nextInt();
+    String error = checkDepartureExists(departureId, "find ID");
+    if (error == null) {
+      out.append(UserInterface.HEADER).append('\n');
+      out.append(register.getTrainDepartureBasedOnId(departureId).toString()).append('\n');
+    }
+    return error;
+  }
+
+  /**
+   * Checks that the train ID was read and belongs to a departure in the register.
+   *
+   * @param departureId the train ID read from the line
+   * @param usage the form of the command, used in the error message
+   * @return the reason the command failed, or null if the departure exists
+   */
+  private String checkDepartureExists(int departureId, String usage) {
+    if (departureId == CommandTokenizer.NOT_A_NUMBER) {
+      return "Expected " + usage + ".";
+    }
+    if (!register.doesDepartureIdExist(departureId)) {
+      return "There is no departure with the train ID " + departureId + ".";
+    }
+    return null;
+  }
+
+  /**
+   * Writes the departures going to a destination.
+   *
+   * @param tokens the tokenizer, positioned at the destination
+   * @return the reason the command failed, or null if it succeeded
+   * @throws IOException if the output cannot be written
+   */
+  private String destination(CommandTokenizer tokens) throws IOException {
+    String destination = tokens.rest();
+    if (destination == null) {
+      return "Expected destination DESTINATION.";
+    }
+    out.append(UserInterface.HEADER).append('\n');
+    register.writeTrainDeparturesBasedOnDestinationTo(out, destination);
+    return null;
+  }
+
+  /**
+   * Removes the departures that have left and writes the board, in the same form as the overview
+   * of the interactive menu.
+   *
+   * @return null, as the command cannot fail
+   * @throws IOException if the output cannot be written
+   */
+  private String overview() throws IOException {
+    register.removeTrainDepartureBeforeTime(systemTime);
+    long timeTilNextDeparture = register.getTimeTilNextDeparture(systemTime);
+    if (timeTilNextDeparture == -1) {
+      out.append("There are no more departures today.\n");
+      return null;
+    }
+    out.append("Time: ")
+        .append(systemTime.toString())
+        .append("  | Next Departure in ")
+        .append(String.valueOf(timeTilNextDeparture / 60))
+        .append(" hours and ")
+        .append(String.valueOf(timeTilNextDeparture % 60))
+        .append(" minutes.\n");
+    out.append(UserInterface.HEADER).append('\n');
+    register.writeTo(out);
+    out.append(UserInterface.SEPARATOR)
+        .append('\n')
+        .append("IQR between ")
+        .append(register.findInterQuartileRange())
+        .append(" | Total Number of Departures: ")
+        .append(String.valueOf(register.getNumberOfTrainDepartures()))
+        .append('\n');
+    return null;
+  }
+
+  /**
+   * Imports a CSV timetable file, writing every rejected row and the report.
+   *
+   * @param tokens the tokenizer, positioned at the path of the file
+   * @return the reason the command failed, or null if it succeeded
+   * @throws IOException if the output cannot be written
+   */
+  private String importTimetable(CommandTokenizer tokens) throws IOException {
+    String file = tokens.rest();
+    if (file == null) {
+      return "Expected import FILE.";
+    }
+    ImportReport report;
+    try {
+      report = new TimetableImporter(register).importTimetable(Path.of(file));
+    } catch (IOException | InvalidPathException e) {
+      return "The timetable could not be read: " + e.getMessage();
+    }
+    for (RejectedDeparture rejected : report.getRejectedRows()) {
+      out.append(rejected.toString()).append('\n');
+    }
+    out.append(report.toString()).append('\n');
+    return null;
+  }
+}
@@ -0,0 +1,264 @@
+package edu.ntnu.stud.userinterface;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a stream of commands into lines and words, reading straight from the bytes of the stream.
+ *
+ * <p>The stream is read in large blocks, and each line is split into words separated by spaces or
+ * tabs. Numbers are read digit by digit, and a word that is not a number gives {@link
+ * #NOT_A_NUMBER} instead of throwing an exception, so a script with many mistakes is read as fast
+ * as a correct one. Empty lines and lines starting with {@code #} are skipped.
+ *
+ * <p><Strong>Goal: </Strong>Read a long command script without the cost of a {@link
+ * java.util.Scanner}.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class CommandTokenizer {
+  /** Returned by {@link #nextInt()} and {@link #nextTime()} when the word is not valid. */
+  static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+  private static final int BLOCK_SIZE = 1 << 16;
+  private static final int MAX_DIGITS = 9;
+
+  private final InputStream in;
+  private final byte[] block = new byte[BLOCK_SIZE];
+  private int blockPosition;
+  private int blockLimit;
+  private byte[] line = new byte[256];
+  private int lineLength;
+  private int position;
+  private int lineNumber;
+
+  /**
+   * Constructs a tokenizer reading from the stream.
+   *
+   * @param in the stream of commands, read as UTF-8
+   */
+  CommandTokenizer(InputStream in) {
+    this.in = in;
+  }
+
+  /**
+   * Moves to the next line that is not empty or a comment.
+   *
+   * @return true if there is another line, false at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  boolean nextLine() throws IOException {
+    while (readLine()) {
+      skipSpaces();
+      if (position < lineLength && line[position] != '#') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the next line of the stream into the line buffer, without the line break.
+   *
+   * @return true if a line was read, false at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  private boolean readLine() throws IOException {
+    lineLength = 0;
+    position = 0;
+    boolean readAnything = false;
+    while (true) {
+      if (blockPosition == blockLimit) {
+        blockLimit = in.read(block);
+        blockPosition = 0;
+        if (blockLimit <= 0) {
+          blockLimit = 0;
+          if (readAnything) {
+            endLine();
+          }
+          return readAnything;
+        }
+      }
+      readAnything = true;
+      int start = blockPosition;
+      while (blockPosition < blockLimit && block[blockPosition] != '\n') {
+        blockPosition++;
+      }
+      append(start, blockPosition);
+      if (blockPosition < blockLimit) {
+        blockPosition++;
+        endLine();
+        return true;
+      }
+    }
+  }
+
+  /** Ends the line read into the line buffer, leaving out a carriage return at its end. */
+  private void endLine() {
+    if (lineLength > 0 && line[lineLength - 1] == '\r') {
+      lineLength--;
+    }
+    lineNumber++;
+  }
+
+  /**
+   * Adds bytes of the current block to the line buffer.
+   *
+   * @param start the first byte to add
+   * @param end the position after the last byte to add
+   */
+  private void append(int start, int end) {
+    int length = end - start;
+    if (lineLength + length > line.length) {
+      line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+    }
+    System.arraycopy(block, start, line, lineLength, length);
+    lineLength += length;
+  }
+
+  /**
+   * Retrieves the number of the current line, counting every line of the stream from 1.
+   *
+   * @return the line number
+   */
+  int getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Checks whether the current line has more words.
+   *
+   * @return true if there is another word on the line
+   */
+  boolean hasNext() {
+    skipSpaces();
+    return position < lineLength;
+  }
+
+  /**
+   * Reads the next word of the line.
+   *
+   * @return the word, or null if there are no more words on the line
+   */
+  String next() {
+    skipSpaces();
+    if (position == lineLength) {
+      return null;
+    }
+    int start = position;
+    position = wordEnd();
+    return new String(line, start, position - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the rest of the line, without the spaces around it.
+   *
+   * @return the rest of the line, or null if it is empty
+   */
+  String rest() {
+    skipSpaces();
+    int end = lineLength;
+    while (end > position && isSpace(line[end - 1])) {
+      end--;
+    }
+    if (end == position) {
+      return null;
+    }
+    String rest = new String(line, position, end - position, StandardCharsets.UTF_8);
+    position = lineLength;
+    return rest;
+  }
+
+  /**
+   * Reads the next word of the line as a whole number, digit by digit.
+   *
+   * @return the number, or {@link #NOT_A_NUMBER} if the word is missing or not a whole number
+   */
+  int nextInt() {
+    skipSpaces();
+    int end = wordEnd();
+    int number = parseInt(position, end);
+    position = end;
+    return number;
+  }
+
+  /**
+   * Reads the next word of the line as a time written as hours and minutes, such as 09:45.
+   *
+   * @return the time in minutes after midnight, or {@link #NOT_A_NUMBER} if the word is not a time
+   *     of day
+   */
+  int nextTime() {
+    skipSpaces();
+    int end = wordEnd();
+    int colon = position;
+    while (colon < end && line[colon] != ':') {
+      colon++;
+    }
+    int hours = parseInt(position, colon);
+    int minutes = colon < end ? parseInt(colon + 1, end) : NOT_A_NUMBER;
+    position = end;
+    if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+      return NOT_A_NUMBER;
+    }
+    return hours * 60 + minutes;
+  }
+
+  /**
+   * Reads a whole number from the bytes of the line.
+   *
+   * @param start the first byte of the number
+   * @param end the position after the last byte of the number
+   * @return the number, or {@link #NOT_A_NUMBER} if the bytes are not a whole number
+   */
+  private int parseInt(int start, int end) {
+    boolean negative = start < end && line[start] == '-';
+    int digitsStart = negative ? start + 1 : start;
+    if (digitsStart == end || end - digitsStart > MAX_DIGITS) {
+      return NOT_A_NUMBER;
+    }
+    int number = 0;
+    for (int i = digitsStart; i < end; i++) {
+      int digit = line[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return NOT_A_NUMBER;
+      }
+      number = number * 10 + digit;
+    }
+    return negative ? -number : number;
+  }
+
+  /**
+   * Finds the end of the word starting at the current position.
+   *
+   * @return the position after the last byte of the word
+   */
+  private int wordEnd() {
+    int end = position;
+    while (end < lineLength && !isSpace(line[end])) {
+      end++;
+    }
+    return end;
+  }
+
+  /** Moves past the spaces and tabs at the current position. */
+  private void skipSpaces() {
+    while (position < lineLength && isSpace(line[position])) {
+      position++;
+    }
+  }
+
+  /**
+   * Checks whether the byte separates words.
+   *
+   * @param b the byte
+   * @return true if the byte is a space or a tab
+   */
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+}
@@ -0,0 +1,161 @@
+package edu.ntnu.stud.userinterface;
+
+import edu.ntnu.stud.models.TrainDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A departure board drawn at the top of a terminal, which repaints only the lines that changed.
+ *
+ * <p>The board has a fixed number of lines: the time and the countdown to the next departure, the
+ * header of the table, one line for each of the first departures in the register, and the total
+ * at the bottom. The lines that were drawn last are kept, and a repaint builds the new lines and
+ * writes only those that differ, each moved to its place with ANSI cursor addressing and cleared to
+ * the end. A repaint after one delay therefore writes one row and the countdown, however many
+ * departures there are, and a repaint after nothing changed writes nothing at all. The rows are
+ * read from the start of the ordered register and each departure keeps its formatted row, so
+ * building the lines takes time in proportion to the height of the board, not the register.
+ *
+ * <p>The position of the cursor is saved before a repaint and restored after it, so the board can
+ * be repainted from another thread while the user types below it.
+ *
+ * <p><Strong>Goal: </Strong>Keep a departure board on screen up to date without redrawing it.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+final class LiveBoard {
+  private static final String ESCAPE = "\u001b[";
+  private static final String CLEAR_SCREEN = ESCAPE + "H" + ESCAPE + "2J";
+  private static final String CLEAR_TO_END_OF_LINE = ESCAPE + "K";
+  private static final String SAVE_CURSOR = "\u001b7";
+  private static final String RESTORE_CURSOR = "\u001b8";
+  private static final String[] HEADER_LINES = UserInterface.HEADER.split("\n");
+
+  private final TrainDepartureRegister register;
+  private final Appendable out;
+  private final int numberOfRows;
+  private final String[] shown;
+  private final String[] next;
+  private boolean drawn;
+  private LocalTime time = LocalTime.MIDNIGHT;
+
+  /**
+   * Constructs a board for the register that is drawn the first time it is repainted.
+   *
+   * @param register the register shown on the board
+   * @param out the terminal, flushed after every repaint if it can be flushed
+   * @param numberOfRows the number of departures shown on the board
+   * @throws IllegalArgumentException if the number of rows is less than 1
+   * @throws NullPointerException if the register or terminal is null
+   */
+  LiveBoard(TrainDepartureRegister register, Appendable out, int numberOfRows)
+      throws IllegalArgumentException, NullPointerException {
+    if (numberOfRows < 1) {
+      throw new IllegalArgumentException("The board must show at least one departure.");
+    }
+    this.register = Objects.requireNonNull(register, "The register cannot be null.");
+    this.out = Objects.requireNonNull(out, "The terminal cannot be null.");
+    this.numberOfRows = numberOfRows;
+    this.shown = new String[getHeight()];
+    this.next = new String[getHeight()];
+  }
+
+  /**
+   * Retrieves the number of lines the board takes at the top of the terminal.
+   *
+   * @return the height of the board
+   */
+  int getHeight() {
+    return 1 + HEADER_LINES.length + numberOfRows + 2;
+  }
+
+  /** Forgets the lines drawn last, so the next repaint clears the screen and draws every line. */
+  synchronized void reset() {
+    drawn = false;
+    Arrays.fill(shown, null);
+  }
+
+  /**
+   * Sets the time shown on the board and repaints the lines that changed.
+   *
+   * @param time the system time
+   * @return the number of lines written
+   * @throws IOException if the terminal cannot be written to
+   * @throws NullPointerException if the time is null
+   */
+  synchronized int repaint(LocalTime time) throws IOException, NullPointerException {
+    this.time = Objects.requireNonNull(time, "The time cannot be null.");
+    return repaint();
+  }
+
+  /**
+   * Repaints the lines that changed since the last repaint, keeping the time shown.
+   *
+   * @return the number of lines written
+   * @throws IOException if the terminal cannot be written to
+   */
+  synchronized int repaint() throws IOException {
+    buildLines();
+    int written = 0;
+    out.append(SAVE_CURSOR);
+    if (!drawn) {
+      out.append(CLEAR_SCREEN);
+      drawn = true;
+    }
+    for (int line = 0; line < next.length; line++) {
+      if (!next[line].equals(shown[line])) {
+        out.append(ESCAPE)
+            .append(Integer.toString(line + 1))
+            .append(";1H")
+            .append(next[line])
+            .append(CLEAR_TO_END_OF_LINE);
+        shown[line] = next[line];
+        written++;
+      }
+    }
+    out.append(RESTORE_CURSOR);
+    if (out instanceof Flushable flushable) {
+      flushable.flush();
+    }
+    return written;
+  }
+
+  /** Builds the lines of the board as it looks now. */
+  private void buildLines() {
+    long timeTilNextDeparture = register.getTimeTilNextDeparture(time);
+    next[0] =
+        timeTilNextDeparture == -1
+            ? "Time: " + time + "  | There are no more departures today."
+            : "Time: "
+                + time
+                + "  | Next Departure in "
+                + timeTilNextDeparture / 60
+                + " hours and "
+                + timeTilNextDeparture % 60
+                + " minutes.";
+    System.arraycopy(HEADER_LINES, 0, next, 1, HEADER_LINES.length);
+    int line = 1 + HEADER_LINES.length;
+    Iterator<TrainDeparture> departures = register.getTrainDepartures().iterator();
+    for (int row = 0; row < numberOfRows; row++) {
+      next[line++] = departures.hasNext() ? departures.next().toString() : "";
+    }
+    int numberOfDepartures = register.getNumberOfTrainDepartures();
+    int hidden = Math.max(0, numberOfDepartures - numberOfRows);
+    next[line++] =
+        hidden == 0
+            ? UserInterface.SEPARATOR
+            : UserInterface.SEPARATOR + " and " + hidden + " more departures";
+    next[line] =
+        "IQR between "
+            + register.findInterQuartileRange()
+            + " | Total Number of Departures: "
+            + numberOfDepartures;
+  }
+}
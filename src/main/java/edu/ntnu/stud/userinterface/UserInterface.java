@@ -1,7 +1,20 @@
 package edu.ntnu.stud.userinterface;
 
+import edu.ntnu.stud.io.ImportReport;
+import edu.ntnu.stud.io.TimetableImporter;
+import edu.ntnu.stud.models.DepartureSubscription;
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.StationRegistry;
 import edu.ntnu.stud.models.TrainDepartureRegister;
 import edu.ntnu.stud.utils.UserInputValidation;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.DateTimeException;
 import java.time.LocalTime;
 import java.util.Scanner;
@@ -14,7 +27,7 @@ import java.util.Scanner;
  *
  * @author 10083
  * @since 0.3
- * @version 1.0.2
+ * @version 1.0.3
  */
 public class UserInterface {
   private static final int QUIT = 0;
@@ -26,19 +39,31 @@ public class UserInterface {
   private static final int ASSIGN_TRACK = 6;
   private static final int UPDATE_DELAY = 7;
   private static final int UPDATE_TIME = 8;
+  private static final int LIVE_BOARD = 9;
+  private static final int LIVE_BOARD_ROWS = 20;
   private static final Scanner input = new Scanner(System.in);
   private static boolean running = true;
   private static LocalTime systemTime = LocalTime.of(0, 0);
-  private static final String SEPARATOR =
+  static final String SEPARATOR =
       "------------------------------------------------------------------------------------";
-  private static final String HEADER =
+  static final String HEADER =
       SEPARATOR
           + "\n"
           + "| Departure  | Train Line | Train ID   | Destination          | Delay Time | Track |"
           + "\n"
           + SEPARATOR;
   private static final String RETURNING_TO_MENU = "Returning to the menu. \n";
-  private static final TrainDepartureRegister kristiansand = new TrainDepartureRegister();
+  private static final StationRegistry stations = new StationRegistry();
+  private static final TrainDepartureRegister kristiansand = stations.addStation("Kristiansand");
+
+  /**
+   * Buffered output for the departure tables. The register writes its rows straight into the
+   * buffer, and the buffer is flushed once per table.
+   */
+  private static final PrintWriter board =
+      new PrintWriter(
+          new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16),
+          false);
 
   /** Private constructor to ensure no construction of objects of this class. */
   private UserInterface() {}
@@ -133,8 +158,9 @@ public class UserInterface {
                     6. Assign a track
                     7. Add delay
                     8. Update Time
+                    9. Live board
                     --------------------------
-                    What would u like to do? (Enter a number between 0 and 8).
+                    What would u like to do? (Enter a number between 0 and 9).
                     """);
     return UserInputValidation.validateIntegerUserInput(input, 5);
   }
@@ -145,6 +171,36 @@ public class UserInterface {
     start();
   }
 
+  /**
+   * Launches the application with the departures of a timetable file instead of the built-in
+   * departures.
+   *
+   * @param timetable the CSV timetable file to import
+   */
+  public static void launch(Path timetable) {
+    importTimetable(timetable);
+    start();
+  }
+
+  /**
+   * Imports the departures of a timetable file and prints how the import went, including every
+   * row that could not be added.
+   *
+   * @param timetable the CSV timetable file to import
+   */
+  private static void importTimetable(Path timetable) {
+    try {
+      ImportReport report = new TimetableImporter(kristiansand).importTimetable(timetable);
+      for (RejectedDeparture rejected : report.getRejectedRows()) {
+        board.append(rejected.toString()).append('\n');
+      }
+      board.append(report.toString()).append("\n\n");
+      board.flush();
+    } catch (IOException e) {
+      System.out.println("The timetable could not be read: " + e.getMessage());
+    }
+  }
+
   /** Initialises the application by adding train departures to it. */
   private static void init() {
     try {
@@ -202,7 +258,8 @@ public class UserInterface {
       case UPDATE_TIME -> updateTime(
           "The new time cannot be before the current time. It is currently " + systemTime + ".",
           RETURNING_TO_MENU);
-      default -> System.out.println("-> Enter a valid number between 0 and 8.");
+      case LIVE_BOARD -> liveBoard();
+      default -> System.out.println("-> Enter a valid number between 0 and 9.");
     }
   }
 
@@ -220,7 +277,9 @@ public class UserInterface {
    * #triggerDesiredAction()}
    *
    * <p>Shows an overview of all the departures at the train station sorted by time. It is formatted
-   * as a table using the {@code HEADER} and {@code SEPARATOR} constants.
+   * as a table using the {@code HEADER} and {@code SEPARATOR} constants. The rows are written
+   * straight from the register into the buffered {@code board} writer, which is flushed once when
+   * the whole table has been written.
    *
    * <p>The register is first updated by removing the departures before the current time. The
    * situation where there are no remaining departures left prints out an appropriate message,
@@ -229,30 +288,38 @@ public class UserInterface {
   private static void departuresOverview() {
     kristiansand.removeTrainDepartureBeforeTime(systemTime);
 
-    if (kristiansand.getTimeTilNextDeparture(systemTime) == -1) {
+    long timeTilNextDeparture = kristiansand.getTimeTilNextDeparture(systemTime);
+    if (timeTilNextDeparture == -1) {
       System.out.println("There are no more departures today. \n");
       return;
     }
     System.out.println("Here is an overview of all the departures: \n");
-    long hours = kristiansand.getTimeTilNextDeparture(systemTime) / 60;
-    long minutes = kristiansand.getTimeTilNextDeparture(systemTime) % 60;
-
-    System.out.println(
-        "Time: "
-            + systemTime
-            + "  | Next Departure in "
-            + hours
-            + " hours and "
-            + minutes
-            + " minutes.");
-
-    System.out.println(HEADER + "\n" + kristiansand + "\n" + SEPARATOR);
-    System.out.println(
-        "IQR between "
-            + kristiansand.findInterQuartileRange()
-            + " | Total Number of Departures: "
-            + kristiansand.getNumberOfTrainDepartures()
-            + "\n");
+    long hours = timeTilNextDeparture / 60;
+    long minutes = timeTilNextDeparture % 60;
+
+    board
+        .append("Time: ")
+        .append(String.valueOf(systemTime))
+        .append("  | Next Departure in ")
+        .append(String.valueOf(hours))
+        .append(" hours and ")
+        .append(String.valueOf(minutes))
+        .append(" minutes.\n");
+    board.append(HEADER).append('\n');
+    try {
+      kristiansand.writeTo(board);
+    } catch (IOException e) {
+      System.out.println(e.getMessage());
+    }
+    board
+        .append(SEPARATOR)
+        .append('\n')
+        .append("IQR between ")
+        .append(kristiansand.findInterQuartileRange())
+        .append(" | Total Number of Departures: ")
+        .append(String.valueOf(kristiansand.getNumberOfTrainDepartures()))
+        .append("\n\n");
+    board.flush();
   }
 
   /**
@@ -441,14 +508,15 @@ public class UserInterface {
       boolean exists = kristiansand.doesDestinationExist(destination);
       if (exists) {
         System.out.println("Here are the departures going to " + destination + ":");
-        String tableContent =
-            kristiansand.returnTrainDeparturesBasedOnDestinationAsString(destination);
-        System.out.println(HEADER + "\n" + tableContent + "\n" + SEPARATOR + "\n");
+        board.append(HEADER).append('\n');
+        kristiansand.writeTrainDeparturesBasedOnDestinationTo(board, destination);
+        board.append(SEPARATOR).append("\n\n");
+        board.flush();
 
       } else {
         System.out.println("There are no departures going to " + destination + ".\n");
       }
-    } catch (IllegalArgumentException e) {
+    } catch (IllegalArgumentException | IOException e) {
       System.out.println(e.getMessage());
       System.out.println(RETURNING_TO_MENU);
     }
@@ -566,4 +634,70 @@ public class UserInterface {
       }
     }
   }
+
+  /**
+   * <strong>Goal: </strong> Target the ninth action of the user interface. Shows a live board of
+   * the first departures at the top of the screen, which stays up to date while the user changes
+   * the register below it.
+   *
+   * <p>Each line typed under the board is run as a command of {@link BatchCommandRunner}, such as
+   * {@code delay 1 15}, {@code track 1 4} or {@code time 14:00}. The board is subscribed to the
+   * changes of the register, so it is repainted as soon as the events of a change arrive, and again
+   * when the time moves and the departures that have left are removed. Only the lines of the board
+   * that changed are written, see {@link LiveBoard}. An empty line returns to the menu.
+   */
+  private static void liveBoard() {
+    LiveBoard live = new LiveBoard(kristiansand, board, LIVE_BOARD_ROWS);
+    StringBuilder messages = new StringBuilder();
+    BatchCommandRunner runner = new BatchCommandRunner(kristiansand, messages, systemTime);
+    DepartureSubscription subscription = kristiansand.subscribe(events -> repaintLiveBoard(live));
+    try {
+      kristiansand.removeTrainDepartureBeforeTime(systemTime);
+      live.repaint(systemTime);
+      input.nextLine();
+      String message = "Type a command such as delay 1 15 or time 14:00, or nothing to leave.";
+      while (true) {
+        synchronized (live) {
+          board
+              .append("\u001b[")
+              .append(String.valueOf(live.getHeight() + 2))
+              .append(";1H\u001b[J")
+              .append(message)
+              .append("\n> ");
+          board.flush();
+        }
+        String command = input.hasNextLine() ? input.nextLine() : "";
+        if (command.isBlank()) {
+          break;
+        }
+        messages.setLength(0);
+        runner.run(new ByteArrayInputStream(command.getBytes(StandardCharsets.UTF_8)));
+        message = messages.isEmpty() ? "" : messages.toString().strip();
+        if (!runner.getSystemTime().equals(systemTime)) {
+          systemTime = runner.getSystemTime();
+          kristiansand.removeTrainDepartureBeforeTime(systemTime);
+          live.repaint(systemTime);
+        }
+      }
+    } catch (IOException e) {
+      System.out.println(e.getMessage());
+    } finally {
+      subscription.close();
+    }
+    System.out.println(RETURNING_TO_MENU);
+  }
+
+  /**
+   * Repaints the live board after a batch of changes to the register.
+   *
+   * @param live the live board
+   */
+  private static void repaintLiveBoard(LiveBoard live) {
+    try {
+      live.repaint();
+    } catch (IOException e) {
+      // The board is repainted in full when the live board is shown again.
+      live.reset();
+    }
+  }
 }
@@ -75,6 +75,34 @@ public class ParameterValidation {
     }
   }
 
+  /**
+   * Validates the page if it is not negative and the page size if it is at least 1.
+   *
+   * @param page the number of the page, starting at 0
+   * @param pageSize the number of rows on each page
+   * @throws IllegalArgumentException if the page is negative or the page size is less than 1
+   */
+  public static void validatePage(int page, int pageSize) throws IllegalArgumentException {
+    if (page < 0) {
+      throw new IllegalArgumentException("The page cannot be negative.");
+    }
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("There must be at least one row on each page.");
+    }
+  }
+
+  /**
+   * Validates the percentile if it is between 0 and 1.
+   *
+   * @param percentile the percentile as a fraction
+   * @throws IllegalArgumentException if the percentile is not between 0 and 1
+   */
+  public static void validatePercentile(double percentile) throws IllegalArgumentException {
+    if (!(percentile >= 0 && percentile <= 1)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 1.");
+    }
+  }
+
   /**
    * Validates the time if it is not null.
    *
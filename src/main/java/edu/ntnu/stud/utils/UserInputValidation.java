@@ -45,7 +45,7 @@ public class UserInputValidation {
       case 2 -> isValid = num > -1;
       case 3 -> isValid = num == -1 || num > 0;
       case 4 -> isValid = num == 1 || num == 0;
-      case 5 -> isValid = num > -1 && num < 9;
+      case 5 -> isValid = num > -1 && num < 10;
       case 6 -> isValid = num > -1 && num < 24;
       default -> isValid = num > -1 && num < 60;
     }
@@ -97,8 +97,8 @@ public class UserInputValidation {
         }
       }
       case 5 -> {
-        if (num < 0 || num > 8) {
-          throw new IllegalArgumentException("The menu option must be between 0 and 8.");
+        if (num < 0 || num > 9) {
+          throw new IllegalArgumentException("The menu option must be between 0 and 9.");
         }
       }
       case 6 -> {
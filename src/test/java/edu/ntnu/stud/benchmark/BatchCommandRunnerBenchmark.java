@@ -0,0 +1,88 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import edu.ntnu.stud.userinterface.BatchCommandRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the batch mode takes to replay a dispatcher session. Half of the session adds
+ * the departures of a generated timetable, and the other half delays, moves, looks up and removes
+ * them. The departures to a destination are written every hundred commands, and the whole board
+ * every thousand commands.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BatchCommandRunnerBenchmark {
+  @Param({"100000"})
+  private int numberOfCommands;
+
+  private byte[] script;
+
+  /** Writes the script of the session. */
+  @Setup
+  public void setUp() {
+    int numberOfDepartures = numberOfCommands / 2;
+    Timetable timetable = new Timetable(numberOfDepartures, 42);
+    StringBuilder session = new StringBuilder();
+    for (int i = 0; i < numberOfDepartures; i++) {
+      timetable.appendAddCommand(i, session);
+    }
+    SplittableRandom random = new SplittableRandom(7);
+    for (int i = 0; i < numberOfCommands - numberOfDepartures; i++) {
+      int departureId = 1 + random.nextInt(numberOfDepartures);
+      if (i % 1000 == 999) {
+        session.append("overview");
+      } else if (i % 100 == 99) {
+        session.append("destination ").append(timetable.destination(departureId - 1));
+      } else {
+        switch (random.nextInt(4)) {
+          case 0 -> session.append("delay ").append(departureId).append(' ').append(i % 30);
+          case 1 -> session.append("track ").append(departureId).append(' ').append(-1);
+          case 2 -> session.append("find ").append(departureId);
+          default -> session.append("remove ").append(departureId);
+        }
+      }
+      session.append('\n');
+    }
+    script = session.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Replays the session against an empty register.
+   *
+   * @return the number of commands that failed, so the work is not removed
+   * @throws IOException never, as nothing is read from or written to a file
+   */
+  @Benchmark
+  public int replaySession() throws IOException {
+    BatchCommandRunner runner =
+        new BatchCommandRunner(new TrainDepartureRegister(), Writer.nullWriter());
+    runner.run(new ByteArrayInputStream(script));
+    return runner.getNumberOfErrors();
+  }
+}
@@ -0,0 +1,178 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import edu.ntnu.stud.server.DepartureServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the latency of the departure server while thousands of requests are in flight at once.
+ *
+ * <p>The server is started on a free local port with a register filled from a generated timetable.
+ * The client keeps a fixed number of requests in flight, and each request asks for a departure by
+ * ID, the next departure or the departures to a destination. The time from sending a request to
+ * having read its whole response is recorded, and the 50th and 99th percentiles are printed along
+ * with the throughput. The first round warms the server and client up and is not reported.
+ *
+ * <p>Run it with: {@code mvn -o -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=edu.ntnu.stud.benchmark.DepartureServerLoadTest
+ * -Dbenchmark.args="REQUESTS CONCURRENCY DEPARTURES"}, where every argument may be left out.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class DepartureServerLoadTest {
+  private static final int DEFAULT_REQUESTS = 50_000;
+  private static final int DEFAULT_CONCURRENCY = 2_000;
+  private static final int DEFAULT_DEPARTURES = 10_000;
+
+  /** Private constructor to ensure no construction of objects of this class. */
+  private DepartureServerLoadTest() {}
+
+  /**
+   * Runs the load test.
+   *
+   * @param args the number of requests, the number of requests in flight and the number of
+   *     departures in the register, each optional
+   * @throws IOException if the server cannot be started
+   * @throws InterruptedException if the load test is interrupted
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int numberOfRequests = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_REQUESTS;
+    int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CONCURRENCY;
+    int numberOfDepartures = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPARTURES;
+
+    Timetable timetable = new Timetable(numberOfDepartures, 42);
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    timetable.addTo(register);
+
+    try (DepartureServer server =
+        new DepartureServer(register, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+      server.start();
+      System.out.println(
+          "Serving "
+              + numberOfDepartures
+              + " departures on "
+              + (server.usesVirtualThreads() ? "virtual" : "platform")
+              + " threads.");
+      String base = "http://localhost:" + server.getPort() + "/departures";
+      HttpClient client =
+          HttpClient.newBuilder()
+              .version(HttpClient.Version.HTTP_1_1)
+              .connectTimeout(Duration.ofSeconds(30))
+              .build();
+      URI[] uris = requestMix(base, timetable, numberOfRequests);
+
+      run(client, uris, concurrency, false);
+      run(client, uris, concurrency, true);
+    }
+  }
+
+  /**
+   * Draws the requests sent by the load test: seven in ten by ID, two in ten for the next
+   * departure and one in ten for a destination.
+   *
+   * @param base the address of the departures on the server
+   * @param timetable the timetable the register was filled from
+   * @param numberOfRequests the number of requests
+   * @return the addresses to request
+   */
+  private static URI[] requestMix(String base, Timetable timetable, int numberOfRequests) {
+    SplittableRandom random = new SplittableRandom(7);
+    URI[] uris = new URI[numberOfRequests];
+    for (int i = 0; i < numberOfRequests; i++) {
+      int kind = random.nextInt(10);
+      int departureId = 1 + random.nextInt(timetable.size());
+      if (kind < 7) {
+        uris[i] = URI.create(base + "/" + departureId);
+      } else if (kind < 9) {
+        uris[i] = URI.create(base + "/next");
+      } else {
+        String destination = timetable.destination(departureId - 1);
+        uris[i] =
+            URI.create(
+                base + "?destination=" + URLEncoder.encode(destination, StandardCharsets.UTF_8));
+      }
+    }
+    return uris;
+  }
+
+  /**
+   * Sends every request, keeping at most the given number in flight, and records their latency.
+   *
+   * @param client the client sending the requests
+   * @param uris the addresses to request
+   * @param concurrency the largest number of requests in flight at once
+   * @param report whether to print the results
+   * @throws InterruptedException if the round is interrupted
+   */
+  private static void run(HttpClient client, URI[] uris, int concurrency, boolean report)
+      throws InterruptedException {
+    long[] latencies = new long[uris.length];
+    Semaphore inFlight = new Semaphore(concurrency);
+    AtomicInteger failures = new AtomicInteger();
+    CompletableFuture<?>[] responses = new CompletableFuture<?>[uris.length];
+    long start = System.nanoTime();
+    for (int i = 0; i < uris.length; i++) {
+      inFlight.acquire();
+      int request = i;
+      long sent = System.nanoTime();
+      responses[i] =
+          client
+              .sendAsync(
+                  HttpRequest.newBuilder(uris[i]).GET().build(),
+                  HttpResponse.BodyHandlers.ofByteArray())
+              .whenComplete(
+                  (response, failure) -> {
+                    latencies[request] = System.nanoTime() - sent;
+                    if (failure != null || response.statusCode() >= 500) {
+                      failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                  });
+    }
+    CompletableFuture.allOf(responses).exceptionally(failure -> null).join();
+    long elapsed = System.nanoTime() - start;
+    if (!report) {
+      return;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%d requests, %d in flight: p50 %.2f ms, p99 %.2f ms, max %.2f ms, %.0f requests/s,"
+            + " %d failed%n",
+        uris.length,
+        concurrency,
+        percentile(latencies, 0.50) / 1e6,
+        percentile(latencies, 0.99) / 1e6,
+        latencies[latencies.length - 1] / 1e6,
+        uris.length / (elapsed / 1e9),
+        failures.get());
+  }
+
+  /**
+   * Reads a percentile from sorted latencies.
+   *
+   * @param sortedLatencies the latencies in nanoseconds, sorted from shortest to longest
+   * @param fraction the percentile as a fraction, such as 0.99
+   * @return the latency at the percentile in nanoseconds
+   */
+  private static long percentile(long[] sortedLatencies, double fraction) {
+    int index = (int) Math.ceil(fraction * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(0, index)];
+  }
+}
@@ -0,0 +1,74 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.models.CompactTrainDepartureRegister;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+
+/**
+ * Measures the heap used per departure by the register and by the compact register, filled with
+ * the same generated timetable.
+ *
+ * <p>The heap in use is read after asking the JVM to collect garbage, before and after each
+ * register is filled, so the difference is what the register keeps. The figures are estimates:
+ * they depend on the garbage collector, and are meaningless if explicit collections are disabled
+ * with {@code -XX:+DisableExplicitGC}.
+ *
+ * <p>Run it with: {@code mvn -o -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=edu.ntnu.stud.benchmark.RegisterFootprint -Dbenchmark.args="DEPARTURES"},
+ * where the number of departures may be left out.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class RegisterFootprint {
+  private static final int DEFAULT_DEPARTURES = 100_000;
+
+  /** Private constructor to ensure no construction of objects of this class. */
+  private RegisterFootprint() {}
+
+  /**
+   * Measures the heap in use after asking the JVM to collect garbage.
+   *
+   * @return the bytes in use on the heap
+   */
+  private static long usedHeapAfterGc() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Fills both registers and prints the heap each of them uses per departure.
+   *
+   * @param args the number of departures, optional
+   */
+  public static void main(String[] args) {
+    int numberOfDepartures = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPARTURES;
+    Timetable timetable = new Timetable(numberOfDepartures, 42);
+
+    long before = usedHeapAfterGc();
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    timetable.addTo(register);
+    long registerBytes = usedHeapAfterGc() - before;
+    Reference.reachabilityFence(register);
+
+    before = usedHeapAfterGc();
+    CompactTrainDepartureRegister compact = new CompactTrainDepartureRegister();
+    timetable.addTo(compact);
+    long compactBytes = usedHeapAfterGc() - before;
+    Reference.reachabilityFence(compact);
+
+    System.out.println(
+        "Heap used per departure for "
+            + numberOfDepartures
+            + " departures: register "
+            + registerBytes / numberOfDepartures
+            + " bytes, compact register "
+            + compactBytes / numberOfDepartures
+            + " bytes");
+  }
+}
@@ -0,0 +1,111 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.io.PersistentTrainDepartureRegister;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time it takes to open a persistent register again, by reading its snapshot and
+ * replaying the changes logged after it.
+ *
+ * <p>The register is filled with a generated timetable in a temporary directory, a checkpoint
+ * writes the snapshot, and a number of delays are logged after it. The register is then opened a
+ * few times to warm up, and the time of each following opening is printed. The temporary
+ * directory is deleted afterwards.
+ *
+ * <p>Run it with: {@code mvn -o -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=edu.ntnu.stud.benchmark.RegisterRecovery
+ * -Dbenchmark.args="DEPARTURES CHANGES"}, where every argument may be left out.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.3
+ */
+public final class RegisterRecovery {
+  private static final int DEFAULT_DEPARTURES = 100_000;
+  private static final int DEFAULT_CHANGES = 1000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  /** Private constructor to ensure no construction of objects of this class. */
+  private RegisterRecovery() {}
+
+  /**
+   * Stores a register with a snapshot and a log in the directory.
+   *
+   * @param directory the directory to store the register in
+   * @param numberOfDepartures the number of departures in the snapshot
+   * @param numberOfChanges the number of delays logged after the snapshot
+   * @throws IOException if the register cannot be written
+   */
+  private static void store(Path directory, int numberOfDepartures, int numberOfChanges)
+      throws IOException {
+    try (PersistentTrainDepartureRegister stored =
+        PersistentTrainDepartureRegister.open(directory)) {
+      // Added straight to the register, as the checkpoint below stores them.
+      new Timetable(numberOfDepartures, 42).addTo(stored.getRegister());
+      stored.checkpoint();
+      int logged = 0;
+      for (int i = 0; logged < numberOfChanges; i++) {
+        try {
+          stored.assignDelay(i % numberOfDepartures + 1, i % 30);
+          logged++;
+        } catch (IllegalArgumentException e) {
+          // The delay moves the departure onto a taken track, so it is not logged.
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens the register stored in the directory and closes it again.
+   *
+   * @param directory the directory holding the register
+   * @return the time it took to open the register, in milliseconds
+   * @throws IOException if the register cannot be read
+   */
+  private static double openMillis(Path directory) throws IOException {
+    long started = System.nanoTime();
+    try (PersistentTrainDepartureRegister stored =
+        PersistentTrainDepartureRegister.open(directory)) {
+      long elapsed = System.nanoTime() - started;
+      if (stored.getRegister().getNumberOfTrainDepartures() == 0) {
+        throw new IllegalStateException("The register was not recovered.");
+      }
+      return elapsed / 1e6;
+    }
+  }
+
+  /**
+   * Stores a register, and prints the time it takes to open it again.
+   *
+   * @param args the number of departures and the number of logged changes, both optional
+   * @throws IOException if the register cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    int numberOfDepartures = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPARTURES;
+    int numberOfChanges = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHANGES;
+    Path directory = Files.createTempDirectory("register-recovery");
+    try {
+      store(directory, numberOfDepartures, numberOfChanges);
+      for (int round = 0; round < WARMUP_ROUNDS; round++) {
+        openMillis(directory);
+      }
+      for (int round = 1; round <= MEASURED_ROUNDS; round++) {
+        System.out.printf(
+            "Opened %d departures and %d logged changes in %.1f ms (round %d)%n",
+            numberOfDepartures, numberOfChanges, openMillis(directory), round);
+      }
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.models.CompactTrainDepartureRegister;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a timetable of train departures that looks like the one of a large station, used to
+ * fill the registers in the benchmarks.
+ *
+ * <p>The destinations and train lines are drawn from Zipf distributions, so a few destinations and
+ * lines have most of the departures, like the lines to Oslo and Bergen at a real station. Most
+ * departures leave in the morning and afternoon rush hours, most trains are on time and the delays
+ * of the others are short. A track is given to a departure only if it is free at the minute the
+ * departure leaves; the rest have no track, since a station of 15 tracks cannot hold a million
+ * departures a day.
+ *
+ * <p>The same size and seed always give the same timetable.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+final class Timetable {
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int NUMBER_OF_TRACKS = 15;
+
+  /** The destinations, from the most to the least popular. */
+  static final String[] DESTINATIONS = {
+    "Oslo", "Bergen", "Trondheim", "Stavanger", "Drammen", "Lillehammer", "Kristiansand",
+    "Hamar", "Bodø", "Fredrikstad", "Skien", "Moss", "Halden", "Gjøvik", "Larvik", "Tønsberg",
+    "Arendal", "Sandefjord", "Kongsberg", "Ski", "Asker", "Lillestrøm", "Gardermoen", "Voss",
+    "Myrdal", "Finse", "Geilo", "Gol", "Dombås", "Otta", "Røros", "Steinkjer", "Mo i Rana",
+    "Fauske", "Narvik", "Egersund", "Sandnes", "Eidsvoll", "Kongsvinger", "Elverum"
+  };
+
+  /** The train lines, from the most to the least used. */
+  static final String[] TRAIN_LINES = {
+    "L1", "R10", "L2", "R11", "F1", "R12", "L12", "R13", "F2", "R14", "L13", "R20", "F3", "R21",
+    "L14", "R22", "F4", "R23", "F5", "F6"
+  };
+
+  private final int[] hours;
+  private final int[] minutes;
+  private final String[] trainLines;
+  private final int[] departureIds;
+  private final String[] destinations;
+  private final int[] delays;
+  private final int[] tracks;
+
+  /**
+   * Generates a timetable with departure IDs from 1 to the size.
+   *
+   * @param size the number of departures
+   * @param seed the seed of the random generator
+   */
+  Timetable(int size, long seed) {
+    hours = new int[size];
+    minutes = new int[size];
+    trainLines = new String[size];
+    departureIds = new int[size];
+    destinations = new String[size];
+    delays = new int[size];
+    tracks = new int[size];
+
+    SplittableRandom random = new SplittableRandom(seed);
+    double[] destinationWeights = zipfWeights(DESTINATIONS.length);
+    double[] lineWeights = zipfWeights(TRAIN_LINES.length);
+    boolean[][] trackTaken = new boolean[NUMBER_OF_TRACKS + 1][MINUTES_PER_DAY];
+    for (int i = 0; i < size; i++) {
+      int minuteOfDay = departureMinute(random);
+      int delay = delay(random);
+      int leaves = (minuteOfDay + delay) % MINUTES_PER_DAY;
+      int track = 1 + random.nextInt(NUMBER_OF_TRACKS);
+      if (trackTaken[track][leaves]) {
+        track = -1;
+      } else {
+        trackTaken[track][leaves] = true;
+      }
+      hours[i] = minuteOfDay / 60;
+      minutes[i] = minuteOfDay % 60;
+      trainLines[i] = TRAIN_LINES[pick(lineWeights, random)];
+      departureIds[i] = i + 1;
+      destinations[i] = DESTINATIONS[pick(destinationWeights, random)];
+      delays[i] = delay;
+      tracks[i] = track;
+    }
+  }
+
+  /**
+   * Computes the cumulative weights of a Zipf distribution with exponent 1.
+   *
+   * @param n the number of values
+   * @return the cumulative weights, ending at 1
+   */
+  private static double[] zipfWeights(int n) {
+    double[] cumulative = new double[n];
+    double sum = 0;
+    for (int rank = 1; rank <= n; rank++) {
+      sum += 1.0 / rank;
+      cumulative[rank - 1] = sum;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= sum;
+    }
+    return cumulative;
+  }
+
+  /**
+   * Picks a value from a distribution given by its cumulative weights.
+   *
+   * @param cumulative the cumulative weights
+   * @param random the random generator
+   * @return the index of the picked value
+   */
+  private static int pick(double[] cumulative, SplittableRandom random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+  }
+
+  /**
+   * Draws a departure minute, with half of the departures in the rush hours 07-09 and 15-17.
+   *
+   * @param random the random generator
+   * @return the minute of the day
+   */
+  private static int departureMinute(SplittableRandom random) {
+    if (random.nextBoolean()) {
+      return random.nextInt(MINUTES_PER_DAY);
+    }
+    int rushHourStart = random.nextBoolean() ? 7 * 60 : 15 * 60;
+    return rushHourStart + random.nextInt(2 * 60);
+  }
+
+  /**
+   * Draws a delay, where four out of five trains are on time and the rest mostly run a few minutes
+   * late.
+   *
+   * @param random the random generator
+   * @return the delay in minutes
+   */
+  private static int delay(SplittableRandom random) {
+    if (random.nextInt(5) != 0) {
+      return 0;
+    }
+    return 1 + (int) (-Math.log(1 - random.nextDouble()) * 5);
+  }
+
+  /**
+   * Finds the number of departures in the timetable.
+   *
+   * @return the number of departures
+   */
+  int size() {
+    return departureIds.length;
+  }
+
+  /**
+   * Finds the destination of the departure at the given position.
+   *
+   * @param i the position in the timetable
+   * @return the destination
+   */
+  String destination(int i) {
+    return destinations[i];
+  }
+
+  /**
+   * Writes the departure at the given position as an {@code add} command of the batch mode.
+   *
+   * @param i the position in the timetable
+   * @param script the script to add the command to
+   */
+  void appendAddCommand(int i, StringBuilder script) {
+    script.append("add ");
+    script.append(hours[i] < 10 ? "0" : "").append(hours[i]).append(':');
+    script.append(minutes[i] < 10 ? "0" : "").append(minutes[i]).append(' ');
+    script.append(trainLines[i]).append(' ').append(departureIds[i]).append(' ');
+    script.append(delays[i]).append(' ').append(tracks[i]).append(' ');
+    script.append(destinations[i]).append('\n');
+  }
+
+  /**
+   * Adds every departure in the timetable to the register.
+   *
+   * @param register the register to fill
+   */
+  void addTo(TrainDepartureRegister register) {
+    for (int i = 0; i < size(); i++) {
+      register.addTrainDeparture(
+          hours[i], minutes[i], trainLines[i], departureIds[i], destinations[i], delays[i],
+          tracks[i]);
+    }
+  }
+
+  /**
+   * Adds every departure in the timetable to the compact register.
+   *
+   * @param register the register to fill
+   */
+  void addTo(CompactTrainDepartureRegister register) {
+    for (int i = 0; i < size(); i++) {
+      register.addTrainDeparture(
+          hours[i], minutes[i], trainLines[i], departureIds[i], destinations[i], delays[i],
+          tracks[i]);
+    }
+  }
+}
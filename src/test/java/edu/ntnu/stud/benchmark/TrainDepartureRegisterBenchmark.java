@@ -0,0 +1,240 @@
+package edu.ntnu.stud.benchmark;
+
+import edu.ntnu.stud.models.DelayAnalytics;
+import edu.ntnu.stud.models.DelayReport;
+import edu.ntnu.stud.models.DepartureTimeType;
+import edu.ntnu.stud.models.TrainDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the operations of the train departure register, on registers filled
+ * with a generated timetable of 1 000 to 1 000 000 departures. Run with {@code -prof gc} to also
+ * get the allocation rate of each operation.
+ *
+ * <p>The departures and destinations used by the operations are drawn up front, so the benchmarks
+ * measure the register and not the random generator.
+ *
+ * @author 10083
+ * @version 1.0
+ * @since 1.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrainDepartureRegisterBenchmark {
+  private static final int NUMBER_OF_QUERIES = 1 << 12;
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int size;
+
+  private final DelayAnalytics analytics = new DelayAnalytics();
+  private TrainDepartureRegister register;
+  private int[] departureIds;
+  private String[] destinations;
+  private int[] delays;
+  private int next;
+
+  /** Fills the register and draws the departures and destinations to query. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Timetable timetable = new Timetable(size, 42);
+    register = new TrainDepartureRegister();
+    timetable.addTo(register);
+
+    SplittableRandom random = new SplittableRandom(7);
+    departureIds = new int[NUMBER_OF_QUERIES];
+    destinations = new String[NUMBER_OF_QUERIES];
+    delays = new int[NUMBER_OF_QUERIES];
+    for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+      int row = random.nextInt(size);
+      departureIds[i] = row + 1;
+      destinations[i] = timetable.destination(row);
+      delays[i] = random.nextInt(5) == 0 ? random.nextInt(30) : 0;
+    }
+  }
+
+  /**
+   * Moves on to the next drawn query.
+   *
+   * @return the position of the query
+   */
+  private int nextQuery() {
+    next = (next + 1) & (NUMBER_OF_QUERIES - 1);
+    return next;
+  }
+
+  /**
+   * Adds a departure and removes it again, so the register keeps its size.
+   *
+   * @return the number of departures while the departure was in the register
+   */
+  @Benchmark
+  public int addAndRemoveDeparture() {
+    int departureId = size + 1;
+    register.addTrainDeparture(nextQuery() % 24, 30, "L1", departureId, "Oslo", 0, -1);
+    int numberOfDepartures = register.getNumberOfTrainDepartures();
+    register.removeTrainDepartureBasedOnId(departureId);
+    return numberOfDepartures;
+  }
+
+  /**
+   * Gives a departure a new delay.
+   *
+   * @return true if the delay was assigned, false if it made the departure collide on its track
+   */
+  @Benchmark
+  public boolean assignDelay() {
+    int query = nextQuery();
+    try {
+      register.assignDelay(departureIds[query], delays[query]);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Looks up a departure by its ID.
+   *
+   * @return the departure
+   */
+  @Benchmark
+  public TrainDeparture getDepartureById() {
+    return register.getTrainDepartureBasedOnId(departureIds[nextQuery()]);
+  }
+
+  /**
+   * Lists the departures to a destination, drawn with the same distribution as the timetable.
+   *
+   * @return the departures to the destination
+   */
+  @Benchmark
+  public String departuresToDestination() {
+    return register.returnTrainDeparturesBasedOnDestinationAsString(destinations[nextQuery()]);
+  }
+
+  /**
+   * Sums the delays of the departures leaving in the hour starting at 14:00, reading the slice of
+   * the ordered register without copying it.
+   *
+   * @return the sum of the delays in the hour
+   */
+  @Benchmark
+  public int departuresInAfternoonHour() {
+    int sum = 0;
+    for (TrainDeparture td :
+        register.getTrainDeparturesBetween(
+            DepartureTimeType.DEPARTURE_TIME, LocalTime.of(14, 0), LocalTime.of(15, 0))) {
+      sum += td.getDelay();
+    }
+    return sum;
+  }
+
+  /**
+   * Reads the delayed time of every departure through the view of the register, which is not a
+   * copy, so with {@code -prof gc} the allocation per operation stays the same for every size.
+   *
+   * @return the sum of the minutes of the delayed times
+   */
+  @Benchmark
+  public long readAllDepartures() {
+    long sum = 0;
+    for (TrainDeparture td : register.getTrainDepartures()) {
+      sum += td.getDelayedTime().getMinute();
+    }
+    return sum;
+  }
+
+  /**
+   * Sums the delays of every departure with a parallel stream, split evenly by the number of
+   * departures at each minute.
+   *
+   * @return the sum of the delays
+   */
+  @Benchmark
+  public long sumDelaysInParallel() {
+    return register.parallelStream().mapToLong(TrainDeparture::getDelay).sum();
+  }
+
+  /**
+   * Sums the delays of every departure with a parallel stream over the view of the register, which
+   * the skip list splits by its own levels, for comparison.
+   *
+   * @return the sum of the delays
+   */
+  @Benchmark
+  public long sumDelaysInParallelOverView() {
+    return register.getTrainDepartures().parallelStream().mapToLong(TrainDeparture::getDelay).sum();
+  }
+
+  /**
+   * Computes the delay report of every departure, broken down by train line, destination, track and
+   * hour, with the fork-join pool.
+   *
+   * @return the report
+   */
+  @Benchmark
+  public DelayReport analyseDelays() {
+    return analytics.analyse(register);
+  }
+
+  /**
+   * Looks for departures that have left before the first departure of the day, which finds none.
+   */
+  @Benchmark
+  public void removeDeparturesBeforeMidnight() {
+    register.removeTrainDepartureBeforeTime(LocalTime.MIDNIGHT);
+  }
+
+  /**
+   * Finds the interquartile range of the scheduled departure times.
+   *
+   * @return the interquartile range
+   */
+  @Benchmark
+  public String findInterQuartileRange() {
+    return register.findInterQuartileRange();
+  }
+
+  /**
+   * Writes the whole register, row by row, to a writer that discards it.
+   *
+   * @return the number of rows written
+   * @throws IOException never, as the writer discards everything
+   */
+  @Benchmark
+  public int writeRegister() throws IOException {
+    return register.writeTo(Writer.nullWriter());
+  }
+
+  /**
+   * Renders the whole register.
+   *
+   * @return the register as text
+   */
+  @Benchmark
+  public String registerToString() {
+    return register.toString();
+  }
+}
@@ -0,0 +1,122 @@
+package edu.ntnu.stud.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A file channel that writes to a real file, but can be made to fail its next write after
+ * writing half of the bytes, like a disk that fills up in the middle of a write.
+ */
+final class FailingChannel extends FileChannel {
+  private final FileChannel file;
+  boolean failNextWrite;
+
+  /**
+   * Constructs a channel writing to the file.
+   *
+   * @param file the real file channel
+   */
+  FailingChannel(FileChannel file) {
+    this.file = file;
+  }
+
+  @Override
+  public int write(ByteBuffer src) throws IOException {
+    if (failNextWrite) {
+      failNextWrite = false;
+      ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+      src.position(src.position() + file.write(half));
+      throw new IOException("No space left on device");
+    }
+    return file.write(src);
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    return file.read(dst);
+  }
+
+  @Override
+  public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+    return file.read(dsts, offset, length);
+  }
+
+  @Override
+  public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+    return file.write(srcs, offset, length);
+  }
+
+  @Override
+  public long position() throws IOException {
+    return file.position();
+  }
+
+  @Override
+  public FileChannel position(long newPosition) throws IOException {
+    file.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public long size() throws IOException {
+    return file.size();
+  }
+
+  @Override
+  public FileChannel truncate(long size) throws IOException {
+    file.truncate(size);
+    return this;
+  }
+
+  @Override
+  public void force(boolean metaData) throws IOException {
+    file.force(metaData);
+  }
+
+  @Override
+  public long transferTo(long position, long count, WritableByteChannel target)
+      throws IOException {
+    return file.transferTo(position, count, target);
+  }
+
+  @Override
+  public long transferFrom(ReadableByteChannel src, long position, long count)
+      throws IOException {
+    return file.transferFrom(src, position, count);
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    return file.read(dst, position);
+  }
+
+  @Override
+  public int write(ByteBuffer src, long position) throws IOException {
+    return file.write(src, position);
+  }
+
+  @Override
+  public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+    return file.map(mode, position, size);
+  }
+
+  @Override
+  public FileLock lock(long position, long size, boolean shared) throws IOException {
+    return file.lock(position, size, shared);
+  }
+
+  @Override
+  public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+    return file.tryLock(position, size, shared);
+  }
+
+  @Override
+  protected void implCloseChannel() throws IOException {
+    file.close();
+  }
+}
@@ -0,0 +1,129 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This file runs JUnit tests on the PersistentTrainDepartureRegister class, by closing and opening
+ * a register stored in a temporary directory.
+ */
+class PersistentTrainDepartureRegisterTest {
+  @TempDir Path directory;
+
+  /**
+   * Opens the register stored in the temporary directory.
+   *
+   * @return the opened register
+   */
+  private PersistentTrainDepartureRegister open() throws IOException {
+    return PersistentTrainDepartureRegister.open(directory);
+  }
+
+  /** Testing that every change is kept when the register is opened again. */
+  @Test
+  @DisplayName("Keep the changes after a restart")
+  void keepChangesAfterRestart() throws IOException {
+    try (PersistentTrainDepartureRegister stored = open()) {
+      stored.addTrainDeparture(10, 30, "F1", 1, "Bergen", 0, -1);
+      stored.addTrainDeparture(11, 0, "F2", 2, "Bodø", 0, -1);
+      stored.addTrainDeparture(6, 0, "F3", 3, "Moss", 0, -1);
+      stored.assignDelay(1, 10);
+      stored.assignTrack(2, 5);
+      stored.removeTrainDepartureBasedOnId(99);
+      stored.removeTrainDepartureBeforeTime(LocalTime.of(7, 0));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> stored.addTrainDeparture(12, 0, "F4", 1, "Oslo", 0, -1));
+    }
+    try (PersistentTrainDepartureRegister stored = open()) {
+      assertEquals(2, stored.getRegister().getNumberOfTrainDepartures());
+      assertEquals(10, stored.getRegister().getTrainDepartureBasedOnId(1).getDelay());
+      assertEquals(5, stored.getRegister().getTrainDepartureBasedOnId(2).getTrack());
+      stored.removeTrainDepartureBasedOnId(2);
+    }
+    try (PersistentTrainDepartureRegister stored = open()) {
+      assertFalse(stored.getRegister().doesDepartureIdExist(2));
+    }
+  }
+
+  /** Testing that a checkpoint empties the log and the changes after it are still replayed. */
+  @Test
+  @DisplayName("Write a checkpoint")
+  void writeCheckpoint() throws IOException {
+    try (PersistentTrainDepartureRegister stored = open()) {
+      stored.addTrainDeparture(10, 30, "F1", 1, "Bergen", 0, -1);
+      stored.checkpoint();
+      assertEquals(0, Files.size(directory.resolve("register.log")));
+      stored.assignDelay(1, 20);
+    }
+    try (PersistentTrainDepartureRegister stored = open()) {
+      assertEquals(20, stored.getRegister().getTrainDepartureBasedOnId(1).getDelay());
+    }
+  }
+
+  /** Testing that a failed write of the log closes the register for later changes. */
+  @Test
+  @DisplayName("Refuse changes after the log failed")
+  void refuseChangesAfterFailedLog() throws IOException {
+    FailingChannel channel =
+        new FailingChannel(
+            FileChannel.open(
+                directory.resolve("register.log"),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE));
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    PersistentTrainDepartureRegister stored =
+        new PersistentTrainDepartureRegister(
+            register, new WriteAheadLog(channel, 0), directory.resolve("register.snapshot"));
+    stored.addTrainDeparture(10, 30, "F1", 1, "Bergen", 0, -1);
+
+    channel.failNextWrite = true;
+    assertThrows(IOException.class, () -> stored.assignDelay(1, 15));
+    assertFalse(channel.isOpen());
+    assertThrows(
+        IOException.class, () -> stored.addTrainDeparture(11, 0, "F2", 2, "Bodø", 0, -1));
+    assertThrows(IOException.class, () -> stored.removeTrainDepartureBasedOnId(1));
+    assertFalse(register.doesDepartureIdExist(2));
+    assertTrue(register.doesDepartureIdExist(1));
+
+    try (PersistentTrainDepartureRegister reopened = open()) {
+      assertEquals(1, reopened.getRegister().getNumberOfTrainDepartures());
+      assertEquals(0, reopened.getRegister().getTrainDepartureBasedOnId(1).getDelay());
+    }
+  }
+
+  /** Testing that a snapshot and the changes logged after it are both replayed. */
+  @Test
+  @DisplayName("Recover a snapshot and its log")
+  void recoverSnapshotAndLog() throws IOException {
+    try (PersistentTrainDepartureRegister stored = open()) {
+      for (int id = 1; id <= 300; id++) {
+        stored.addTrainDeparture(id % 24, id % 60, "L" + id % 20, id, "D" + id % 40, 0, -1);
+      }
+      stored.checkpoint();
+      for (int id = 1; id <= 100; id++) {
+        stored.assignDelay(id, id % 30);
+      }
+      stored.assignTrack(200, 3);
+      stored.removeTrainDepartureBasedOnId(300);
+    }
+    try (PersistentTrainDepartureRegister stored = open()) {
+      assertEquals(299, stored.getRegister().getNumberOfTrainDepartures());
+      assertEquals(29, stored.getRegister().getTrainDepartureBasedOnId(29).getDelay());
+      assertEquals(0, stored.getRegister().getTrainDepartureBasedOnId(150).getDelay());
+      assertEquals(3, stored.getRegister().getTrainDepartureBasedOnId(200).getTrack());
+      assertFalse(stored.getRegister().doesDepartureIdExist(300));
+    }
+  }
+}
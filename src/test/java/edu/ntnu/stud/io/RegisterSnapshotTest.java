@@ -0,0 +1,55 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the RegisterSnapshot class, using snapshot files on disk. */
+class RegisterSnapshotTest {
+  @TempDir Path directory;
+
+  /** Testing that a register read from a snapshot holds the same departures. */
+  @Test
+  @DisplayName("Write and read a snapshot")
+  void writeAndReadSnapshot() throws IOException {
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    register.addTrainDeparture(10, 30, "F1", 1, "Bergen", 5, 3);
+    register.addTrainDeparture(12, 5, "F2", 2, "Bodø", 0, -1);
+    register.addTrainDeparture(23, 59, "F1", 3, "Bergen", 0, 15);
+    Path file = directory.resolve("register.snapshot");
+    RegisterSnapshot.write(register, 42, file);
+
+    RegisterSnapshot snapshot = RegisterSnapshot.read(file);
+    assertEquals(42, snapshot.getLastSequenceNumber());
+    assertEquals(register.toString(), snapshot.getRegister().toString());
+    assertFalse(Files.exists(directory.resolve("register.snapshot.tmp")));
+  }
+
+  /** Testing that a missing snapshot gives an empty register and a damaged one is detected. */
+  @Test
+  @DisplayName("Read a missing or damaged snapshot")
+  void readMissingOrDamagedSnapshot() throws IOException {
+    Path file = directory.resolve("register.snapshot");
+    RegisterSnapshot empty = RegisterSnapshot.read(file);
+    assertEquals(0, empty.getRegister().getNumberOfTrainDepartures());
+    assertEquals(0, empty.getLastSequenceNumber());
+
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    register.addTrainDeparture(10, 30, "F1", 1, "Bergen", 5, 3);
+    RegisterSnapshot.write(register, 1, file);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 10] ^= 1;
+    Files.write(file, bytes);
+    assertThrows(IOException.class, () -> RegisterSnapshot.read(file));
+
+    Files.writeString(file, "hours,minutes,line");
+    assertThrows(IOException.class, () -> RegisterSnapshot.read(file));
+  }
+}
@@ -0,0 +1,139 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.RejectedDeparture;
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the TimetableImporter class, using timetable files on disk. */
+class TimetableImporterTest {
+  @TempDir Path directory;
+  TrainDepartureRegister register = new TrainDepartureRegister();
+
+  /**
+   * Writes a timetable file to the temporary directory.
+   *
+   * @param content the content of the file
+   * @return the path of the file
+   */
+  private Path writeTimetable(String content) throws IOException {
+    Path file = directory.resolve("timetable.csv");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /** Collection of tests for importing valid timetables. */
+  @Nested
+  @DisplayName("Importing valid timetables")
+  class TestValidTimetables {
+    /** Testing that every column is read, with the header and blank lines skipped. */
+    @Test
+    @DisplayName("Import a small timetable")
+    void importSmallTimetable() throws IOException {
+      Path file =
+          writeTimetable(
+              "hours,minutes,line,id,destination,delay,track\r\n"
+                  + "10,30,F1,1,Bergen,1,3\r\n"
+                  + "\r\n"
+                  + " 12 , 5 , F2 , 2 , Bodø , , \r\n"
+                  + "11,30,F1,3,bergen,0,-1");
+      ImportReport report = new TimetableImporter(register).importTimetable(file);
+      assertEquals(3, report.getRowsRead());
+      assertEquals(3, report.getRowsImported());
+      assertTrue(report.getRejectedRows().isEmpty());
+      assertEquals(3, register.getNumberOfTrainDepartures());
+      assertEquals(
+          "| 12:05      | F2         | 2          | Bodø                 |            |       |",
+          register.returnTrainDepartureBasedOnId(2));
+      assertEquals("10:31", register.getTrainDepartureBasedOnId(1).getDelayedTime().toString());
+      assertEquals(3, register.getTrainDepartureBasedOnId(1).getTrack());
+      assertTrue(report.getRowsPerSecond() > 0);
+    }
+
+    /** Testing that a file split across threads and batches gives the same register. */
+    @Test
+    @DisplayName("Import a timetable in many chunks and batches")
+    void importInChunksAndBatches() throws IOException {
+      StringBuilder content = new StringBuilder();
+      TrainDepartureRegister expected = new TrainDepartureRegister();
+      for (int id = 1; id <= 5000; id++) {
+        int hour = id % 24;
+        int minute = (id / 24) % 60;
+        String destination = "Destination " + (id % 37);
+        content.append(hour).append(',').append(minute).append(",L").append(id % 11).append(',');
+        content.append(id).append(',').append(destination).append(",0,-1\n");
+        expected.addTrainDeparture(hour, minute, "L" + id % 11, id, destination, 0, -1);
+      }
+      Path file = writeTimetable(content.toString());
+      ImportReport report = new TimetableImporter(register, 4, 100, 1000).importTimetable(file);
+      assertEquals(5000, report.getRowsImported());
+      assertEquals(expected.toString(), register.toString());
+      assertSame(
+          register.getTrainDepartureBasedOnId(1).getDestination(),
+          register.getTrainDepartureBasedOnId(38).getDestination());
+    }
+
+    /** Testing that an empty file imports nothing. */
+    @Test
+    @DisplayName("Import an empty file")
+    void importEmptyFile() throws IOException {
+      ImportReport report = new TimetableImporter(register).importTimetable(writeTimetable(""));
+      assertEquals(0, report.getRowsRead());
+      assertEquals(0, register.getNumberOfTrainDepartures());
+    }
+  }
+
+  /** Collection of tests for the rows that cannot be imported. */
+  @Nested
+  @DisplayName("Reporting rejected rows")
+  class TestRejectedRows {
+    /** Testing that every rejected row is reported and the other rows are still added. */
+    @Test
+    @DisplayName("Report every rejected row")
+    void reportEveryRejectedRow() throws IOException {
+      Path file =
+          writeTimetable(
+              "10,30,F1,1,Bergen,0,3\n"
+                  + "10,30,F2,2,Oslo,0,3\n"
+                  + "10,31,F3,1,Moss,0,-1\n"
+                  + "1x,00,F4,4,Oslo,0,-1\n"
+                  + "10,00,F5,5,Oslo\n"
+                  + "10,00,F6,6,Oslo,0,16\n"
+                  + "10,00,F7,7,Oslo,0,-1\n");
+      ImportReport report = new TimetableImporter(register, 2, 2, 8).importTimetable(file);
+      assertEquals(7, report.getRowsRead());
+      assertEquals(2, report.getRowsImported());
+      List<RejectedDeparture> rejected = report.getRejectedRows();
+      assertEquals(
+          List.of(1, 2, 3, 4, 5), rejected.stream().map(RejectedDeparture::getRow).toList());
+      assertEquals("The hour is not a whole number.", rejected.get(2).getReason());
+      assertEquals(4, rejected.get(2).getDepartureId());
+      assertTrue(register.doesDepartureIdExist(1));
+      assertTrue(register.doesDepartureIdExist(7));
+      assertTrue(report.toString().startsWith("Imported 2 of 7 rows"));
+    }
+
+    /** Testing the error handling of the importer. */
+    @Test
+    @DisplayName("Error handling of the importer")
+    void importerErrorHandling() {
+      TimetableImporter importer = new TimetableImporter(register);
+      assertThrows(NullPointerException.class, () -> new TimetableImporter(null));
+      assertThrows(NullPointerException.class, () -> importer.importTimetable(null));
+      assertThrows(
+          IOException.class, () -> importer.importTimetable(directory.resolve("missing.csv")));
+      assertThrows(
+          IllegalArgumentException.class, () -> new TimetableImporter(register, 0, 1, 1));
+    }
+  }
+}
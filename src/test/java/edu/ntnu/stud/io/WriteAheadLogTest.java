@@ -0,0 +1,174 @@
+package edu.ntnu.stud.io;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the WriteAheadLog class, using log files on disk. */
+class WriteAheadLogTest {
+  @TempDir Path directory;
+
+  /**
+   * Opens the log file in the temporary directory and replays it into a new register.
+   *
+   * @param register the register to replay the log into
+   * @return the opened log
+   */
+  private WriteAheadLog openLog(TrainDepartureRegister register) throws IOException {
+    return WriteAheadLog.open(directory.resolve("register.log"), register, 0);
+  }
+
+  /** Testing that a failed write marks the log as failed, and loses no durable change. */
+  @Test
+  @DisplayName("Fail the log after a failed write")
+  void failAfterFailedWrite() throws IOException {
+    Path file = directory.resolve("register.log");
+    FailingChannel channel =
+        new FailingChannel(
+            FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+    WriteAheadLog log = new WriteAheadLog(channel, 0);
+    log.awaitDurable(log.logAdd(10, 30, "F1", 1, "Bergen", 0, -1));
+
+    channel.failNextWrite = true;
+    long failed = log.logAdd(11, 0, "F2", 2, "Bodø", 0, 3);
+    assertThrows(IOException.class, () -> log.awaitDurable(failed));
+    assertThrows(IOException.class, () -> log.logDelay(1, 5));
+    assertThrows(IOException.class, () -> log.awaitDurable(failed));
+    assertThrows(IOException.class, () -> log.truncate(failed));
+    log.awaitDurable(1);
+    assertThrows(IOException.class, log::close);
+    assertFalse(channel.isOpen());
+
+    TrainDepartureRegister register = new TrainDepartureRegister();
+    try (WriteAheadLog reopened = openLog(register)) {
+      assertEquals(1, reopened.getLastSequenceNumber());
+    }
+    assertEquals(1, register.getNumberOfTrainDepartures());
+    assertTrue(register.doesDepartureIdExist(1));
+  }
+
+  /** Collection of tests for replaying the log. */
+  @Nested
+  @DisplayName("Replaying the log")
+  class TestReplay {
+    /** Testing that every type of change is replayed in order. */
+    @Test
+    @DisplayName("Replay every type of change")
+    void replayEveryTypeOfChange() throws IOException {
+      try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+        log.logAdd(10, 30, "F1", 1, "Bergen", 0, -1);
+        log.logAdd(11, 0, "F2", 2, "Bodø", 0, 3);
+        log.logAdd(6, 0, "F3", 3, "Moss", 0, -1);
+        log.logDelay(1, 15);
+        log.logTrack(1, 4);
+        log.logRemove(2);
+        log.logRemoveBefore(LocalTime.of(7, 0));
+      }
+      TrainDepartureRegister register = new TrainDepartureRegister();
+      try (WriteAheadLog log = openLog(register)) {
+        assertEquals(7, log.getLastSequenceNumber());
+      }
+      assertEquals(1, register.getNumberOfTrainDepartures());
+      assertEquals(15, register.getTrainDepartureBasedOnId(1).getDelay());
+      assertEquals(4, register.getTrainDepartureBasedOnId(1).getTrack());
+    }
+
+    /** Testing that a partly written record at the end of the log is cut off. */
+    @Test
+    @DisplayName("Cut off a torn record")
+    void cutOffTornRecord() throws IOException {
+      Path file = directory.resolve("register.log");
+      try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+        log.logAdd(10, 30, "F1", 1, "Bergen", 0, -1);
+      }
+      long firstRecordEnd = Files.size(file);
+      try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+        log.logAdd(11, 0, "F2", 2, "Bodø", 0, 3);
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(Files.size(file) - 3);
+      }
+
+      TrainDepartureRegister register = new TrainDepartureRegister();
+      try (WriteAheadLog log = openLog(register)) {
+        assertEquals(firstRecordEnd, Files.size(file));
+        assertEquals(1, log.getLastSequenceNumber());
+        log.logDelay(1, 5);
+      }
+      assertFalse(register.doesDepartureIdExist(2));
+
+      TrainDepartureRegister restarted = new TrainDepartureRegister();
+      try (WriteAheadLog log = openLog(restarted)) {
+        assertEquals(2, log.getLastSequenceNumber());
+      }
+      assertEquals(5, restarted.getTrainDepartureBasedOnId(1).getDelay());
+    }
+
+    /** Testing that the changes already in the snapshot are skipped. */
+    @Test
+    @DisplayName("Skip the changes in the snapshot")
+    void skipChangesInSnapshot() throws IOException {
+      try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+        log.logAdd(10, 30, "F1", 1, "Bergen", 0, -1);
+        log.logAdd(11, 0, "F2", 2, "Bodø", 0, 3);
+      }
+      TrainDepartureRegister register = new TrainDepartureRegister();
+      register.addTrainDeparture(10, 30, "F1", 1, "Bergen", 0, -1);
+      try (WriteAheadLog log = WriteAheadLog.open(directory.resolve("register.log"), register, 1)) {
+        assertEquals(2, log.getLastSequenceNumber());
+      }
+      assertEquals(2, register.getNumberOfTrainDepartures());
+    }
+  }
+
+  /** Testing that changes made by many threads share the writes to disk. */
+  @Test
+  @DisplayName("Share writes to disk between threads")
+  void groupCommit() throws Exception {
+    int numberOfThreads = 8;
+    int changesPerThread = 200;
+    try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+      ExecutorService threads = Executors.newFixedThreadPool(numberOfThreads);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < numberOfThreads; t++) {
+          int thread = t;
+          futures.add(
+              threads.submit(
+                  () -> {
+                    for (int i = 0; i < changesPerThread; i++) {
+                      log.awaitDurable(log.logDelay(thread * changesPerThread + i + 1, i));
+                    }
+                    return null;
+                  }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        threads.shutdown();
+      }
+      assertEquals(numberOfThreads * changesPerThread, log.getLastSequenceNumber());
+      assertTrue(log.getNumberOfSyncs() < numberOfThreads * changesPerThread);
+    }
+    try (WriteAheadLog log = openLog(new TrainDepartureRegister())) {
+      assertEquals(numberOfThreads * changesPerThread, log.getLastSequenceNumber());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This file runs JUnit tests on the CompactTrainDepartureRegister class. The results are compared
+ * with a TrainDepartureRegister holding the same departures, since the two should behave the same.
+ */
+class CompactTrainDepartureRegisterTest {
+  CompactTrainDepartureRegister compact = new CompactTrainDepartureRegister();
+  TrainDepartureRegister register = new TrainDepartureRegister();
+
+  /** Add the same departures to both registers before each test. */
+  @BeforeEach
+  @DisplayName("Before each: Add train departures to both registers")
+  public void setUp() {
+    compact.addTrainDeparture(10, 30, "test", 1, "Bergen", 1, 3);
+    compact.addTrainDeparture(12, 30, "test", 2, "Oslo", 0, 2);
+    compact.addTrainDeparture(15, 30, "test", 3, "BERGEN", 0, -1);
+    compact.addTrainDeparture(11, 30, "test", 4, "Oslo", 1, 3);
+    register.addTrainDeparture(10, 30, "test", 1, "Bergen", 1, 3);
+    register.addTrainDeparture(12, 30, "test", 2, "Oslo", 0, 2);
+    register.addTrainDeparture(15, 30, "test", 3, "BERGEN", 0, -1);
+    register.addTrainDeparture(11, 30, "test", 4, "Oslo", 1, 3);
+  }
+
+  /** Collection of tests comparing the compact register with the register. */
+  @Nested
+  @DisplayName("Same behaviour as the register")
+  class TestSameBehaviour {
+    /** Testing that the departures are listed in the same order. */
+    @Test
+    @DisplayName("Test the toString method")
+    void testToString() {
+      assertEquals(register.toString(), compact.toString());
+    }
+
+    /** Testing the lookups by ID and destination. */
+    @Test
+    @DisplayName("Lookups by ID and destination")
+    void lookups() {
+      assertEquals(register.returnTrainDepartureBasedOnId(4), compact.returnTrainDepartureBasedOnId(4));
+      assertEquals("", compact.returnTrainDepartureBasedOnId(9));
+      assertEquals(
+          register.returnTrainDeparturesBasedOnDestinationAsString("bergen"),
+          compact.returnTrainDeparturesBasedOnDestinationAsString("bergen"));
+      assertEquals(
+          register.returnAllDestinationsInRegister(), compact.returnAllDestinationsInRegister());
+      assertTrue(compact.doesDestinationExist("OSLO"));
+      assertFalse(compact.doesDestinationExist("Moss"));
+    }
+
+    /** Testing the changes of delay and track, including collisions. */
+    @Test
+    @DisplayName("Assign delay and track")
+    void assignDelayAndTrack() {
+      assertThrows(IllegalArgumentException.class, () -> compact.assignDelay(1, 61));
+      compact.addTrainDeparture(11, 31, "test", 5, "Moss", 0, 4);
+      assertThrows(IllegalArgumentException.class, () -> compact.assignTrack(5, 3));
+      compact.removeTrainDepartureBasedOnId(5);
+      compact.assignDelay(2, 61);
+      register.assignDelay(2, 61);
+      compact.assignTrack(3, 15);
+      register.assignTrack(3, 15);
+      assertEquals(register.toString(), compact.toString());
+      assertEquals(
+          register.percentile(DepartureTimeType.DELAYED_TIME, 0.5),
+          compact.percentile(DepartureTimeType.DELAYED_TIME, 0.5));
+    }
+
+    /** Testing the removal of departures by ID and by time. */
+    @Test
+    @DisplayName("Remove departures")
+    void removeDepartures() {
+      compact.removeTrainDepartureBasedOnId(2);
+      register.removeTrainDepartureBasedOnId(2);
+      compact.removeTrainDepartureBeforeTime(LocalTime.of(11, 0));
+      register.removeTrainDepartureBeforeTime(LocalTime.of(11, 0));
+      assertEquals(2, compact.getNumberOfTrainDepartures());
+      assertEquals(register.toString(), compact.toString());
+      assertEquals(register.findInterQuartileRange(), compact.findInterQuartileRange());
+      assertEquals(
+          register.getTimeTilNextDeparture(LocalTime.of(9, 0)),
+          compact.getTimeTilNextDeparture(LocalTime.of(9, 0)));
+    }
+
+    /**
+     * Testing that an add rejected because every destination code is taken leaves the register
+     * unchanged, and the track free. The setup has used three of the destination codes.
+     */
+    @Test
+    @DisplayName("Rejected adds leave no trace")
+    void rejectedAddLeavesNoTrace() {
+      int fillers = 0x10000 - 3;
+      for (int id = 5; id < 5 + fillers; id++) {
+        compact.addTrainDeparture(id % 24, id % 60, "test", id, "Stop " + id, 0, -1);
+      }
+      assertThrows(
+          IllegalStateException.class,
+          () -> compact.addTrainDeparture(13, 0, "test", 100_000, "Moss", 0, 5));
+      assertEquals(4 + fillers, compact.getNumberOfTrainDepartures());
+      assertFalse(compact.doesDepartureIdExist(100_000));
+      compact.addTrainDeparture(13, 0, "test", 100_001, "Oslo", 0, 5);
+      assertTrue(compact.doesDepartureIdExist(100_001));
+    }
+  }
+}
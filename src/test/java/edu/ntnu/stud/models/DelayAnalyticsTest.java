@@ -0,0 +1,136 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DelayAnalytics and DelayReport classes. */
+class DelayAnalyticsTest {
+  DelayAnalytics analytics = new DelayAnalytics();
+  TrainDepartureRegister register;
+
+  /** Fills the register with departures before each test. */
+  @BeforeEach
+  void setUp() {
+    register = new TrainDepartureRegister();
+    register.addTrainDeparture(10, 30, "F1", 1, "Oslo", 0, 1);
+    register.addTrainDeparture(10, 45, "F1", 2, "oslo", 10, 1);
+    register.addTrainDeparture(12, 0, "F2", 3, "Stavanger", 3, -1);
+    register.addTrainDeparture(12, 15, "R4", 4, "Bergen", 70, 2);
+  }
+
+  /** Collection of tests for the report of one register. */
+  @Nested
+  @DisplayName("Analysing a register")
+  class TestRegister {
+    /** Testing the overall statistics and their on time share. */
+    @Test
+    @DisplayName("Overall statistics")
+    void overallStatistics() {
+      DelayStatistics overall = analytics.analyse(register).getOverall();
+      assertEquals(4, overall.getNumberOfDepartures());
+      assertEquals(2, overall.getNumberOfOnTimeDepartures());
+      assertEquals(20.75, overall.getAverageDelay(), 1e-9);
+      assertEquals(70, overall.getMaxDelay());
+      assertEquals(3, overall.getOnTimeThreshold());
+    }
+
+    /** Testing the statistics of each train line, destination, track and hour. */
+    @Test
+    @DisplayName("Statistics of each group")
+    void groups() {
+      DelayReport report = analytics.analyse(register);
+      assertEquals(List.of("F1", "F2", "R4"), List.copyOf(report.getByTrainLine().keySet()));
+      assertEquals(0.5, report.getByTrainLine().get("F1").getOnTimeShare(), 1e-9);
+      assertEquals(
+          List.of("Bergen", "Oslo", "Stavanger"), List.copyOf(report.getByDestination().keySet()));
+      assertEquals(2, report.getByDestination().get("OSLO").getNumberOfDepartures());
+      assertEquals(List.of(-1, 1, 2), List.copyOf(report.getByTrack().keySet()));
+      assertEquals(3, report.getByTrack().get(-1).getMaxDelay());
+      assertEquals(List.of(10, 12), List.copyOf(report.getByHour().keySet()));
+      assertEquals(70, report.getByHour().get(12).percentile(1));
+      assertThrows(
+          UnsupportedOperationException.class, () -> report.getByTrainLine().remove("F1"));
+    }
+
+    /** Testing that the threshold decides which departures are on time. */
+    @Test
+    @DisplayName("On time threshold")
+    void onTimeThreshold() {
+      assertEquals(
+          3, new DelayAnalytics(10).analyse(register).getOverall().getNumberOfOnTimeDepartures());
+      assertEquals(
+          1, new DelayAnalytics(0).analyse(register).getOverall().getNumberOfOnTimeDepartures());
+      assertThrows(IllegalArgumentException.class, () -> new DelayAnalytics(-1));
+      assertThrows(
+          NullPointerException.class, () -> analytics.analyse((TrainDepartureRegister) null));
+    }
+
+    /** Testing that the parallel report of a large register counts every departure once. */
+    @Test
+    @DisplayName("Large registers are counted exactly")
+    void largeRegister() {
+      TrainDepartureRegister large = new TrainDepartureRegister();
+      Random random = new Random(42);
+      long totalDelay = 0;
+      for (int id = 1; id <= 5000; id++) {
+        int delay = random.nextInt(4) == 0 ? random.nextInt(120) : 0;
+        totalDelay += delay;
+        large.addTrainDeparture(
+            random.nextInt(24), random.nextInt(60), "L" + (id % 7), id, "Stop" + (id % 11), delay,
+            -1);
+      }
+      DelayReport report = analytics.analyse(large);
+      assertEquals(5000, report.getOverall().getNumberOfDepartures());
+      assertEquals((double) totalDelay / 5000, report.getOverall().getAverageDelay(), 1e-9);
+      assertEquals(7, report.getByTrainLine().size());
+      assertEquals(
+          5000,
+          report.getByHour().values().stream()
+              .mapToInt(DelayStatistics::getNumberOfDepartures)
+              .sum());
+    }
+  }
+
+  /** Collection of tests for merging reports across stations. */
+  @Nested
+  @DisplayName("Analysing a network")
+  class TestNetwork {
+    /** Testing that the report of a network is the merged report of its stations. */
+    @Test
+    @DisplayName("Reports of stations are merged")
+    void mergeStations() {
+      StationRegistry stations = new StationRegistry();
+      TrainDepartureRegister kristiansand = stations.addStation("Kristiansand");
+      TrainDepartureRegister bergen = stations.addStation("Bergen");
+      kristiansand.addTrainDeparture(10, 30, "F1", 1, "Oslo", 0, 1);
+      kristiansand.addTrainDeparture(12, 0, "F2", 2, "Stavanger", 5, 1);
+      bergen.addTrainDeparture(11, 0, "R4", 1, "OSLO", 2, 2);
+
+      DelayReport report = analytics.analyse(stations);
+      DelayReport merged = analytics.analyse(bergen).merge(analytics.analyse(kristiansand));
+      assertEquals(merged.toString(), report.toString());
+      assertEquals(3, report.getOverall().getNumberOfDepartures());
+      assertEquals(2, report.getByDestination().get("Oslo").getNumberOfOnTimeDepartures());
+      assertEquals(List.of(10, 11, 12), List.copyOf(report.getByHour().keySet()));
+    }
+
+    /** Testing the report of a network without stations, and merging different thresholds. */
+    @Test
+    @DisplayName("Empty networks and error handling")
+    void emptyNetwork() {
+      DelayReport report = analytics.analyse(new StationRegistry());
+      assertEquals(0, report.getOverall().getNumberOfDepartures());
+      assertTrue(report.getByTrainLine().isEmpty());
+      DelayReport strict = new DelayAnalytics(0).analyse(register);
+      assertThrows(IllegalArgumentException.class, () -> report.merge(strict));
+      assertThrows(NullPointerException.class, () -> report.merge(null));
+    }
+  }
+}
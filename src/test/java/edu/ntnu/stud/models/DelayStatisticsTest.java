@@ -0,0 +1,132 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DelayStatistics class. */
+class DelayStatisticsTest {
+  /**
+   * Counts the delays into new statistics.
+   *
+   * @param onTimeThreshold the largest delay at which a departure is on time
+   * @param delays the delays to count
+   * @return the statistics
+   */
+  static DelayStatistics statisticsOf(int onTimeThreshold, int... delays) {
+    DelayStatistics statistics = new DelayStatistics(onTimeThreshold);
+    for (int delay : delays) {
+      statistics.add(delay);
+    }
+    return statistics;
+  }
+
+  /** Collection of tests for the buckets of the histogram. */
+  @Nested
+  @DisplayName("Histogram buckets")
+  class TestBuckets {
+    /** Testing that delays are bucketed by minute, ten minutes and hour. */
+    @Test
+    @DisplayName("Delays are counted in the right bucket")
+    void bucketsOfDelays() {
+      assertEquals(0, DelayStatistics.bucketOf(0));
+      assertEquals(59, DelayStatistics.bucketOf(59));
+      assertEquals(60, DelayStatistics.bucketOf(60));
+      assertEquals(60, DelayStatistics.bucketOf(69));
+      assertEquals(61, DelayStatistics.bucketOf(70));
+      assertEquals(78, DelayStatistics.bucketOf(240));
+      assertEquals(97, DelayStatistics.bucketOf(1439));
+      assertEquals(98, DelayStatistics.bucketOf(1440));
+      assertEquals(DelayStatistics.NUMBER_OF_BUCKETS - 1, DelayStatistics.bucketOf(10_000));
+    }
+
+    /** Testing that the start of every bucket is counted in that bucket. */
+    @Test
+    @DisplayName("The start of a bucket belongs to the bucket")
+    void bucketStarts() {
+      for (int bucket = 0; bucket < DelayStatistics.NUMBER_OF_BUCKETS; bucket++) {
+        assertEquals(bucket, DelayStatistics.bucketOf(DelayStatistics.bucketStart(bucket)));
+      }
+      assertThrows(IllegalArgumentException.class, () -> DelayStatistics.bucketStart(-1));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> DelayStatistics.bucketStart(DelayStatistics.NUMBER_OF_BUCKETS));
+    }
+  }
+
+  /** Collection of tests for the figures read from the statistics. */
+  @Nested
+  @DisplayName("Reading the statistics")
+  class TestFigures {
+    /** Testing the counts, on time share, average and largest delay. */
+    @Test
+    @DisplayName("Counts and averages")
+    void countsAndAverages() {
+      DelayStatistics statistics = statisticsOf(3, 0, 0, 3, 4, 13);
+      assertEquals(5, statistics.getNumberOfDepartures());
+      assertEquals(3, statistics.getNumberOfOnTimeDepartures());
+      assertEquals(0.6, statistics.getOnTimeShare(), 1e-9);
+      assertEquals(4.0, statistics.getAverageDelay(), 1e-9);
+      assertEquals(13, statistics.getMaxDelay());
+      assertEquals(2, statistics.getHistogram()[0]);
+      assertEquals(1, statistics.getHistogram()[13]);
+    }
+
+    /** Testing the percentiles, which are exact below an hour. */
+    @Test
+    @DisplayName("Percentiles")
+    void percentiles() {
+      DelayStatistics statistics = statisticsOf(3, 1, 2, 3, 4, 5, 6, 7, 8, 9, 75);
+      assertEquals(1, statistics.percentile(0));
+      assertEquals(5, statistics.percentile(0.5));
+      assertEquals(9, statistics.percentile(0.9));
+      assertEquals(70, statistics.percentile(1));
+      assertEquals(60, statisticsOf(3, 65).percentile(1));
+      assertThrows(IllegalArgumentException.class, () -> statistics.percentile(1.5));
+      assertThrows(IllegalArgumentException.class, () -> statistics.percentile(Double.NaN));
+    }
+
+    /** Testing the figures of statistics without departures. */
+    @Test
+    @DisplayName("Empty statistics")
+    void emptyStatistics() {
+      DelayStatistics statistics = new DelayStatistics(3);
+      assertEquals(0, statistics.getNumberOfDepartures());
+      assertEquals(1, statistics.getOnTimeShare());
+      assertEquals(0, statistics.getAverageDelay());
+      assertEquals(0, statistics.percentile(0.9));
+    }
+  }
+
+  /** Collection of tests for merging statistics. */
+  @Nested
+  @DisplayName("Merging statistics")
+  class TestMerge {
+    /** Testing that merging gives the same statistics as counting every departure at once. */
+    @Test
+    @DisplayName("Merging is the same as counting together")
+    void mergeIsCountingTogether() {
+      DelayStatistics first = statisticsOf(3, 0, 2, 90);
+      DelayStatistics second = statisticsOf(3, 5, 500, 3000);
+      DelayStatistics merged = first.merge(second);
+      DelayStatistics together = statisticsOf(3, 0, 2, 90, 5, 500, 3000);
+
+      assertEquals(together.toString(), merged.toString());
+      assertArrayEquals(together.getHistogram(), merged.getHistogram());
+      assertEquals(together.getNumberOfOnTimeDepartures(), merged.getNumberOfOnTimeDepartures());
+      assertEquals(3, first.getNumberOfDepartures());
+      assertEquals(3, second.getNumberOfDepartures());
+    }
+
+    /** Testing that statistics of different thresholds cannot be merged. */
+    @Test
+    @DisplayName("Error handling of merging")
+    void mergeErrorHandling() {
+      DelayStatistics statistics = statisticsOf(3, 1);
+      assertThrows(IllegalArgumentException.class, () -> statistics.merge(statisticsOf(5, 1)));
+      assertThrows(NullPointerException.class, () -> statistics.merge(null));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureExpiryWheel class to test the methods. */
+class DepartureExpiryWheelTest {
+  DepartureExpiryWheel wheel;
+
+  /** Initialise the wheel with departures in different hours and minutes before each test. */
+  @BeforeEach
+  @DisplayName("Before each: Add departures to the wheel")
+  public void setUp() {
+    wheel = new DepartureExpiryWheel();
+    wheel.add(1, LocalTime.of(0, 0));
+    wheel.add(2, LocalTime.of(10, 30));
+    wheel.add(3, LocalTime.of(10, 30));
+    wheel.add(4, LocalTime.of(10, 31));
+    wheel.add(5, LocalTime.of(23, 59));
+  }
+
+  /**
+   * Sorts the IDs so they can be compared regardless of the order within a bucket.
+   *
+   * @param departureIds the IDs returned by the wheel
+   * @return the sorted IDs
+   */
+  private static int[] sorted(int[] departureIds) {
+    int[] copy = departureIds.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  /** Testing that only the departures before the time are returned. */
+  @Test
+  @DisplayName("Departures before a time")
+  void departuresBeforeTime() {
+    assertArrayEquals(new int[0], wheel.departuresBefore(LocalTime.of(0, 0)));
+    assertArrayEquals(new int[] {1}, wheel.departuresBefore(LocalTime.of(10, 30)));
+    assertArrayEquals(new int[] {1, 2, 3}, sorted(wheel.departuresBefore(LocalTime.of(10, 31))));
+    assertArrayEquals(
+        new int[] {1, 2, 3}, sorted(wheel.departuresBefore(LocalTime.of(10, 30, 30))));
+    assertEquals(5, wheel.departuresBefore(LocalTime.MAX).length);
+  }
+
+  /** Testing that removed departures are no longer returned. */
+  @Test
+  @DisplayName("Remove a departure")
+  void removeDeparture() {
+    wheel.remove(2, LocalTime.of(10, 30));
+    assertArrayEquals(new int[] {1, 3}, sorted(wheel.departuresBefore(LocalTime.of(10, 31))));
+  }
+
+  /** Testing that a moved departure is returned based on its new time. */
+  @Test
+  @DisplayName("Move a departure")
+  void moveDeparture() {
+    wheel.move(1, LocalTime.of(0, 0), LocalTime.of(12, 0));
+    assertArrayEquals(new int[0], wheel.departuresBefore(LocalTime.of(10, 0)));
+    assertArrayEquals(
+        new int[] {1, 2, 3, 4}, sorted(wheel.departuresBefore(LocalTime.of(12, 1))));
+  }
+}
@@ -0,0 +1,61 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureFilter class. */
+class DepartureFilterTest {
+  TrainDeparture departure = new TrainDeparture(14, 30, "F1", 1, "Bergen", 0, 3);
+
+  /** Collection of tests for the conditions of the filter. */
+  @Nested
+  @DisplayName("Testing the conditions")
+  class TestConditions {
+    /** Testing that the filter without conditions selects every departure. */
+    @Test
+    @DisplayName("All departures")
+    void allDepartures() {
+      assertTrue(DepartureFilter.allDepartures().matches(departure));
+    }
+
+    /** Testing that train lines and destinations are matched regardless of case. */
+    @Test
+    @DisplayName("Train line and destination")
+    void trainLineAndDestination() {
+      DepartureFilter filter = DepartureFilter.allDepartures().onTrainLine("f1");
+      assertTrue(filter.matches(departure));
+      assertTrue(filter.goingTo("BERGEN").matches(departure));
+      assertFalse(filter.goingTo("Oslo").matches(departure));
+      assertFalse(DepartureFilter.allDepartures().onTrainLine("F2").matches(departure));
+    }
+
+    /** Testing the track and the time window, where the end of the window is exclusive. */
+    @Test
+    @DisplayName("Track and time window")
+    void trackAndTimeWindow() {
+      DepartureFilter filter =
+          DepartureFilter.allDepartures().onTrack(3).departingFrom(LocalTime.of(14, 30));
+      assertTrue(filter.matches(departure));
+      assertFalse(filter.departingBefore(LocalTime.of(14, 30)).matches(departure));
+      assertFalse(filter.onTrack(-1).matches(departure));
+      assertFalse(
+          DepartureFilter.allDepartures().departingFrom(LocalTime.of(14, 31)).matches(departure));
+    }
+
+    /** Testing the error handling of the conditions. */
+    @Test
+    @DisplayName("Error handling of the conditions")
+    void conditionsErrorHandling() {
+      DepartureFilter filter = DepartureFilter.allDepartures();
+      assertThrows(IllegalArgumentException.class, () -> filter.onTrainLine(" "));
+      assertThrows(IllegalArgumentException.class, () -> filter.goingTo(""));
+      assertThrows(IllegalArgumentException.class, () -> filter.onTrack(16));
+      assertThrows(NullPointerException.class, () -> filter.departingFrom(null));
+    }
+  }
+}
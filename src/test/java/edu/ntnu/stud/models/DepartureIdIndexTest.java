@@ -0,0 +1,73 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureIdIndex class to test the methods. */
+class DepartureIdIndexTest {
+  DepartureIdIndex index;
+  TrainDeparture trainDeparture1;
+  TrainDeparture trainDeparture2;
+
+  /** Initialise the index and the train departures before each test. */
+  @BeforeEach
+  @DisplayName("Before each: Initialise the index and train departure instances")
+  public void setUp() {
+    index = new DepartureIdIndex();
+    trainDeparture1 = new TrainDeparture(10, 30, "F1", 1, "Oslo", 0, 1);
+    trainDeparture2 = new TrainDeparture(11, 30, "F2", 2, "Bergen", 0, 2);
+  }
+
+  /** Testing that a departure can be retrieved after it has been added. */
+  @Test
+  @DisplayName("Put and get a departure")
+  void putAndGet() {
+    assertNull(index.put(1, trainDeparture1));
+    assertSame(trainDeparture1, index.get(1));
+    assertTrue(index.containsKey(1));
+    assertFalse(index.containsKey(2));
+    assertNull(index.get(2));
+  }
+
+  /** Testing that putting under an existing ID replaces the departure. */
+  @Test
+  @DisplayName("Put replaces an existing departure")
+  void putReplacesExistingDeparture() {
+    index.put(1, trainDeparture1);
+    assertSame(trainDeparture1, index.put(1, trainDeparture2));
+    assertSame(trainDeparture2, index.get(1));
+    assertEquals(1, index.size());
+  }
+
+  /** Testing that removing one departure keeps the others reachable. */
+  @Test
+  @DisplayName("Remove a departure")
+  void removeDeparture() {
+    index.put(1, trainDeparture1);
+    index.put(2, trainDeparture2);
+    assertSame(trainDeparture1, index.remove(1));
+    assertNull(index.remove(1));
+    assertFalse(index.containsKey(1));
+    assertSame(trainDeparture2, index.get(2));
+    assertEquals(1, index.size());
+  }
+
+  /** Testing the index across resizes and many removals. */
+  @Test
+  @DisplayName("Many puts and removals")
+  void manyPutsAndRemovals() {
+    for (int id = 1; id <= 10_000; id++) {
+      index.put(id, trainDeparture1);
+    }
+    for (int id = 1; id <= 10_000; id += 2) {
+      index.remove(id);
+    }
+    assertEquals(5_000, index.size());
+    for (int id = 1; id <= 10_000; id++) {
+      assertEquals(id % 2 == 0, index.containsKey(id));
+    }
+  }
+}
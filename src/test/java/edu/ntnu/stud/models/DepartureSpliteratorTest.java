@@ -0,0 +1,142 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This file runs JUnit tests on the DepartureSpliterator class, through the streams of the
+ * register.
+ */
+class DepartureSpliteratorTest {
+  TrainDepartureRegister register = new TrainDepartureRegister();
+
+  /** Fills the register with most of the departures in the morning rush hour. */
+  @BeforeEach
+  void setUp() {
+    for (int departureId = 1; departureId <= 1000; departureId++) {
+      int minuteOfDay = departureId <= 800 ? 7 * 60 + departureId % 90 : departureId % 1440;
+      register.addTrainDeparture(
+          minuteOfDay / 60,
+          minuteOfDay % 60,
+          "L" + departureId % 5,
+          departureId,
+          departureId % 2 == 0 ? "Oslo" : "Bergen",
+          departureId % 7,
+          -1);
+    }
+  }
+
+  /** Collection of tests for splitting the departures. */
+  @Nested
+  @DisplayName("Splitting")
+  class TestSplitting {
+    /** Testing that a split gives two halves of about the same size, even in the rush hour. */
+    @Test
+    @DisplayName("Split into halves of the same size")
+    void splitEvenly() {
+      Spliterator<TrainDeparture> second = register.stream().spliterator();
+      assertEquals(1000, second.estimateSize());
+      Spliterator<TrainDeparture> first = second.trySplit();
+      assertNotNull(first);
+      assertEquals(1000, first.estimateSize() + second.estimateSize());
+      assertTrue(Math.abs(first.estimateSize() - second.estimateSize()) < 40);
+    }
+
+    /** Testing that the parts of repeated splits hold every departure once, in order. */
+    @Test
+    @DisplayName("Cover every departure once")
+    void coverEveryDeparture() {
+      List<Spliterator<TrainDeparture>> parts = new ArrayList<>();
+      parts.add(register.stream().spliterator());
+      for (int round = 0; round < 4; round++) {
+        List<Spliterator<TrainDeparture>> split = new ArrayList<>();
+        for (Spliterator<TrainDeparture> part : parts) {
+          Spliterator<TrainDeparture> firstHalf = part.trySplit();
+          if (firstHalf != null) {
+            split.add(firstHalf);
+          }
+          split.add(part);
+        }
+        parts = split;
+      }
+      assertTrue(parts.size() > 8);
+      List<TrainDeparture> read = new ArrayList<>();
+      for (Spliterator<TrainDeparture> part : parts) {
+        part.forEachRemaining(read::add);
+      }
+      assertEquals(List.copyOf(register.getTrainDepartures()), read);
+    }
+
+    /** Testing that a part is not split once it has started, or when it covers one minute. */
+    @Test
+    @DisplayName("Refuse to split started or single minute parts")
+    void refuseToSplit() {
+      Spliterator<TrainDeparture> started = register.stream().spliterator();
+      assertTrue(started.tryAdvance(td -> {}));
+      assertNull(started.trySplit());
+
+      TrainDepartureRegister single = new TrainDepartureRegister();
+      single.addTrainDeparture(8, 0, "L1", 1, "Oslo", 0, -1);
+      single.addTrainDeparture(8, 0, "L1", 2, "Oslo", 0, -1);
+      Spliterator<TrainDeparture> minute = single.stream().spliterator();
+      Spliterator<TrainDeparture> firstHalf = minute.trySplit();
+      long total = minute.estimateSize() + (firstHalf == null ? 0 : firstHalf.estimateSize());
+      assertEquals(2, total);
+    }
+
+    /** Testing the characteristics and the order reported by the spliterator. */
+    @Test
+    @DisplayName("Report the order of the register")
+    void reportOrder() {
+      Spliterator<TrainDeparture> spliterator = register.stream().spliterator();
+      assertTrue(
+          spliterator.hasCharacteristics(
+              Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT));
+      assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL | Spliterator.CONCURRENT));
+      List<TrainDeparture> sorted = new ArrayList<>(register.getTrainDepartures());
+      sorted.sort(spliterator.getComparator());
+      assertEquals(List.copyOf(register.getTrainDepartures()), sorted);
+    }
+  }
+
+  /** Collection of tests for the streams of the register. */
+  @Nested
+  @DisplayName("Streaming the register")
+  class TestStreams {
+    /** Testing that the sequential stream gives the departures in the order of the register. */
+    @Test
+    @DisplayName("Stream in order")
+    void streamInOrder() {
+      assertEquals(List.copyOf(register.getTrainDepartures()), register.stream().toList());
+      assertEquals(0, new TrainDepartureRegister().stream().count());
+    }
+
+    /** Testing that a parallel stream gives the same answers as a sequential one. */
+    @Test
+    @DisplayName("Stream in parallel")
+    void streamInParallel() {
+      assertTrue(register.parallelStream().isParallel());
+      assertEquals(
+          register.stream().mapToInt(TrainDeparture::getDelay).sum(),
+          register.parallelStream().mapToInt(TrainDeparture::getDelay).sum());
+      Map<String, Long> byLine =
+          register.parallelStream()
+              .collect(
+                  Collectors.groupingByConcurrent(
+                      TrainDeparture::getTrainLine, Collectors.counting()));
+      assertEquals(5, byLine.size());
+      assertEquals(200L, byLine.get("L1"));
+      assertEquals(register.stream().toList(), register.parallelStream().toList());
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureSubscription class. */
+class DepartureSubscriptionTest {
+  TrainDepartureRegister register = new TrainDepartureRegister();
+
+  /**
+   * Adds departures with the train IDs from 1 to the number, each without a track.
+   *
+   * @param numberOfDepartures the number of departures to add
+   */
+  private void addDepartures(int numberOfDepartures) {
+    for (int departureId = 1; departureId <= numberOfDepartures; departureId++) {
+      register.addTrainDeparture(
+          departureId % 24, departureId % 60, "L1", departureId, "Oslo", 0, -1);
+    }
+  }
+
+  /**
+   * Waits until the counter reaches the number.
+   *
+   * @param counter the counter
+   * @param expected the number to wait for
+   */
+  private static void awaitCount(AtomicInteger counter, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (counter.get() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(expected, counter.get());
+  }
+
+  /** Collection of tests for the delivery of events in batches. */
+  @Nested
+  @DisplayName("Delivering batches")
+  class TestBatches {
+    /** Testing that the events are delivered in order, in batches of a limited size. */
+    @Test
+    @DisplayName("Deliver in order and in batches")
+    void deliverInBatches() throws InterruptedException {
+      CountDownLatch release = new CountDownLatch(1);
+      AtomicInteger delivered = new AtomicInteger();
+      AtomicInteger batches = new AtomicInteger();
+      AtomicInteger outOfOrder = new AtomicInteger();
+      try (DepartureSubscription subscription =
+          register.subscribe(
+              events -> {
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                assertTrue(events.size() <= DepartureSubscription.MAX_BATCH_SIZE);
+                for (DepartureEvent event : events) {
+                  if (event.getDepartureId() != delivered.incrementAndGet()) {
+                    outOfOrder.incrementAndGet();
+                  }
+                }
+                batches.incrementAndGet();
+              })) {
+        addDepartures(5000);
+        release.countDown();
+        awaitCount(delivered, 5000);
+        assertEquals(0, outOfOrder.get());
+        assertTrue(batches.get() < 5000 / 2, batches.get() + " batches");
+        assertEquals(0, subscription.getNumberOfPendingEvents());
+      }
+    }
+
+    /** Testing that the batch handed to a listener cannot be changed. */
+    @Test
+    @DisplayName("Hand out read-only batches")
+    void readOnlyBatches() throws InterruptedException {
+      AtomicInteger rejected = new AtomicInteger();
+      try (DepartureSubscription subscription =
+          register.subscribe(
+              events -> {
+                try {
+                  events.clear();
+                } catch (UnsupportedOperationException e) {
+                  rejected.incrementAndGet();
+                }
+              })) {
+        addDepartures(1);
+        awaitCount(rejected, 1);
+      }
+    }
+
+    /** Testing that a listener that throws still receives the later batches. */
+    @Test
+    @DisplayName("Keep delivering after an exception")
+    void keepDeliveringAfterException() throws InterruptedException {
+      AtomicInteger delivered = new AtomicInteger();
+      try (DepartureSubscription subscription =
+          register.subscribe(
+              events -> {
+                delivered.addAndGet(events.size());
+                throw new IllegalStateException("The listener failed.");
+              })) {
+        addDepartures(1);
+        awaitCount(delivered, 1);
+        register.assignDelay(1, 5);
+        awaitCount(delivered, 2);
+      }
+    }
+  }
+
+  /** Collection of tests for listeners that are slower than the register. */
+  @Nested
+  @DisplayName("Slow listeners")
+  class TestSlowListeners {
+    /** Testing that a blocked listener neither blocks the register nor other listeners. */
+    @Test
+    @DisplayName("Never block the register")
+    void neverBlockRegister() throws InterruptedException {
+      addDepartures(1000);
+      CountDownLatch release = new CountDownLatch(1);
+      AtomicInteger slowDelivered = new AtomicInteger();
+      AtomicInteger fastDelivered = new AtomicInteger();
+      try (DepartureSubscription slow =
+              register.subscribe(
+                  events -> {
+                    try {
+                      release.await();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                    }
+                    slowDelivered.addAndGet(events.size());
+                  });
+          DepartureSubscription fast =
+              register.subscribe(events -> fastDelivered.addAndGet(events.size()))) {
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () -> {
+              for (int departureId = 1; departureId <= 1000; departureId++) {
+                register.assignDelay(departureId, 5);
+              }
+              for (int departureId = 1; departureId <= 100; departureId++) {
+                register.assignTrack(departureId, 1 + departureId % 15);
+              }
+            });
+        awaitCount(fastDelivered, 1100);
+        assertEquals(0, slowDelivered.get());
+        assertTrue(slow.getNumberOfPendingEvents() > 0);
+
+        release.countDown();
+        awaitCount(slowDelivered, 1100);
+      }
+    }
+
+    /** Testing that closing a subscription drops the events it has not delivered. */
+    @Test
+    @DisplayName("Drop pending events when closed")
+    void dropPendingEventsWhenClosed() throws InterruptedException {
+      CountDownLatch entered = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch returned = new CountDownLatch(1);
+      AtomicInteger delivered = new AtomicInteger();
+      DepartureSubscription subscription =
+          register.subscribe(
+              events -> {
+                entered.countDown();
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                delivered.addAndGet(events.size());
+                returned.countDown();
+              });
+      addDepartures(1);
+      assertTrue(entered.await(10, TimeUnit.SECONDS));
+      register.assignDelay(1, 5);
+      assertEquals(1, subscription.getNumberOfPendingEvents());
+      subscription.close();
+      assertEquals(0, subscription.getNumberOfPendingEvents());
+      register.assignDelay(1, 10);
+      assertEquals(0, subscription.getNumberOfPendingEvents());
+      release.countDown();
+      assertTrue(returned.await(10, TimeUnit.SECONDS));
+      assertEquals(1, delivered.get());
+    }
+  }
+}
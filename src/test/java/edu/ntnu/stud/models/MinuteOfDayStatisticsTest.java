@@ -0,0 +1,66 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the MinuteOfDayStatistics class to test the methods. */
+class MinuteOfDayStatisticsTest {
+  MinuteOfDayStatistics statistics;
+
+  /** Initialise the statistics with departures at the start, middle and end of the day. */
+  @BeforeEach
+  @DisplayName("Before each: Count departures")
+  public void setUp() {
+    statistics = new MinuteOfDayStatistics();
+    statistics.add(LocalTime.of(0, 0));
+    statistics.add(LocalTime.of(12, 0));
+    statistics.add(LocalTime.of(12, 0));
+    statistics.add(LocalTime.of(23, 59));
+  }
+
+  /** Testing the number of departures before a time. */
+  @Test
+  @DisplayName("Rank of a time")
+  void rankOfTime() {
+    assertEquals(0, statistics.rank(LocalTime.of(0, 0)));
+    assertEquals(1, statistics.rank(LocalTime.of(12, 0)));
+    assertEquals(3, statistics.rank(LocalTime.of(12, 1)));
+    assertEquals(3, statistics.rank(LocalTime.of(23, 59)));
+  }
+
+  /** Testing the time of the departure at each position. */
+  @Test
+  @DisplayName("Select a position")
+  void selectPosition() {
+    assertEquals(LocalTime.of(0, 0), statistics.select(0));
+    assertEquals(LocalTime.of(12, 0), statistics.select(1));
+    assertEquals(LocalTime.of(12, 0), statistics.select(2));
+    assertEquals(LocalTime.of(23, 59), statistics.select(3));
+  }
+
+  /** Testing that removed departures are no longer counted. */
+  @Test
+  @DisplayName("Remove a departure")
+  void removeDeparture() {
+    statistics.remove(LocalTime.of(12, 0));
+    assertEquals(3, statistics.size());
+    assertEquals(LocalTime.of(23, 59), statistics.select(2));
+  }
+
+  /** Testing the rank and selection by minute of the day, including the end of the day. */
+  @Test
+  @DisplayName("Count and select by minute")
+  void countAndSelectByMinute() {
+    assertEquals(0, statistics.countBefore(0));
+    assertEquals(1, statistics.countBefore(12 * 60));
+    assertEquals(3, statistics.countBefore(12 * 60 + 1));
+    assertEquals(4, statistics.countBefore(MinuteOfDayStatistics.MINUTES_PER_DAY));
+    assertEquals(12 * 60, statistics.selectMinute(2));
+    assertEquals(23 * 60 + 59, statistics.selectMinute(3));
+  }
+}
@@ -0,0 +1,107 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the StationRegistry class. */
+class StationRegistryTest {
+  StationRegistry registry = new StationRegistry();
+  TrainDepartureRegister kristiansand;
+  TrainDepartureRegister bergen;
+
+  /** Adds two stations with departures before each test. */
+  @BeforeEach
+  void setUp() {
+    kristiansand = registry.addStation("Kristiansand");
+    bergen = registry.addStation("Bergen");
+    kristiansand.addTrainDeparture(10, 30, "F1", 1, "Oslo", 0, 1);
+    kristiansand.addTrainDeparture(12, 0, "F2", 2, "Stavanger", 0, 1);
+    kristiansand.addTrainDeparture(14, 0, "F1", 3, "Oslo", 0, 1);
+    bergen.addTrainDeparture(11, 0, "R4", 1, "oslo", 0, 2);
+    bergen.addTrainDeparture(10, 30, "R4", 2, "Oslo", 5, 2);
+  }
+
+  /** Collection of tests for adding and finding stations. */
+  @Nested
+  @DisplayName("Managing the stations")
+  class TestStations {
+    /** Testing that stations are found by name regardless of case. */
+    @Test
+    @DisplayName("Find stations by name")
+    void findStations() {
+      assertSame(kristiansand, registry.getStation("KRISTIANSAND"));
+      assertNull(registry.getStation("Moss"));
+      assertEquals(List.of("Bergen", "Kristiansand"), registry.getStationNames());
+      assertEquals(2, registry.getNumberOfStations());
+      assertEquals(5, registry.getNumberOfTrainDepartures());
+      registry.removeStation("bergen");
+      assertEquals(3, registry.getNumberOfTrainDepartures());
+    }
+
+    /** Testing the error handling of the station methods. */
+    @Test
+    @DisplayName("Error handling of the stations")
+    void stationErrorHandling() {
+      assertThrows(IllegalArgumentException.class, () -> registry.addStation("bergen"));
+      assertThrows(IllegalArgumentException.class, () -> registry.addStation(" "));
+      assertThrows(NullPointerException.class, () -> registry.getStation(null));
+    }
+  }
+
+  /** Collection of tests for the queries across every station. */
+  @Nested
+  @DisplayName("Querying the network")
+  class TestNetworkQueries {
+    /** Testing that the departures of every station are merged in order of departure time. */
+    @Test
+    @DisplayName("Departures to a destination from every station")
+    void departuresToDestination() {
+      List<StationDeparture> toOslo = registry.getTrainDeparturesBasedOnDestination("OSLO");
+      assertEquals(
+          List.of("Bergen 2", "Kristiansand 1", "Bergen 1", "Kristiansand 3"),
+          toOslo.stream()
+              .map(sd -> sd.getStation() + " " + sd.getDeparture().getDepartureId())
+              .toList());
+      assertTrue(registry.getTrainDeparturesBasedOnDestination("Moss").isEmpty());
+      assertThrows(
+          IllegalArgumentException.class, () -> registry.getTrainDeparturesBasedOnDestination(""));
+    }
+
+    /** Testing that the next departure in the network follows the delays. */
+    @Test
+    @DisplayName("Next departure in the network")
+    void nextDeparture() {
+      StationDeparture next = registry.getNextDeparture();
+      assertEquals("Kristiansand", next.getStation());
+      assertEquals(LocalTime.of(10, 30), next.getDeparture().getDelayedTime());
+      kristiansand.assignDelay(1, 10);
+      assertEquals("Bergen", registry.getNextDeparture().getStation());
+      assertNull(new StationRegistry().getNextDeparture());
+    }
+
+    /** Testing the merge with many stations against sorting every departure. */
+    @Test
+    @DisplayName("Merge the departures of many stations")
+    void mergeManyStations() {
+      StationRegistry network = new StationRegistry();
+      for (int s = 0; s < 50; s++) {
+        TrainDepartureRegister station = network.addStation("Station " + s);
+        for (int id = 1; id <= 40; id++) {
+          station.addTrainDeparture((id * 7 + s) % 24, (id * 13 + s) % 60, "L", id, "Oslo", 0, -1);
+        }
+      }
+      List<StationDeparture> merged = network.getTrainDeparturesBasedOnDestination("Oslo");
+      assertEquals(2000, merged.size());
+      List<StationDeparture> sorted =
+          merged.stream().sorted(StationDeparture.BY_DEPARTURE_TIME).toList();
+      assertEquals(sorted, merged);
+    }
+  }
+}
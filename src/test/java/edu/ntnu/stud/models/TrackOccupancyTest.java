@@ -0,0 +1,42 @@
+package edu.ntnu.stud.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the TrackOccupancy class to test the methods. */
+class TrackOccupancyTest {
+  TrackOccupancy occupancy = new TrackOccupancy();
+
+  /** Testing that a track is only taken at the minute it was occupied. */
+  @Test
+  @DisplayName("Occupy a track")
+  void occupyTrack() {
+    assertTrue(occupancy.tryOccupy(3, LocalTime.of(10, 30)));
+    assertTrue(occupancy.isOccupied(3, LocalTime.of(10, 30)));
+    assertFalse(occupancy.tryOccupy(3, LocalTime.of(10, 30)));
+    assertFalse(occupancy.isOccupied(3, LocalTime.of(10, 31)));
+    assertFalse(occupancy.isOccupied(4, LocalTime.of(10, 30)));
+  }
+
+  /** Testing that a released track is free again. */
+  @Test
+  @DisplayName("Release a track")
+  void releaseTrack() {
+    occupancy.tryOccupy(15, LocalTime.of(23, 59));
+    occupancy.release(15, LocalTime.of(23, 59));
+    assertFalse(occupancy.isOccupied(15, LocalTime.of(23, 59)));
+  }
+
+  /** Testing that departures without a track never take a track. */
+  @Test
+  @DisplayName("Departures without a track")
+  void noTrackIsNeverOccupied() {
+    assertTrue(occupancy.tryOccupy(-1, LocalTime.of(0, 0)));
+    assertTrue(occupancy.tryOccupy(-1, LocalTime.of(0, 0)));
+    assertFalse(occupancy.isOccupied(-1, LocalTime.of(0, 0)));
+  }
+}
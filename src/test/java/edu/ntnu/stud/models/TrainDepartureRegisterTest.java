@@ -5,8 +5,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,6 +68,19 @@ class TrainDepartureRegisterTest {
       assertFalse(tdr.doesDepartureIdExist(1));
     }
 
+    /** Testing that a departure is removed based on its delayed time. */
+    @Test
+    @DisplayName("Test the removal of delayed train departures")
+    void removeDelayedTrainDepartureBeforeTime() {
+      tdr.assignDelay(1, 60);
+      tdr.removeTrainDepartureBeforeTime(LocalTime.of(11, 0));
+      assertTrue(tdr.doesDepartureIdExist(1));
+      tdr.removeTrainDepartureBeforeTime(LocalTime.of(11, 32));
+      assertFalse(tdr.doesDepartureIdExist(1));
+      assertFalse(tdr.doesDepartureIdExist(4));
+      assertEquals(2, tdr.getNumberOfTrainDepartures());
+    }
+
     /** Testing the error handling of the method that removes train departures. */
     @Test
     @DisplayName("Error handling of removeTrainDepartureBeforeTime")
@@ -117,6 +141,33 @@ class TrainDepartureRegisterTest {
           () -> newRegister.checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(td));
     }
 
+    /** Testing the exception when a train departure is added with an ID that is already taken. */
+    @Test
+    @DisplayName("Duplicate train ID exception")
+    void duplicateDepartureIdException() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> tdr.addTrainDeparture(18, 0, "test", 1, "Oslo", 0, 4));
+      assertEquals(4, tdr.getNumberOfTrainDepartures());
+    }
+
+    /** Testing that departures without a track do not collide with each other. */
+    @Test
+    @DisplayName("Departures without a track at the same time")
+    void departuresWithoutTrackAtTheSameTime() {
+      tdr.addTrainDeparture(15, 30, "test", 5, "Moss", 0, -1);
+      assertEquals(5, tdr.getNumberOfTrainDepartures());
+    }
+
+    /** Testing that a track freed by a removed departure can be used again. */
+    @Test
+    @DisplayName("Reuse the track of a removed departure")
+    void reuseTrackOfRemovedDeparture() {
+      tdr.removeTrainDepartureBasedOnId(2);
+      tdr.addTrainDeparture(12, 30, "test", 5, "Moss", 0, 2);
+      assertTrue(tdr.doesDepartureIdExist(5));
+    }
+
     /** Testing the removal of train departure based on its ID. */
     @Test
     @DisplayName("Remove train departure based on ID")
@@ -195,6 +246,23 @@ class TrainDepartureRegisterTest {
       assertEquals(timeUntilNextDeparture.toMinutes(), tdr.getTimeTilNextDeparture(systemTime));
     }
 
+    /** Testing that the next departure follows the delays, also when a train is overtaken. */
+    @Test
+    @DisplayName("Get the next departure when delays reorder the trains")
+    void getNextDepartureWithDelays() {
+      assertEquals(1, tdr.getNextDeparture().getDepartureId());
+      tdr.assignDelay(1, 90);
+      assertEquals(4, tdr.getNextDeparture().getDepartureId());
+      assertEquals(91, tdr.getTimeTilNextDeparture(LocalTime.of(10, 0)));
+      tdr.assignDelay(DepartureFilter.allDepartures(), 0);
+      assertEquals(1, tdr.getNextDeparture().getDepartureId());
+      tdr.removeTrainDepartureBasedOnId(1);
+      assertEquals(4, tdr.getNextDeparture().getDepartureId());
+      tdr.removeTrainDepartureBeforeTime(LocalTime.MAX);
+      assertNull(tdr.getNextDeparture());
+      assertEquals(-1, tdr.getTimeTilNextDeparture(LocalTime.of(10, 0)));
+    }
+
     /**
      * Testing the error handling of the method that retrieves the amount of time til next
      * departure.
@@ -224,6 +292,41 @@ class TrainDepartureRegisterTest {
       assertEquals(timeSpanBetween2ndAnd3rdDeparture, newRegister.findInterQuartileRange());
     }
 
+    /** Testing the interquartile range of an empty register. */
+    @Test
+    @DisplayName("IQR of an empty register")
+    void getInterQuartileRangeOfEmptyRegister() {
+      assertEquals("-", new TrainDepartureRegister().findInterQuartileRange());
+    }
+
+    /** Testing the percentiles of the departure time and the delayed time. */
+    @Test
+    @DisplayName("Percentiles of the register")
+    void getPercentiles() {
+      tdr.assignDelay(1, 120);
+      assertEquals(LocalTime.of(10, 30), tdr.percentile(DepartureTimeType.DEPARTURE_TIME, 0));
+      assertEquals(LocalTime.of(11, 31), tdr.percentile(DepartureTimeType.DELAYED_TIME, 0));
+      assertEquals(LocalTime.of(15, 30), tdr.percentile(DepartureTimeType.DEPARTURE_TIME, 1));
+      assertEquals(LocalTime.of(12, 30), tdr.percentile(DepartureTimeType.DELAYED_TIME, 0.5));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> tdr.percentile(DepartureTimeType.DEPARTURE_TIME, 1.5));
+      assertThrows(
+          IllegalStateException.class,
+          () -> new TrainDepartureRegister().percentile(DepartureTimeType.DELAYED_TIME, 0.5));
+    }
+
+    /** Testing the rank of a time and the selection of a position. */
+    @Test
+    @DisplayName("Rank and select")
+    void getRankAndSelect() {
+      assertEquals(2, tdr.rank(DepartureTimeType.DEPARTURE_TIME, LocalTime.of(12, 0)));
+      assertEquals(1, tdr.rank(DepartureTimeType.DELAYED_TIME, LocalTime.of(11, 31)));
+      assertEquals(LocalTime.of(12, 30), tdr.select(DepartureTimeType.DEPARTURE_TIME, 2));
+      assertThrows(
+          IllegalArgumentException.class, () -> tdr.select(DepartureTimeType.DEPARTURE_TIME, 4));
+    }
+
     /**
      * Testing the retrieval of all the destinations that the departures in the register are going
      * to.
@@ -233,6 +336,33 @@ class TrainDepartureRegisterTest {
     void getAllDestinationsInRegister() {
       assertEquals("Bergen | Oslo", tdr.returnAllDestinationsInRegister());
     }
+
+    /** Testing that the destinations are matched and listed regardless of case. */
+    @Test
+    @DisplayName("Destinations ignore case")
+    void destinationsIgnoreCase() {
+      tdr.addTrainDeparture(9, 0, "test", 5, "OSLO", 0, 4);
+      assertEquals("OSLO | Bergen", tdr.returnAllDestinationsInRegister());
+      assertTrue(tdr.doesDestinationExist("oSlO"));
+      assertEquals(
+          new TrainDeparture(9, 0, "test", 5, "OSLO", 0, 4)
+              + "\n"
+              + trainDepartureNumber4
+              + "\n"
+              + trainDepartureNumber2,
+          tdr.returnTrainDeparturesBasedOnDestinationAsString("oslo"));
+    }
+
+    /** Testing that a destination disappears when its last departure is removed. */
+    @Test
+    @DisplayName("Destination removed with its last departure")
+    void destinationRemovedWithLastDeparture() {
+      tdr.removeTrainDepartureBasedOnId(2);
+      tdr.removeTrainDepartureBasedOnId(4);
+      assertFalse(tdr.doesDestinationExist("Oslo"));
+      assertEquals("", tdr.returnTrainDeparturesBasedOnDestinationAsString("Oslo"));
+      assertEquals("Bergen", tdr.returnAllDestinationsInRegister());
+    }
   }
 
   /** Collection of tests for the setters. */
@@ -250,6 +380,16 @@ class TrainDepartureRegisterTest {
       assertEquals(trainDepartureNumber2WithDelay.toString(), tdr.returnTrainDepartureBasedOnId(2));
     }
 
+    /** Testing that a delay moving a departure onto a taken track and time is rejected. */
+    @Test
+    @DisplayName("Delay that collides with another departure")
+    void setDelayThatCollides() {
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignDelay(1, 61));
+      assertEquals(trainDepartureNumber1.toString(), tdr.returnTrainDepartureBasedOnId(1));
+      tdr.assignDelay(1, 62);
+      tdr.assignDelay(4, 0);
+    }
+
     /** Error handling of the method that sets the delay for a train departure. */
     @Test
     @DisplayName("Error handling of setDelayThroughRegister")
@@ -266,6 +406,17 @@ class TrainDepartureRegisterTest {
       assertEquals(2, trainDepartureNumber2.getTrack());
     }
 
+    /** Testing that moving a departure onto a taken track and time is rejected. */
+    @Test
+    @DisplayName("Track that collides with another departure")
+    void setTrackThatCollides() {
+      tdr.addTrainDeparture(10, 31, "test", 5, "Moss", 0, 4);
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignTrack(5, 3));
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignTrack(1, 4));
+      tdr.assignTrack(1, -1);
+      tdr.assignTrack(5, 3);
+    }
+
     /** Error handling of the method that sets the track number for a train departure. */
     @Test
     @DisplayName("Error handling of setTrackNumberThroughRegister")
@@ -276,6 +427,354 @@ class TrainDepartureRegisterTest {
     }
   }
 
+  /** Collection of tests for adding a whole timetable at once. */
+  @Nested
+  @DisplayName("Testing the timetable ingest")
+  class TestAddTimetable {
+    /** Testing that a valid timetable is added in full. */
+    @Test
+    @DisplayName("Add a valid timetable")
+    void addValidTimetable() {
+      List<RejectedDeparture> rejected =
+          tdr.addTrainDepartures(
+              List.of(
+                  new TimetableEntry(9, 0, "F1", 5, "Oslo", 0, 3),
+                  new TimetableEntry(9, 0, "F2", 6, "Voss", 0, 4),
+                  new TimetableEntry(9, 0, "F3", 7, "Hamar", 0, -1)));
+      assertTrue(rejected.isEmpty());
+      assertEquals(7, tdr.getNumberOfTrainDepartures());
+      assertEquals(
+          List.of(5, 6, 7, 1, 4, 2, 3),
+          tdr.getTrainDepartures().stream().map(TrainDeparture::getDepartureId).toList());
+      assertTrue(tdr.getTrainDepartureBasedOnId(6).isReadOnly());
+    }
+
+    /** Testing that every rejected row is reported and nothing is added. */
+    @Test
+    @DisplayName("Report every rejected row")
+    void reportEveryRejectedRow() {
+      List<RejectedDeparture> rejected =
+          tdr.addTrainDepartures(
+              Arrays.asList(
+                  new TimetableEntry(9, 0, "F1", 5, "Oslo", 0, 3),
+                  new TimetableEntry(9, 0, "F2", 5, "Voss", 0, 4),
+                  new TimetableEntry(9, 0, "F3", 6, "Hamar", 0, 3),
+                  new TimetableEntry(9, 0, "F4", 1, "Bodø", 0, -1),
+                  new TimetableEntry(10, 30, "F5", 8, "Moss", 1, 3),
+                  new TimetableEntry(9, 0, " ", 9, "Oslo", 0, -1),
+                  null,
+                  new TimetableEntry(9, 0, "F6", 10, "Oslo", 0, 16)));
+      assertEquals(
+          List.of(1, 2, 3, 4, 5, 6, 7),
+          rejected.stream().map(RejectedDeparture::getRow).toList());
+      assertEquals("The train ID 5 is also used in row 0.", rejected.get(0).getReason());
+      assertEquals(
+          "The departure leaves from track 3 at the same time as row 0.",
+          rejected.get(1).getReason());
+      assertEquals(
+          "There already exists a departure with the train ID 1.", rejected.get(2).getReason());
+      assertEquals(8, rejected.get(3).getDepartureId());
+      assertEquals(4, tdr.getNumberOfTrainDepartures());
+      assertFalse(tdr.doesDepartureIdExist(5));
+    }
+
+    /** Testing that a departure without a track never collides. */
+    @Test
+    @DisplayName("Departures without a track do not collide")
+    void departuresWithoutTrack() {
+      List<RejectedDeparture> rejected =
+          tdr.addTrainDepartures(
+              List.of(
+                  new TimetableEntry(15, 30, "F1", 5, "Oslo", 0, -1),
+                  new TimetableEntry(15, 30, "F2", 6, "Voss", 0, -1)));
+      assertTrue(rejected.isEmpty());
+      assertEquals(6, tdr.getNumberOfTrainDepartures());
+    }
+
+    /** Testing that an empty timetable does not change the register. */
+    @Test
+    @DisplayName("Add an empty timetable")
+    void addEmptyTimetable() {
+      assertTrue(tdr.addTrainDepartures(List.of()).isEmpty());
+      assertEquals(4, tdr.getNumberOfTrainDepartures());
+      assertThrows(NullPointerException.class, () -> tdr.addTrainDepartures(null));
+    }
+  }
+
+  /** Collection of tests for changing many departures at once. */
+  @Nested
+  @DisplayName("Testing the bulk changes")
+  class TestBulkChanges {
+    /** Testing that minutes are added to the delay of every selected departure. */
+    @Test
+    @DisplayName("Add delay to a destination")
+    void addDelayToDestination() {
+      assertEquals(2, tdr.addDelay(DepartureFilter.allDepartures().goingTo("oslo"), 15));
+      assertEquals("12:45", tdr.getTrainDepartureBasedOnId(2).getDelayedTime().toString());
+      assertEquals("11:46", tdr.getTrainDepartureBasedOnId(4).getDelayedTime().toString());
+      assertEquals("10:31", tdr.getTrainDepartureBasedOnId(1).getDelayedTime().toString());
+    }
+
+    /** Testing that only the departures in the time window are moved to the new track. */
+    @Test
+    @DisplayName("Move a track after a given time")
+    void moveTrackAfterTime() {
+      DepartureFilter filter =
+          DepartureFilter.allDepartures().onTrack(3).departingFrom(LocalTime.of(11, 0));
+      assertEquals(1, tdr.assignTrack(filter, 5));
+      assertEquals(5, tdr.getTrainDepartureBasedOnId(4).getTrack());
+      assertEquals(3, tdr.getTrainDepartureBasedOnId(1).getTrack());
+      tdr.addTrainDeparture(11, 31, "test", 5, "Moss", 0, 3);
+      assertTrue(tdr.doesDepartureIdExist(5));
+    }
+
+    /** Testing that only the departures that actually change are counted. */
+    @Test
+    @DisplayName("Count only the changed departures")
+    void countOnlyChangedDepartures() {
+      assertEquals(1, tdr.assignDelay(DepartureFilter.allDepartures().goingTo("Oslo"), 0));
+      assertEquals(0, tdr.getTrainDepartureBasedOnId(4).getDelay());
+      assertEquals(0, tdr.assignTrack(DepartureFilter.allDepartures().onTrack(2), 2));
+      assertEquals(0, tdr.addDelay(DepartureFilter.allDepartures(), 0));
+    }
+
+    /** Testing that a window ending within a minute includes the departures in that minute. */
+    @Test
+    @DisplayName("Select up to an end with seconds")
+    void selectUntilEndWithSeconds() {
+      DepartureFilter untilSeconds =
+          DepartureFilter.allDepartures().departingBefore(LocalTime.of(10, 30, 30));
+      assertEquals(1, tdr.assignTrack(untilSeconds, 7));
+      assertEquals(7, tdr.getTrainDepartureBasedOnId(1).getTrack());
+      tdr.addTrainDeparture(23, 59, "test", 5, "Moss", 0, -1);
+      DepartureFilter untilEndOfDay =
+          DepartureFilter.allDepartures()
+              .departingFrom(LocalTime.of(15, 0, 30))
+              .departingBefore(LocalTime.MAX);
+      assertEquals(2, tdr.assignTrack(untilEndOfDay, 8));
+      assertEquals(8, tdr.getTrainDepartureBasedOnId(3).getTrack());
+      assertEquals(8, tdr.getTrainDepartureBasedOnId(5).getTrack());
+    }
+
+    /** Testing that a departure may take a track and time freed by the same batch. */
+    @Test
+    @DisplayName("Use a track freed by the same batch")
+    void useTrackFreedBySameBatch() {
+      assertEquals(2, tdr.addDelay(DepartureFilter.allDepartures().onTrack(3), 60));
+      assertEquals("11:31", tdr.getTrainDepartureBasedOnId(1).getDelayedTime().toString());
+      assertEquals("12:31", tdr.getTrainDepartureBasedOnId(4).getDelayedTime().toString());
+    }
+
+    /** Testing that nothing is changed if the batch makes two departures collide. */
+    @Test
+    @DisplayName("Reject a batch that collides")
+    void rejectBatchThatCollides() {
+      tdr.addTrainDeparture(11, 31, "test", 5, "Moss", 0, 5);
+      DepartureFilter filter = DepartureFilter.allDepartures().onTrack(3);
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignTrack(filter, 5));
+      assertEquals(3, tdr.getTrainDepartureBasedOnId(1).getTrack());
+      assertEquals(3, tdr.getTrainDepartureBasedOnId(4).getTrack());
+      TrainDeparture td = new TrainDeparture(10, 31, "test", 6, "Moss", 0, 3);
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> tdr.checkIfTwoDeparturesLeaveFromSameTrackAtTheSameTime(td));
+      assertEquals(0, tdr.assignDelay(DepartureFilter.allDepartures().goingTo("Voss"), 5));
+    }
+
+    /** Testing the error handling of the bulk changes. */
+    @Test
+    @DisplayName("Error handling of the bulk changes")
+    void bulkChangesErrorHandling() {
+      DepartureFilter filter = DepartureFilter.allDepartures();
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignDelay(filter, -1));
+      assertThrows(IllegalArgumentException.class, () -> tdr.addDelay(filter, -1));
+      assertThrows(IllegalArgumentException.class, () -> tdr.assignTrack(filter, 0));
+      assertThrows(NullPointerException.class, () -> tdr.addDelay(null, 1));
+      assertThrows(
+          IllegalArgumentException.class, () -> tdr.addDelay(filter, Integer.MAX_VALUE));
+      assertEquals(1, tdr.getTrainDepartureBasedOnId(1).getDelay());
+      assertEquals(0, tdr.getTrainDepartureBasedOnId(2).getDelay());
+    }
+  }
+
+  /** Collection of tests for writing the register to an output. */
+  @Nested
+  @DisplayName("Testing the streaming output")
+  class TestStreamingOutput {
+    /** Testing that the written board has the same rows as the toString method. */
+    @Test
+    @DisplayName("Write the whole board")
+    void writeWholeBoard() throws IOException {
+      StringWriter out = new StringWriter();
+      assertEquals(4, tdr.writeTo(out));
+      assertEquals(tdr + "\n", out.toString());
+    }
+
+    /** Testing that the pages together give the whole board, also within the same minute. */
+    @Test
+    @DisplayName("Write the board one page at a time")
+    void writeBoardInPages() throws IOException {
+      tdr.addTrainDeparture(11, 30, "test", 5, "Moss", 0, -1);
+      tdr.addTrainDeparture(11, 30, "test", 6, "Moss", 0, -1);
+      StringBuilder pages = new StringBuilder();
+      assertEquals(4, tdr.writePageTo(pages, 0, 4));
+      assertEquals(2, tdr.writePageTo(pages, 1, 4));
+      assertEquals(0, tdr.writePageTo(pages, 2, 4));
+      assertEquals(tdr + "\n", pages.toString());
+
+      StringBuilder secondPage = new StringBuilder();
+      tdr.writePageTo(secondPage, 1, 2);
+      assertEquals(
+          tdr.returnTrainDepartureBasedOnId(5) + "\n" + tdr.returnTrainDepartureBasedOnId(6) + "\n",
+          secondPage.toString());
+    }
+
+    /** Testing the departures to a destination. */
+    @Test
+    @DisplayName("Write the departures to a destination")
+    void writeDeparturesToDestination() throws IOException {
+      StringBuilder out = new StringBuilder();
+      assertEquals(2, tdr.writeTrainDeparturesBasedOnDestinationTo(out, "oslo"));
+      assertEquals(
+          tdr.returnTrainDeparturesBasedOnDestinationAsString("Oslo") + "\n", out.toString());
+    }
+
+    /** Testing the error handling of the streaming output. */
+    @Test
+    @DisplayName("Error handling of the streaming output")
+    void streamingOutputErrorHandling() {
+      StringBuilder out = new StringBuilder();
+      assertThrows(IllegalArgumentException.class, () -> tdr.writePageTo(out, -1, 10));
+      assertThrows(IllegalArgumentException.class, () -> tdr.writePageTo(out, 0, 0));
+      assertThrows(NullPointerException.class, () -> tdr.writeTo(null));
+    }
+  }
+
+  /** Collection of tests for the read-only views of the register. */
+  @Nested
+  @DisplayName("Testing the read-only views")
+  class TestReadOnlyViews {
+    /** Testing that the view is ordered and cannot be changed. */
+    @Test
+    @DisplayName("View of all departures")
+    void viewOfAllDepartures() {
+      Collection<TrainDeparture> departures = tdr.getTrainDepartures();
+      assertEquals(
+          List.of(1, 4, 2, 3),
+          departures.stream().map(TrainDeparture::getDepartureId).toList());
+      assertThrows(UnsupportedOperationException.class, departures::clear);
+      assertTrue(departures.stream().allMatch(TrainDeparture::isReadOnly));
+    }
+
+    /** Testing that changing a departure replaces it instead of changing the shared instance. */
+    @Test
+    @DisplayName("Changes are made on a copy")
+    void changesAreMadeOnCopy() {
+      TrainDeparture before = tdr.getTrainDepartureBasedOnId(2);
+      tdr.assignDelay(2, 5);
+      TrainDeparture after = tdr.getTrainDepartureBasedOnId(2);
+      assertNotSame(before, after);
+      assertEquals("12:30", before.getDelayedTime().toString());
+      assertEquals("12:35", after.getDelayedTime().toString());
+      assertThrows(IllegalStateException.class, () -> after.setTrack(4));
+    }
+
+    /** Testing that the view is not a copy, so it shows the changes made after it was taken. */
+    @Test
+    @DisplayName("The view shows later changes")
+    void viewShowsLaterChanges() {
+      Collection<TrainDeparture> departures = tdr.getTrainDepartures();
+      tdr.addTrainDeparture(9, 0, "test", 5, "Moss", 0, -1);
+      tdr.assignDelay(2, 5);
+      tdr.removeTrainDepartureBasedOnId(3);
+      assertEquals(
+          List.of(5, 1, 4, 2),
+          departures.stream().map(TrainDeparture::getDepartureId).toList());
+      assertEquals(
+          "12:35",
+          departures.stream()
+              .filter(td -> td.getDepartureId() == 2)
+              .findFirst()
+              .orElseThrow()
+              .getDelayedTime()
+              .toString());
+      assertThrows(
+          UnsupportedOperationException.class,
+          () -> departures.add(new TrainDeparture(13, 0, "test", 6, "Moss", 0, -1)));
+      assertThrows(UnsupportedOperationException.class, () -> departures.removeIf(td -> true));
+      assertEquals(4, tdr.getNumberOfTrainDepartures());
+    }
+  }
+
+  /** Collection of tests for using the register from several threads. */
+  @Nested
+  @DisplayName("Testing concurrent use")
+  class TestConcurrency {
+    /** Testing that only one of several threads can claim the same track at the same time. */
+    @Test
+    @DisplayName("Concurrent additions on the same track and time")
+    void concurrentAdditionsOnSameTrackAndTime() throws InterruptedException {
+      TrainDepartureRegister newRegister = new TrainDepartureRegister();
+      AtomicInteger added = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      for (int id = 1; id <= 64; id++) {
+        int departureId = id;
+        executor.execute(
+            () -> {
+              try {
+                newRegister.addTrainDeparture(9, 0, "F1", departureId, "Oslo", 0, 5);
+                added.incrementAndGet();
+              } catch (IllegalArgumentException e) {
+                // Another thread claimed the track first.
+              }
+            });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      assertEquals(1, added.get());
+      assertEquals(1, newRegister.getNumberOfTrainDepartures());
+    }
+
+    /** Testing that delays written by several threads are all applied while others read. */
+    @Test
+    @DisplayName("Concurrent delays and reads")
+    void concurrentDelaysAndReads() throws InterruptedException {
+      TrainDepartureRegister newRegister = new TrainDepartureRegister();
+      for (int id = 1; id <= 400; id++) {
+        newRegister.addTrainDeparture(id % 20, id % 60, "F1", id, "Oslo", 0, -1);
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      for (int writer = 0; writer < 4; writer++) {
+        int first = writer * 100 + 1;
+        executor.execute(
+            () -> {
+              for (int delay = 1; delay <= 30; delay++) {
+                for (int id = first; id < first + 100; id++) {
+                  newRegister.assignDelay(id, delay);
+                }
+              }
+            });
+      }
+      AtomicInteger failedReads = new AtomicInteger();
+      for (int reader = 0; reader < 4; reader++) {
+        executor.execute(
+            () -> {
+              for (int round = 0; round < 50; round++) {
+                if (newRegister.getTrainDepartures().size() != 400) {
+                  failedReads.incrementAndGet();
+                }
+              }
+            });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      assertEquals(0, failedReads.get());
+      for (TrainDeparture td : newRegister.getTrainDepartures()) {
+        assertEquals(td.getDepartureTime().plusMinutes(30), td.getDelayedTime());
+      }
+    }
+  }
+
   /** Testing the toString method */
   @Test
   @DisplayName("Test the toString method")
@@ -290,4 +789,224 @@ class TrainDepartureRegisterTest {
             + trainDepartureNumber3,
         tdr.toString());
   }
+
+  /** Testing that departures leaving at the same time are ordered by their ID. */
+  @Test
+  @DisplayName("Test the ordering of departures with the same departure time")
+  void testOrderingOfDeparturesWithSameTime() {
+    TrainDepartureRegister newRegister = new TrainDepartureRegister();
+    newRegister.addTrainDeparture(9, 0, "test", 7, "Oslo", 0, 1);
+    newRegister.addTrainDeparture(9, 0, "test", 5, "Bergen", 0, 2);
+    newRegister.addTrainDeparture(8, 0, "test", 6, "Moss", 0, 3);
+    assertEquals(
+        new TrainDeparture(8, 0, "test", 6, "Moss", 0, 3)
+            + "\n"
+            + new TrainDeparture(9, 0, "test", 5, "Bergen", 0, 2)
+            + "\n"
+            + new TrainDeparture(9, 0, "test", 7, "Oslo", 0, 1),
+        newRegister.toString());
+  }
+
+  /** Collection of tests for the events published to subscribed listeners. */
+  @Nested
+  @DisplayName("Publishing events")
+  class TestEvents {
+    BlockingQueue<DepartureEvent> received = new LinkedBlockingQueue<>();
+
+    /**
+     * Waits for the next event delivered to the listener.
+     *
+     * @return the event
+     */
+    private DepartureEvent nextEvent() throws InterruptedException {
+      DepartureEvent event = received.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event, "No event was delivered.");
+      return event;
+    }
+
+    /** Testing that every kind of change is published with the departures involved. */
+    @Test
+    @DisplayName("Publish every kind of change")
+    void publishChanges() throws InterruptedException {
+      try (DepartureSubscription subscription = tdr.subscribe(received::addAll)) {
+        tdr.addTrainDeparture(9, 0, "test", 5, "Trondheim", 0, -1);
+        tdr.assignDelay(5, 10);
+        tdr.assignTrack(5, 7);
+        tdr.removeTrainDepartureBasedOnId(5);
+        tdr.removeTrainDepartureBeforeTime(LocalTime.of(10, 45));
+
+        DepartureEvent added = nextEvent();
+        assertEquals(DepartureEventType.ADDED, added.getType());
+        assertEquals(5, added.getDepartureId());
+        assertNull(added.getPrevious());
+
+        DepartureEvent delayed = nextEvent();
+        assertEquals(DepartureEventType.DELAY_CHANGED, delayed.getType());
+        assertEquals(0, delayed.getPrevious().getDelay());
+        assertEquals(10, delayed.getDeparture().getDelay());
+
+        DepartureEvent moved = nextEvent();
+        assertEquals(DepartureEventType.TRACK_CHANGED, moved.getType());
+        assertEquals(-1, moved.getPrevious().getTrack());
+        assertEquals(7, moved.getDeparture().getTrack());
+
+        DepartureEvent removed = nextEvent();
+        assertEquals(DepartureEventType.REMOVED, removed.getType());
+        assertEquals(5, removed.getDepartureId());
+
+        DepartureEvent expired = nextEvent();
+        assertEquals(DepartureEventType.EXPIRED, expired.getType());
+        assertEquals(1, expired.getDepartureId());
+        assertTrue(subscription.getNumberOfPendingEvents() >= 0);
+      }
+    }
+
+    /** Testing that changes that are rejected or change nothing publish no events. */
+    @Test
+    @DisplayName("Publish nothing for rejected changes")
+    void publishNothingForRejectedChanges() throws InterruptedException {
+      try (DepartureSubscription subscription = tdr.subscribe(received::addAll)) {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> tdr.addTrainDeparture(9, 0, "test", 1, "Trondheim", 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> tdr.assignDelay(1, 61));
+        tdr.assignTrack(4, 3);
+        tdr.assignDelay(99, 5);
+        tdr.removeTrainDepartureBasedOnId(99);
+        tdr.addTrainDeparture(9, 0, "test", 5, "Trondheim", 0, -1);
+        assertEquals(5, nextEvent().getDepartureId());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+      }
+    }
+
+    /** Testing that a timetable and a bulk change publish one event per departure. */
+    @Test
+    @DisplayName("Publish bulk changes")
+    void publishBulkChanges() throws InterruptedException {
+      try (DepartureSubscription subscription = tdr.subscribe(received::addAll)) {
+        tdr.addTrainDepartures(
+            List.of(
+                new TimetableEntry(8, 0, "F1", 5, "Oslo", 0, -1),
+                new TimetableEntry(8, 30, "F1", 6, "Oslo", 0, -1)));
+        assertEquals(DepartureEventType.ADDED, nextEvent().getType());
+        assertEquals(DepartureEventType.ADDED, nextEvent().getType());
+
+        assertEquals(4, tdr.addDelay(DepartureFilter.allDepartures().goingTo("Oslo"), 5));
+        for (int i = 0; i < 4; i++) {
+          assertEquals(DepartureEventType.DELAY_CHANGED, nextEvent().getType());
+        }
+      }
+    }
+
+    /** Testing that a closed subscription receives no more events. */
+    @Test
+    @DisplayName("Stop publishing after closing")
+    void stopAfterClosing() throws InterruptedException {
+      DepartureSubscription subscription = tdr.subscribe(received::addAll);
+      subscription.close();
+      assertTrue(subscription.isClosed());
+      tdr.addTrainDeparture(9, 0, "test", 5, "Trondheim", 0, -1);
+      assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    /** Testing that a listener cannot be null. */
+    @Test
+    @DisplayName("Reject a null listener")
+    void rejectNullListener() {
+      assertThrows(NullPointerException.class, () -> tdr.subscribe(null));
+    }
+  }
+
+  /** Collection of tests for the departures in a window of time. */
+  @Nested
+  @DisplayName("Querying windows of time")
+  class TestRangeQueries {
+    /**
+     * Collects the train IDs of the departures in a window.
+     *
+     * @param type the time the window is based on
+     * @param from the start of the window
+     * @param until the end of the window
+     * @return the train IDs in the order of the window
+     */
+    private List<Integer> idsBetween(DepartureTimeType type, LocalTime from, LocalTime until) {
+      return tdr.getTrainDeparturesBetween(type, from, until).stream()
+          .map(TrainDeparture::getDepartureId)
+          .toList();
+    }
+
+    /** Testing that the window includes its start and leaves out its end. */
+    @Test
+    @DisplayName("Find the departures by departure time")
+    void findByDepartureTime() {
+      assertEquals(
+          List.of(1, 4),
+          idsBetween(DepartureTimeType.DEPARTURE_TIME, LocalTime.of(10, 30), LocalTime.of(12, 30)));
+      assertEquals(
+          List.of(1, 4, 2, 3),
+          idsBetween(DepartureTimeType.DEPARTURE_TIME, LocalTime.MIDNIGHT, LocalTime.MAX));
+      assertEquals(
+          List.of(),
+          idsBetween(DepartureTimeType.DEPARTURE_TIME, LocalTime.of(13, 0), LocalTime.of(13, 0)));
+    }
+
+    /** Testing that a window within a minute only includes the departures after its start. */
+    @Test
+    @DisplayName("Round the window to whole minutes")
+    void roundToWholeMinutes() {
+      assertEquals(
+          List.of(4),
+          idsBetween(
+              DepartureTimeType.DEPARTURE_TIME,
+              LocalTime.of(10, 30, 1),
+              LocalTime.of(11, 30, 1)));
+    }
+
+    /** Testing that the window by delayed time follows the delays. */
+    @Test
+    @DisplayName("Find the departures by delayed time")
+    void findByDelayedTime() {
+      tdr.assignDelay(3, 0);
+      tdr.assignDelay(1, 120);
+      assertEquals(
+          List.of(4, 1, 2),
+          idsBetween(DepartureTimeType.DELAYED_TIME, LocalTime.of(11, 0), LocalTime.of(15, 0)));
+      assertEquals(
+          List.of(4, 2),
+          idsBetween(DepartureTimeType.DEPARTURE_TIME, LocalTime.of(11, 0), LocalTime.of(15, 0)));
+    }
+
+    /** Testing that the window is a read-only view that shows later changes. */
+    @Test
+    @DisplayName("Return a live, read-only view")
+    void returnLiveView() {
+      Collection<TrainDeparture> window =
+          tdr.getTrainDeparturesBetween(
+              DepartureTimeType.DEPARTURE_TIME, LocalTime.of(12, 0), LocalTime.of(16, 0));
+      assertEquals(2, window.size());
+      tdr.addTrainDeparture(13, 0, "test", 5, "Trondheim", 0, -1);
+      tdr.addTrainDeparture(17, 0, "test", 6, "Trondheim", 0, -1);
+      assertEquals(3, window.size());
+      assertThrows(UnsupportedOperationException.class, window::clear);
+    }
+
+    /** Testing that a window ending before it starts, or with missing values, is rejected. */
+    @Test
+    @DisplayName("Reject invalid windows")
+    void rejectInvalidWindows() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              tdr.getTrainDeparturesBetween(
+                  DepartureTimeType.DEPARTURE_TIME, LocalTime.of(15, 0), LocalTime.of(14, 0)));
+      assertThrows(
+          NullPointerException.class,
+          () -> tdr.getTrainDeparturesBetween(null, LocalTime.MIDNIGHT, LocalTime.MAX));
+      assertThrows(
+          NullPointerException.class,
+          () ->
+              tdr.getTrainDeparturesBetween(
+                  DepartureTimeType.DELAYED_TIME, null, LocalTime.MAX));
+    }
+  }
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -166,5 +167,77 @@ class TrainDepartureTest {
       TrainDeparture td = new TrainDeparture(10, 30, "l", 1, "Oslo", 0, 4);
       assertThrows(IllegalArgumentException.class, () -> td.setTrack(-8));
     }
+
+    /** Testing that the setters of a read-only departure are rejected. */
+    @Test
+    @DisplayName("Setting the delay and track of a read-only departure")
+    void setOnReadOnlyDeparture() {
+      trainDeparture2.markAsReadOnly();
+      assertTrue(trainDeparture2.isReadOnly());
+      assertThrows(IllegalStateException.class, () -> trainDeparture2.setDelayAndDelayTime(3));
+      assertThrows(IllegalStateException.class, () -> trainDeparture2.setTrack(3));
+      assertEquals("11:35", trainDeparture2.getDelayedTime().toString());
+    }
+
+    /** Testing that a copy of a read-only departure can be changed. */
+    @Test
+    @DisplayName("Setting the delay of a copy of a read-only departure")
+    void setOnCopyOfReadOnlyDeparture() {
+      trainDeparture2.markAsReadOnly();
+      TrainDeparture copy = new TrainDeparture(trainDeparture2);
+      assertFalse(copy.isReadOnly());
+      copy.setDelayAndDelayTime(10);
+      assertEquals("11:40", copy.getDelayedTime().toString());
+    }
+  }
+
+  /** Collection of tests for the cached row of the departure board. */
+  @Nested
+  @DisplayName("Testing the cached row")
+  class TestingTheCachedRow {
+    /** Testing that columns wider than their width push the rest of the row along. */
+    @Test
+    @DisplayName("Columns wider than their width")
+    void wideColumns() {
+      TrainDeparture td =
+          new TrainDeparture(7, 5, "Regional12345", 1234567890, "mO i rAna via Trondheim", 61, 15);
+      assertEquals(
+          String.format(
+              "| %-10s | %-10s | %-10d | %-20s | %-10s | %-5s |",
+              "07:05", "Regional12345", 1234567890, "Mo i rana via trondheim", "08:06", 15),
+          td.toString());
+    }
+
+    /** Testing that the row is kept until the delay or track is changed. */
+    @Test
+    @DisplayName("The row is kept until the departure changes")
+    void rowIsKeptUntilChanged() {
+      String row = trainDeparture3.toString();
+      assertSame(row, trainDeparture3.toString());
+      TrainDeparture copy = new TrainDeparture(trainDeparture3);
+      assertSame(row, copy.toString());
+      copy.setTrack(-1);
+      assertTrue(copy.toString().endsWith("|            |       |"));
+      copy.setDelayAndDelayTime(1);
+      assertTrue(copy.toString().contains("| 00:00      |"));
+      assertSame(row, trainDeparture3.toString());
+    }
+
+    /** Testing that an unchanged row is shown from the cache, and a setter clears the cache. */
+    @Test
+    @DisplayName("Showing an unchanged row reuses it")
+    void showingUnchangedRowReusesIt() {
+      TrainDeparture td = trainDeparture2;
+      String row = td.toString();
+      assertSame(td.toString(), td.toString());
+      td.setTrack(4);
+      String changedRow = td.toString();
+      assertNotSame(row, changedRow);
+      assertNotEquals(row, changedRow);
+      assertSame(changedRow, td.toString());
+      td.setDelayAndDelayTime(10);
+      assertNotSame(changedRow, td.toString());
+      assertTrue(td.toString().contains("11:40"));
+    }
   }
 }
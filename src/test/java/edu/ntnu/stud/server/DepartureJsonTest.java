@@ -0,0 +1,86 @@
+package edu.ntnu.stud.server;
+
+import edu.ntnu.stud.models.TrainDeparture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureJson class. */
+class DepartureJsonTest {
+  TrainDeparture td = new TrainDeparture(10, 30, "F1", 1, "Oslo", 15, 3);
+
+  /** Collection of tests for departures written as JSON. */
+  @Nested
+  @DisplayName("Writing departures")
+  class TestDepartures {
+    /** Testing that a departure is written with every field. */
+    @Test
+    @DisplayName("Write a departure")
+    void writeDeparture() throws IOException {
+      StringBuilder json = new StringBuilder();
+      DepartureJson.writeDeparture(json, td);
+      assertEquals(
+          "{\"departureId\":1,\"departureTime\":\"10:30\",\"trainLine\":\"F1\","
+              + "\"destination\":\"Oslo\",\"delay\":15,\"delayedTime\":\"10:45\",\"track\":3}",
+          json.toString());
+    }
+
+    /** Testing that departures are written as an array separated by commas. */
+    @Test
+    @DisplayName("Write a list of departures")
+    void writeDepartures() throws IOException {
+      StringBuilder json = new StringBuilder();
+      TrainDeparture other = new TrainDeparture(11, 0, "F2", 2, "Bergen", 0, -1);
+      assertEquals(2, DepartureJson.writeDepartures(json, List.of(td, other)));
+      assertTrue(json.toString().startsWith("[{\"departureId\":1,"));
+      assertTrue(json.toString().contains("},{\"departureId\":2,"));
+      assertTrue(json.toString().endsWith("\"track\":-1}]"));
+    }
+
+    /** Testing that an empty list is written as an empty array. */
+    @Test
+    @DisplayName("Write an empty list")
+    void writeNoDepartures() throws IOException {
+      StringBuilder json = new StringBuilder();
+      assertEquals(0, DepartureJson.writeDepartures(json, List.of()));
+      assertEquals("[]", json.toString());
+    }
+  }
+
+  /** Collection of tests for strings written as JSON. */
+  @Nested
+  @DisplayName("Writing strings")
+  class TestStrings {
+    /** Testing that quotes, backslashes and control characters are escaped. */
+    @Test
+    @DisplayName("Escape special characters")
+    void escapeSpecialCharacters() throws IOException {
+      StringBuilder json = new StringBuilder();
+      DepartureJson.writeString(json, "a\"b\\c\nd\te\u0001f");
+      assertEquals("\"a\\\"b\\\\c\\nd\\te\\u0001f\"", json.toString());
+    }
+
+    /** Testing that letters outside of ASCII are written as they are. */
+    @Test
+    @DisplayName("Keep letters outside of ASCII")
+    void keepNonAscii() throws IOException {
+      StringBuilder json = new StringBuilder();
+      DepartureJson.writeString(json, "Bodø");
+      assertEquals("\"Bodø\"", json.toString());
+    }
+
+    /** Testing that an error is written as an object with the field error. */
+    @Test
+    @DisplayName("Write an error")
+    void writeError() throws IOException {
+      StringBuilder json = new StringBuilder();
+      DepartureJson.writeError(json, "Not found.");
+      assertEquals("{\"error\":\"Not found.\"}", json.toString());
+    }
+  }
+}
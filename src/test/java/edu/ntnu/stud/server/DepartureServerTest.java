@@ -0,0 +1,192 @@
+package edu.ntnu.stud.server;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the DepartureServer class, sending requests to a local port. */
+class DepartureServerTest {
+  TrainDepartureRegister register = new TrainDepartureRegister();
+  HttpClient client = HttpClient.newHttpClient();
+  DepartureServer server;
+
+  /** Fills the register and starts the server on a free port. */
+  @BeforeEach
+  void setUp() throws IOException {
+    register.addTrainDeparture(10, 30, "F1", 1, "Oslo", 0, 3);
+    register.addTrainDeparture(11, 0, "F2", 2, "Bergen", 0, -1);
+    register.addTrainDeparture(9, 45, "F3", 3, "Oslo", 50, 1);
+    server =
+        new DepartureServer(register, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    server.start();
+  }
+
+  /** Stops the server. */
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  /**
+   * Sends a request to the server.
+   *
+   * @param method the HTTP method
+   * @param path the path and query of the request
+   * @return the response
+   */
+  private HttpResponse<String> send(String method, String path)
+      throws IOException, InterruptedException {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Sends a GET request to the server.
+   *
+   * @param path the path and query of the request
+   * @return the response
+   */
+  private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return send("GET", path);
+  }
+
+  /** Collection of tests for the requests that are answered. */
+  @Nested
+  @DisplayName("Answering queries")
+  class TestQueries {
+    /** Testing that the full board is sent in order of departure time. */
+    @Test
+    @DisplayName("Send the board")
+    void sendBoard() throws IOException, InterruptedException {
+      HttpResponse<String> response = get("/departures");
+      assertEquals(200, response.statusCode());
+      assertEquals(
+          "application/json; charset=utf-8",
+          response.headers().firstValue("Content-Type").orElseThrow());
+      String body = response.body();
+      assertTrue(body.startsWith("[{\"departureId\":3,"));
+      assertTrue(body.indexOf("\"departureId\":1,") < body.indexOf("\"departureId\":2,"));
+      assertTrue(body.endsWith("}]"));
+    }
+
+    /** Testing that only the departures to the destination are sent, ignoring case. */
+    @Test
+    @DisplayName("Send the departures to a destination")
+    void sendDestination() throws IOException, InterruptedException {
+      String body = get("/departures?destination=oslo").body();
+      assertTrue(body.contains("\"departureId\":1,"));
+      assertTrue(body.contains("\"departureId\":3,"));
+      assertFalse(body.contains("Bergen"));
+      assertEquals("[]", get("/departures?destination=Tromso").body());
+    }
+
+    /** Testing that a URL-encoded destination is decoded. */
+    @Test
+    @DisplayName("Decode the destination")
+    void decodeDestination() throws IOException, InterruptedException {
+      register.addTrainDeparture(12, 0, "F4", 4, "Oslo S", 0, -1);
+      String body = get("/departures?destination=Oslo%20S").body();
+      assertTrue(body.contains("\"departureId\":4,"));
+      assertFalse(body.contains("\"departureId\":1,"));
+    }
+
+    /** Testing that a departure is found by its train ID. */
+    @Test
+    @DisplayName("Send a departure by ID")
+    void sendById() throws IOException, InterruptedException {
+      HttpResponse<String> response = get("/departures/2");
+      assertEquals(200, response.statusCode());
+      assertEquals(
+          "{\"departureId\":2,\"departureTime\":\"11:00\",\"trainLine\":\"F2\","
+              + "\"destination\":\"Bergen\",\"delay\":0,\"delayedTime\":\"11:00\",\"track\":-1}",
+          response.body());
+    }
+
+    /** Testing that the next departure takes the delays into account. */
+    @Test
+    @DisplayName("Send the next departure")
+    void sendNext() throws IOException, InterruptedException {
+      HttpResponse<String> response = get("/departures/next");
+      assertEquals(200, response.statusCode());
+      assertTrue(response.body().startsWith("{\"departureId\":1,"));
+    }
+  }
+
+  /** Collection of tests for the requests that fail. */
+  @Nested
+  @DisplayName("Answering bad requests")
+  class TestErrors {
+    /** Testing that a missing departure gives 404. */
+    @Test
+    @DisplayName("Missing departure")
+    void missingDeparture() throws IOException, InterruptedException {
+      HttpResponse<String> response = get("/departures/99");
+      assertEquals(404, response.statusCode());
+      assertEquals("{\"error\":\"There is no departure with the train ID 99.\"}", response.body());
+    }
+
+    /** Testing that asking for the next departure of an empty register gives 404. */
+    @Test
+    @DisplayName("No next departure")
+    void noNextDeparture() throws IOException, InterruptedException {
+      register.removeTrainDepartureBasedOnId(1);
+      register.removeTrainDepartureBasedOnId(2);
+      register.removeTrainDepartureBasedOnId(3);
+      assertEquals(404, get("/departures/next").statusCode());
+      assertEquals("[]", get("/departures").body());
+    }
+
+    /** Testing that a train ID that is not a positive whole number gives 400. */
+    @Test
+    @DisplayName("Invalid train ID")
+    void invalidId() throws IOException, InterruptedException {
+      assertEquals(400, get("/departures/abc").statusCode());
+      assertEquals(400, get("/departures/0").statusCode());
+      assertEquals(400, get("/departures/12345678901").statusCode());
+    }
+
+    /** Testing that a blank destination gives 400. */
+    @Test
+    @DisplayName("Blank destination")
+    void blankDestination() throws IOException, InterruptedException {
+      HttpResponse<String> response = get("/departures?destination=%20");
+      assertEquals(400, response.statusCode());
+      assertTrue(response.body().startsWith("{\"error\":"));
+    }
+
+    /** Testing that paths outside of the departures give 404. */
+    @Test
+    @DisplayName("Unknown paths")
+    void unknownPaths() throws IOException, InterruptedException {
+      assertEquals(404, get("/departuresX").statusCode());
+      assertEquals(404, get("/departures/1/track").statusCode());
+      assertEquals(404, get("/other").statusCode());
+    }
+
+    /** Testing that only GET requests are answered. */
+    @Test
+    @DisplayName("Other methods")
+    void otherMethods() throws IOException, InterruptedException {
+      HttpResponse<String> response = send("DELETE", "/departures/1");
+      assertEquals(405, response.statusCode());
+      assertEquals("GET", response.headers().firstValue("Allow").orElseThrow());
+      assertTrue(register.doesDepartureIdExist(1));
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package edu.ntnu.stud.userinterface;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the BatchCommandRunner class, using scripts held in strings. */
+class BatchCommandRunnerTest {
+  TrainDepartureRegister register = new TrainDepartureRegister();
+  StringWriter out = new StringWriter();
+  BatchCommandRunner runner = new BatchCommandRunner(register, out);
+
+  /**
+   * Runs the script.
+   *
+   * @param script the commands
+   * @return the number of commands run
+   */
+  private int run(String script) throws IOException {
+    return runner.run(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /** Collection of tests for commands that succeed. */
+  @Nested
+  @DisplayName("Running valid commands")
+  class TestValidCommands {
+    /** Testing that the commands change the register without writing anything. */
+    @Test
+    @DisplayName("Change the register")
+    void changeRegister() throws IOException {
+      int commands =
+          run(
+              """
+              add 10:30 F1 1 0 -1 Oslo S
+              add 11:00 F2 2 0 3 Bergen
+              add 12:00 F3 3 0 -1 Bergen
+              delay 1 15
+              track 1 4
+              remove 3
+              """);
+      assertEquals(6, commands);
+      assertEquals("", out.toString());
+      assertEquals(0, runner.getNumberOfErrors());
+      assertEquals(15, register.getTrainDepartureBasedOnId(1).getDelay());
+      assertEquals(4, register.getTrainDepartureBasedOnId(1).getTrack());
+      assertEquals("Oslo S", register.getTrainDepartureBasedOnId(1).getDestination());
+      assertFalse(register.doesDepartureIdExist(3));
+    }
+
+    /** Testing the commands that write to the output, and that quit stops the script. */
+    @Test
+    @DisplayName("Write the board")
+    void writeBoard() throws IOException {
+      run(
+          """
+          add 10:30 F1 1 0 -1 Oslo
+          add 11:00 F2 2 5 3 Bergen
+          time 10:45
+          find 2
+          destination bergen
+          overview
+          quit
+          add 12:00 F3 3 0 -1 Moss
+          """);
+      String board = out.toString();
+      String row = register.getTrainDepartureBasedOnId(2).toString();
+      assertTrue(board.contains(UserInterface.HEADER + "\n" + row + "\n"));
+      assertTrue(board.contains("Time: 10:45  | Next Departure in 0 hours and 20 minutes."));
+      assertTrue(board.contains("Total Number of Departures: 1"));
+      assertFalse(register.doesDepartureIdExist(1));
+      assertFalse(register.doesDepartureIdExist(3));
+    }
+  }
+
+  /** Testing that failing commands are reported with their line and the script goes on. */
+  @Test
+  @DisplayName("Report failing commands")
+  void reportFailingCommands() throws IOException {
+    int commands =
+        run(
+            """
+            add 10:30 F1 1 0 -1 Oslo
+            add 10:30 F1 1 0 -1 Oslo
+            add 25:00 F1 2 0 -1 Oslo
+            delay 9 5
+            track 1 x
+            time 11:00
+            time 10:00
+            jump
+            remove 1
+            """);
+    assertEquals(9, commands);
+    assertEquals(6, runner.getNumberOfErrors());
+    String[] lines = out.toString().split("\n");
+    assertEquals("Line 2: There already exists a departure with the train ID 1.", lines[0]);
+    assertEquals("Line 3: Expected add HH:MM LINE ID DELAY TRACK DESTINATION.", lines[1]);
+    assertEquals("Line 4: There is no departure with the train ID 9.", lines[2]);
+    assertEquals("Line 5: Expected track ID TRACK.", lines[3]);
+    assertTrue(lines[4].startsWith("Line 7: The new time cannot be before the current time."));
+    assertEquals("Line 8: Unknown command jump.", lines[5]);
+    assertFalse(register.doesDepartureIdExist(1));
+  }
+}
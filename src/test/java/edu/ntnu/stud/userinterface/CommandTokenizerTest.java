@@ -0,0 +1,72 @@
+package edu.ntnu.stud.userinterface;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the CommandTokenizer class. */
+class CommandTokenizerTest {
+
+  /**
+   * Creates a tokenizer reading the text.
+   *
+   * @param text the commands
+   * @return the tokenizer
+   */
+  private static CommandTokenizer tokenize(String text) {
+    return new CommandTokenizer(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /** Testing that lines, words, numbers and times are read, with comments and blanks skipped. */
+  @Test
+  @DisplayName("Read lines and words")
+  void readLinesAndWords() throws IOException {
+    CommandTokenizer tokens = tokenize("# comment\r\n\n  add 09:45 F1 12 -1  Oslo S \r\nquit");
+    assertTrue(tokens.nextLine());
+    assertEquals(3, tokens.getLineNumber());
+    assertEquals("add", tokens.next());
+    assertEquals(9 * 60 + 45, tokens.nextTime());
+    assertEquals("F1", tokens.next());
+    assertEquals(12, tokens.nextInt());
+    assertEquals(-1, tokens.nextInt());
+    assertEquals("Oslo S", tokens.rest());
+    assertFalse(tokens.hasNext());
+    assertTrue(tokens.nextLine());
+    assertEquals("quit", tokens.next());
+    assertNull(tokens.next());
+    assertFalse(tokens.nextLine());
+  }
+
+  /** Testing that words that are not numbers or times are reported without exceptions. */
+  @Test
+  @DisplayName("Report words that are not numbers")
+  void reportInvalidNumbers() throws IOException {
+    CommandTokenizer tokens = tokenize("1x - 1234567890 24:00 9:60 12");
+    assertTrue(tokens.nextLine());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextInt());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextInt());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextInt());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextTime());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextTime());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextTime());
+    assertEquals(CommandTokenizer.NOT_A_NUMBER, tokens.nextInt());
+  }
+
+  /** Testing that a line longer than the block read at once is read whole. */
+  @Test
+  @DisplayName("Read a line across blocks")
+  void readLongLine() throws IOException {
+    String destination = "A".repeat(200_000);
+    CommandTokenizer tokens = tokenize("destination " + destination + "\nquit\n");
+    assertTrue(tokens.nextLine());
+    assertEquals("destination", tokens.next());
+    assertEquals(destination, tokens.rest());
+    assertTrue(tokens.nextLine());
+    assertEquals(2, tokens.getLineNumber());
+  }
+}
@@ -0,0 +1,123 @@
+package edu.ntnu.stud.userinterface;
+
+import edu.ntnu.stud.models.TrainDepartureRegister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** This file runs JUnit tests on the LiveBoard class, drawing the board into a string. */
+class LiveBoardTest {
+  TrainDepartureRegister register = new TrainDepartureRegister();
+  StringBuilder terminal = new StringBuilder();
+  LiveBoard live = new LiveBoard(register, terminal, 5);
+
+  /** Adds departures to the register and draws the whole board once. */
+  @BeforeEach
+  void setUp() throws IOException {
+    register.addTrainDeparture(10, 30, "F1", 1, "Oslo", 0, 3);
+    register.addTrainDeparture(11, 0, "F2", 2, "Bergen", 0, -1);
+    register.addTrainDeparture(12, 0, "F3", 3, "Oslo", 0, 1);
+    live.repaint(LocalTime.of(10, 0));
+    terminal.setLength(0);
+  }
+
+  /** Collection of tests for drawing the board. */
+  @Nested
+  @DisplayName("Drawing the board")
+  class TestDrawing {
+    /** Testing that the first repaint clears the screen and draws every line. */
+    @Test
+    @DisplayName("Draw every line the first time")
+    void drawEveryLine() throws IOException {
+      LiveBoard other = new LiveBoard(register, terminal, 5);
+      assertEquals(other.getHeight(), other.repaint(LocalTime.of(10, 0)));
+      assertTrue(terminal.toString().contains("\u001b[2J"));
+      assertTrue(terminal.toString().contains("Next Departure in 0 hours and 30 minutes."));
+      assertTrue(terminal.toString().contains("Total Number of Departures: 3"));
+      assertEquals(1 + 3 + 5 + 2, other.getHeight());
+    }
+
+    /** Testing that nothing but the saved cursor is written when nothing changed. */
+    @Test
+    @DisplayName("Write nothing when nothing changed")
+    void writeNothing() throws IOException {
+      assertEquals(0, live.repaint());
+      assertEquals("\u001b7\u001b8", terminal.toString());
+    }
+
+    /** Testing that a reset board is drawn again in full. */
+    @Test
+    @DisplayName("Draw again after a reset")
+    void drawAfterReset() throws IOException {
+      live.reset();
+      assertEquals(live.getHeight(), live.repaint());
+    }
+
+    /** Testing that the number of rows must be positive. */
+    @Test
+    @DisplayName("Reject a board without rows")
+    void rejectNoRows() {
+      assertThrows(IllegalArgumentException.class, () -> new LiveBoard(register, terminal, 0));
+      assertThrows(NullPointerException.class, () -> new LiveBoard(null, terminal, 5));
+    }
+  }
+
+  /** Collection of tests for repainting only what changed. */
+  @Nested
+  @DisplayName("Repainting changes")
+  class TestRepainting {
+    /** Testing that a delay repaints only the row of the departure, at its place on the screen. */
+    @Test
+    @DisplayName("Repaint one row after a delay")
+    void repaintDelayedRow() throws IOException {
+      register.assignDelay(2, 10);
+      assertEquals(1, live.repaint());
+      assertTrue(terminal.toString().startsWith("\u001b7\u001b[6;1H"));
+      assertTrue(terminal.toString().contains(register.getTrainDepartureBasedOnId(2).toString()));
+    }
+
+    /** Testing that a new time repaints only the countdown. */
+    @Test
+    @DisplayName("Repaint the countdown after a tick")
+    void repaintCountdown() throws IOException {
+      assertEquals(1, live.repaint(LocalTime.of(10, 10)));
+      assertTrue(terminal.toString().contains("\u001b[1;1H"));
+      assertTrue(terminal.toString().contains("Next Departure in 0 hours and 20 minutes."));
+    }
+
+    /** Testing that removing a departure moves the rows below it up and clears the last row. */
+    @Test
+    @DisplayName("Move the rows up after a removal")
+    void repaintAfterRemoval() throws IOException {
+      register.removeTrainDepartureBasedOnId(2);
+      assertEquals(3, live.repaint());
+      assertTrue(terminal.toString().contains("\u001b[7;1H\u001b[K"));
+    }
+
+    /** Testing that the cost of a repaint follows the change, not the size of the register. */
+    @Test
+    @DisplayName("Write little for a change to a large register")
+    void writeLittleForLargeRegister() throws IOException {
+      TrainDepartureRegister large = new TrainDepartureRegister();
+      for (int departureId = 1; departureId <= 10_000; departureId++) {
+        large.addTrainDeparture(
+            departureId % 24, departureId % 60, "L1", departureId, "Oslo", 0, -1);
+      }
+      LiveBoard board = new LiveBoard(large, terminal, 40);
+      board.repaint(LocalTime.MIDNIGHT);
+      terminal.setLength(0);
+
+      large.assignDelay(9999, 5);
+      assertEquals(0, board.repaint());
+      large.assignDelay(120, 5);
+      assertEquals(1, board.repaint());
+      assertTrue(terminal.length() < 200, terminal.length() + " characters");
+    }
+  }
+}